@@ -0,0 +1,221 @@
+package horrorjme;
+
+import java.util.ArrayDeque;
+
+/**
+ * Per-frame time budget for the expensive AI work, so a wave spawning or the player
+ * moving into a new area costs about the same frame time as a quiet frame.
+ *
+ * beginFrame() sets one deadline that everything below runs against, in this order:
+ *   1. FlowField integration and NavPathService searches, given the deadline directly
+ *   2. per-agent work (path re-planning, line-of-sight checks) - ZombieSimulation visits
+ *      agents near the player first, then the rest round-robin from where it stopped
+ *   3. queued one-off tasks such as spawn placement searches, one queue at a time in turn
+ * Work that doesn't fit is deferred to the next frame and counted per work type. Queued
+ * tasks always get at least one run per frame, so they can't be starved for good.
+ */
+public class AIScheduler {
+
+    public enum WorkType {
+        REPLAN,         // Navmesh path requests
+        LINE_OF_SIGHT,  // Agent-to-player visibility rays
+        SPAWN_SEARCH    // Spawn placement searches
+    }
+
+    /**
+     * One unit of deferrable work
+     */
+    public interface Task {
+        void run();
+    }
+
+    private static final WorkType[] TYPES = WorkType.values();
+    private static final float DEFAULT_BUDGET_MS = 2f;
+    private static final float DEFAULT_NEAR_DISTANCE = 15f;
+
+    private float budgetMs = DEFAULT_BUDGET_MS;
+    private float nearDistance = DEFAULT_NEAR_DISTANCE;
+    private boolean enabled = true;
+
+    // Current frame
+    private long frameStartNanos;
+    private long deadlineNanos = Long.MAX_VALUE;
+
+    // Queued tasks per work type, served round-robin
+    private final ArrayDeque<Task>[] queues;
+    private int nextQueue;
+
+    // Stats per work type
+    private final long[] completed = new long[TYPES.length];
+    private final long[] deferred = new long[TYPES.length];          // Summed over frames
+    private final int[] deferredLastFrame = new int[TYPES.length];
+    private long frames;
+    private long overBudgetFrames;
+    private long lastFrameNanos;
+    private long maxFrameNanos;
+    private long totalFrameNanos;
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // Generic array creation
+    public AIScheduler() {
+        queues = new ArrayDeque[TYPES.length];
+        for (int i = 0; i < TYPES.length; i++) {
+            queues[i] = new ArrayDeque<>();
+        }
+    }
+
+    // ==== FRAME ====
+
+    /**
+     * Start the frame's budget. Call once per frame before any scheduled work.
+     */
+    public void beginFrame() {
+        frameStartNanos = System.nanoTime();
+        deadlineNanos = enabled ? frameStartNanos + (long) (budgetMs * 1_000_000L) : Long.MAX_VALUE;
+        for (int i = 0; i < TYPES.length; i++) {
+            deferredLastFrame[i] = 0;
+        }
+    }
+
+    /**
+     * Close the frame and record how long the AI frame took (budgeted work included)
+     */
+    public void endFrame() {
+        lastFrameNanos = System.nanoTime() - frameStartNanos;
+        totalFrameNanos += lastFrameNanos;
+        maxFrameNanos = Math.max(maxFrameNanos, lastFrameNanos);
+        if (lastFrameNanos > (long) (budgetMs * 1_000_000L)) {
+            overBudgetFrames++;
+        }
+        frames++;
+    }
+
+    /**
+     * Deadline for budgeted services (System.nanoTime() based)
+     */
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public boolean hasTime() {
+        return System.nanoTime() < deadlineNanos;
+    }
+
+    /**
+     * Whether an agent this far from the player (squared) gets served before the rest
+     */
+    public boolean isNear(float distanceSquared) {
+        return distanceSquared <= nearDistance * nearDistance;
+    }
+
+    // ==== QUEUED TASKS ====
+
+    /**
+     * Queue a task to run in a later runQueued() when the budget allows
+     */
+    public void submit(WorkType type, Task task) {
+        queues[type.ordinal()].add(task);
+    }
+
+    /**
+     * Run queued tasks round-robin across work types until the budget runs out
+     */
+    public void runQueued() {
+        boolean ranOne = false;
+        int emptyInARow = 0;
+
+        while (emptyInARow < TYPES.length && (!ranOne || hasTime())) {
+            int type = nextQueue;
+            nextQueue = (nextQueue + 1) % TYPES.length;
+
+            Task task = queues[type].poll();
+            if (task == null) {
+                emptyInARow++;
+                continue;
+            }
+            emptyInARow = 0;
+            task.run();
+            completed[type]++;
+            ranOne = true;
+        }
+
+        for (int type = 0; type < TYPES.length; type++) {
+            int pending = queues[type].size();
+            if (pending > 0) {
+                recordDeferred(TYPES[type], pending);
+            }
+        }
+    }
+
+    /**
+     * Drop every queued task (map unloaded, game reset)
+     */
+    public void clear() {
+        for (int type = 0; type < TYPES.length; type++) {
+            queues[type].clear();
+        }
+        nextQueue = 0;
+    }
+
+    // ==== METRICS (also fed by agent passes that run their own work) ====
+
+    public void recordCompleted(WorkType type) {
+        completed[type.ordinal()]++;
+    }
+
+    public void recordDeferred(WorkType type, int count) {
+        deferred[type.ordinal()] += count;
+        deferredLastFrame[type.ordinal()] += count;
+    }
+
+    // ==== CONFIGURATION ====
+
+    public void setBudgetMs(float budgetMs) {
+        this.budgetMs = Math.max(0.1f, budgetMs);
+    }
+
+    public float getBudgetMs() {
+        return budgetMs;
+    }
+
+    public void setNearDistance(float nearDistance) {
+        this.nearDistance = Math.max(0f, nearDistance);
+    }
+
+    public float getNearDistance() {
+        return nearDistance;
+    }
+
+    /**
+     * Disabled = no deadline, everything runs to completion in the frame it was asked for
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ==== STATS ====
+
+    public int getPending(WorkType type) { return queues[type.ordinal()].size(); }
+    public long getCompleted(WorkType type) { return completed[type.ordinal()]; }
+    public long getDeferred(WorkType type) { return deferred[type.ordinal()]; }
+    public int getDeferredLastFrame(WorkType type) { return deferredLastFrame[type.ordinal()]; }
+    public float getLastFrameMs() { return lastFrameNanos / 1_000_000f; }
+    public long getOverBudgetFrames() { return overBudgetFrames; }
+
+    public String getStatistics() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("AIScheduler: %.1f ms budget%s - %.3f ms avg, %.3f ms max, %d/%d frames over",
+                budgetMs, enabled ? "" : " (off)",
+                frames > 0 ? totalFrameNanos / 1_000_000f / frames : 0f, maxFrameNanos / 1_000_000f,
+                overBudgetFrames, frames));
+        for (WorkType type : TYPES) {
+            sb.append(String.format("\n  %s: %d done, %d deferred (%d last frame), %d queued",
+                    type, completed[type.ordinal()], deferred[type.ordinal()],
+                    deferredLastFrame[type.ordinal()], queues[type.ordinal()].size()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package horrorjme;
+
+/**
+ * Collision broadphase used by EntityManager to find candidate pairs.
+ * Implementations report each unordered pair at most once per pass;
+ * the narrow phase (Entity.collidesWith) is left to the visitor.
+ */
+public interface Broadphase {
+
+    /**
+     * Receives candidate pairs from collectPairs
+     */
+    interface PairVisitor {
+        void visit(Entity a, Entity b);
+    }
+
+    void add(Entity entity);
+
+    void remove(Entity entity);
+
+    /**
+     * Called when an entity's position changed enough to matter
+     */
+    void update(Entity entity);
+
+    /**
+     * Report every candidate pair among active entities to the visitor
+     * @return number of candidate pairs reported
+     */
+    int collectPairs(PairVisitor visitor);
+
+    void clear();
+
+    String getName();
+}
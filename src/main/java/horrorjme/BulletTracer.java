@@ -8,6 +8,7 @@ import com.jme3.math.Vector3f;
 import com.jme3.scene.Geometry;
 import com.jme3.scene.shape.Cylinder;
 import com.jme3.texture.Texture;
+import java.util.function.Predicate;
 
 /**
  * Enhanced bullet tracer with improved damage detection and raycast collision
@@ -32,20 +33,87 @@ public class BulletTracer extends Entity {
     // ADDED: For raycast collision detection
     private Vector3f previousPosition;
     private boolean useRaycastCollision = true;
+    private final Predicate<Entity> hitTest = this::isHitAlongPath; // OPTIMIZATION: Reused query filter
 
     // Visual properties
     private static final float BULLET_LENGTH = 0.03f;
     private static final float BULLET_RADIUS = 0.03f;  // INCREASED: Better collision detection
 
+    // OPTIMIZATION: Shared preset colours and reused scratch objects - no per-shot allocation
+    private static final ColorRGBA DEFAULT_COLOR = new ColorRGBA(1f, 1f, 0.8f, 1f);
+    private static final ColorRGBA RIFLE_COLOR = new ColorRGBA(1f, 1f, 0.9f, 1f);
+    private static final ColorRGBA PISTOL_COLOR = new ColorRGBA(1f, 1f, 0.8f, 1f);
+    private static final ColorRGBA PELLET_COLOR = new ColorRGBA(1f, 0.9f, 0.7f, 1f);
+    private static final ColorRGBA TRACER_COLOR = new ColorRGBA(1f, 0.3f, 0.1f, 1f);
+    static final ColorRGBA HIT_COLOR = new ColorRGBA(1f, 0.2f, 0.2f, 1f); // Also used for hitscan tracers
+    private final ColorRGBA fadeColor = new ColorRGBA();
+    private final Vector3f lookTarget = new Vector3f();
+
+    // OPTIMIZATION: Drawn as a streak in a shared TracerBatchRenderer when one is set (no Geometry/Material)
+    private TracerBatchRenderer batchRenderer;
+    private int batchSlot = -1;
+    private final ColorRGBA tracerColor = new ColorRGBA(DEFAULT_COLOR);
+    private final Vector3f direction = new Vector3f(); // Unit travel direction, kept after the bullet stops
+
     public BulletTracer(Vector3f startPosition, Vector3f direction, AssetManager assetManager) {
         super(EntityType.DECORATION, startPosition);
         this.assetManager = assetManager;
         this.boundingRadius = BULLET_RADIUS * 1f; // INCREASED: Better collision detection
         this.previousPosition = startPosition.clone(); // ADDED: Track previous position
+        launch(startPosition, direction);
+    }
+
+    /**
+     * Pool-friendly constructor - call launch() before spawning
+     */
+    public BulletTracer(AssetManager assetManager) {
+        this(Vector3f.ZERO, Vector3f.UNIT_Z, assetManager);
+    }
+
+    /**
+     * (Re)start this tracer from a position in a direction with default ballistics.
+     * Used by the constructor and by EntityPool reuse; mesh and material are kept.
+     */
+    public void launch(Vector3f startPosition, Vector3f direction) {
+        resetForReuse(startPosition);
+        previousPosition.set(startPosition);
+
+        bulletSpeed = 80f;
+        bulletDamage = 25f;
+        maxRange = 100f;
+        travelDistance = 0f;
+        lifeTime = 2f;
+        currentLifeTime = 0f;
+        hasHit = false;
 
         // Normalize direction and set bullet velocity
-        Vector3f bulletDirection = direction.normalize();
-        this.velocity = bulletDirection.mult(bulletSpeed);
+        this.direction.set(direction).normalizeLocal();
+        velocity.set(this.direction).multLocal(bulletSpeed);
+
+        tracerColor.set(DEFAULT_COLOR);
+        if (bulletMaterial != null) {
+            bulletMaterial.setColor("Color", DEFAULT_COLOR);
+        }
+    }
+
+    /**
+     * Draw this tracer through a shared batch instead of its own Geometry.
+     * Must be set before the tracer is spawned.
+     */
+    public void setBatchRenderer(TracerBatchRenderer batchRenderer) {
+        this.batchRenderer = batchRenderer;
+    }
+
+    // Called by TracerBatchRenderer when it compacts its slots
+    void setBatchSlot(int slot) {
+        this.batchSlot = slot;
+    }
+
+    /**
+     * Give the tracer access to entity queries for swept hit detection
+     */
+    public void setEntityManager(EntityManager entityManager) {
+        this.entityManager = entityManager;
     }
 
     // ADDED: Constructor with EntityManager reference for improved collision
@@ -56,6 +124,21 @@ public class BulletTracer extends Entity {
 
     @Override
     public void initializeModel() {
+        if (batchRenderer != null) {
+            if (batchSlot < 0) {
+                batchSlot = batchRenderer.acquire(this);
+            }
+            writeStreak(originalAlpha);
+            return;
+        }
+
+        // Pooled tracer - mesh and material already built
+        if (model != null) {
+            model.setLocalTranslation(position);
+            orientAlongVelocity();
+            return;
+        }
+
         // Create a small cylinder for the bullet tracer
         Cylinder bulletCylinder = new Cylinder(2, 3, BULLET_RADIUS, BULLET_LENGTH, true);
         model = new Geometry("BulletTracer_" + entityId, bulletCylinder);
@@ -71,7 +154,7 @@ public class BulletTracer extends Entity {
             bulletMaterial.setTexture("ColorMap", bulletTexture);
         } catch (Exception e) {
             // Fallback to bright yellow/white color for visibility
-            bulletMaterial.setColor("Color", new ColorRGBA(1f, 1f, 0.8f, 1f)); // Bright yellow-white
+            bulletMaterial.setColor("Color", DEFAULT_COLOR); // Bright yellow-white
         }
 
         // Enable transparency for fade-out effect
@@ -82,7 +165,12 @@ public class BulletTracer extends Entity {
         model.setLocalTranslation(position);
 
         // Orient bullet in direction of travel
-        model.lookAt(position.add(velocity.normalize()), Vector3f.UNIT_Y);
+        orientAlongVelocity();
+    }
+
+    private void orientAlongVelocity() {
+        lookTarget.set(velocity).normalizeLocal().addLocal(position);
+        model.lookAt(lookTarget, Vector3f.UNIT_Y);
     }
 
     @Override
@@ -96,9 +184,8 @@ public class BulletTracer extends Entity {
             // ADDED: Store previous position for raycast collision
             previousPosition.set(position);
 
-            Vector3f movement = velocity.mult(tpf);
-            position.addLocal(movement);
-            travelDistance += movement.length();
+            position.addLocal(velocity.x * tpf, velocity.y * tpf, velocity.z * tpf);
+            travelDistance += velocity.length() * tpf;
 
             // ADDED: Check for raycast collision if moving fast
             if (useRaycastCollision && entityManager != null) {
@@ -119,22 +206,39 @@ public class BulletTracer extends Entity {
         }
 
         // Start fading out when bullet hits or near end of life
+        float alpha = originalAlpha;
         if (hasHit || currentLifeTime > lifeTime - fadeOutTime) {
             float fadeStartTime = hasHit ? currentLifeTime : (lifeTime - fadeOutTime);
             float fadeProgress = (currentLifeTime - fadeStartTime) / fadeOutTime;
             fadeProgress = Math.max(0f, Math.min(1f, fadeProgress));
 
-            float alpha = originalAlpha * (1f - fadeProgress);
+            alpha = originalAlpha * (1f - fadeProgress);
 
             // Update material alpha
-            ColorRGBA currentColor = bulletMaterial.getParam("Color") != null ?
-                    (ColorRGBA) bulletMaterial.getParam("Color").getValue() : ColorRGBA.White;
-            bulletMaterial.setColor("Color", new ColorRGBA(currentColor.r, currentColor.g, currentColor.b, alpha));
+            if (bulletMaterial != null) {
+                fadeColor.set(tracerColor.r, tracerColor.g, tracerColor.b, alpha);
+                bulletMaterial.setColor("Color", fadeColor);
+            }
         }
 
+        writeStreak(alpha);
+
         // Remove bullet after lifetime
         if (currentLifeTime >= lifeTime) {
-            destroy();
+            requestDestroy();
+        }
+    }
+
+    private void writeStreak(float alpha) {
+        if (batchSlot >= 0) {
+            batchRenderer.setStreak(batchSlot, position, direction, travelDistance, tracerColor, alpha);
+        }
+    }
+
+    private void releaseBatchSlot() {
+        if (batchSlot >= 0) {
+            batchRenderer.release(batchSlot);
+            batchSlot = -1;
         }
     }
 
@@ -144,57 +248,16 @@ public class BulletTracer extends Entity {
     private void checkRaycastCollision() {
         if (hasHit || entityManager == null) return;
 
-        // Check all entities for collision along bullet path
-        for (Entity entity : entityManager.getAllEntities()) {
-            if (entity == this || !entity.isActive() || entity.isDestroyed()) {
-                continue;
-            }
-
-            // Skip other decoration entities (bullets, effects, etc.)
-            if (entity.getType() == EntityType.DECORATION) {
-                continue;
-            }
-
-            // Check if bullet path intersects with entity
-            if (checkLineIntersection(previousPosition, position, entity)) {
-                // Hit detected!
-                handleCollisionWithEntity(entity);
-                return; // Stop checking after first hit
-            }
+        // OPTIMIZATION: Only entities in the grid cells the path crosses, nearest hit first
+        Entity hit = entityManager.raycast(previousPosition, position, 0f, null, this, hitTest);
+        if (hit != null) {
+            handleCollisionWithEntity(hit);
         }
     }
 
-    /**
-     * ADDED: Check if line segment intersects with entity's bounding sphere
-     */
-    private boolean checkLineIntersection(Vector3f lineStart, Vector3f lineEnd, Entity entity) {
-        Vector3f entityPos = entity.getPosition();
-        float entityRadius = entity.getBoundingRadius();
-
-        // Vector from line start to entity center
-        Vector3f toEntity = entityPos.subtract(lineStart);
-
-        // Line direction vector
-        Vector3f lineDir = lineEnd.subtract(lineStart);
-        float lineLength = lineDir.length();
-
-        if (lineLength < 0.001f) return false; // No movement
-
-        lineDir.normalizeLocal();
-
-        // Project entity center onto line
-        float projection = toEntity.dot(lineDir);
-
-        // Clamp projection to line segment
-        projection = Math.max(0f, Math.min(lineLength, projection));
-
-        // Find closest point on line to entity center
-        Vector3f closestPoint = lineStart.add(lineDir.mult(projection));
-
-        // Check distance from entity center to closest point
-        float distance = closestPoint.distance(entityPos);
-
-        return distance <= entityRadius;
+    private boolean isHitAlongPath(Entity entity) {
+        // Skip other decoration entities (bullets, effects, etc.) - the segment test is done by the grid
+        return entity.getType() != EntityType.DECORATION;
     }
 
     /**
@@ -226,9 +289,7 @@ public class BulletTracer extends Entity {
      */
     private void createHitEffect(Entity target) {
         // Change bullet color to indicate hit
-        if (bulletMaterial != null) {
-            bulletMaterial.setColor("Color", new ColorRGBA(1f, 0.2f, 0.2f, 1f)); // Red hit color
-        }
+        setBulletColor(HIT_COLOR); // Red hit color
 
         // In a full implementation, you could spawn particles, blood effects, etc.
         System.out.println("EFFECT: Hit effect created for " + target.getEntityId());
@@ -245,8 +306,15 @@ public class BulletTracer extends Entity {
         }
     }
 
+    @Override
+    public void detachFromScene() {
+        super.detachFromScene();
+        releaseBatchSlot(); // Also covers EntityManager.clear()
+    }
+
     @Override
     public void onDestroy() {
+        releaseBatchSlot();
         System.out.println("DEBUG: Bullet " + entityId + " destroyed after traveling " +
                 String.format("%.1f", travelDistance) + " units");
     }
@@ -287,8 +355,7 @@ public class BulletTracer extends Entity {
         this.bulletSpeed = Math.max(10f, speed);
         // Update current velocity if bullet is still flying
         if (!hasHit) {
-            Vector3f direction = velocity.normalize();
-            this.velocity = direction.mult(this.bulletSpeed);
+            velocity.normalizeLocal().multLocal(this.bulletSpeed);
         }
     }
 
@@ -310,6 +377,7 @@ public class BulletTracer extends Entity {
      * Set bullet color
      */
     public void setBulletColor(ColorRGBA color) {
+        tracerColor.set(color);
         if (bulletMaterial != null) {
             bulletMaterial.setColor("Color", color);
         }
@@ -326,46 +394,43 @@ public class BulletTracer extends Entity {
      * UPDATED: Preset configurations with damage values
      */
     public void setBulletPreset(BulletPreset preset) {
-        switch (preset) {
-            case FAST_RIFLE:
-                setBulletSpeed(120f);
-                setBulletDamage(35f);       // ADDED: High damage
-                setMaxRange(150f);
-                setLifeTime(2f);
-                setBulletColor(new ColorRGBA(1f, 1f, 0.9f, 1f));
-                break;
-
-            case PISTOL_ROUND:
-                setBulletSpeed(80f);
-                setBulletDamage(25f);       // ADDED: Medium damage
-                setMaxRange(100f);
-                setLifeTime(1.5f);
-                setBulletColor(new ColorRGBA(1f, 1f, 0.8f, 1f));
-                break;
-
-            case SHOTGUN_PELLET:
-                setBulletSpeed(60f);
-                setBulletDamage(15f);       // ADDED: Lower damage per pellet
-                setMaxRange(50f);
-                setLifeTime(1f);
-                setBulletColor(new ColorRGBA(1f, 0.9f, 0.7f, 1f));
-                break;
-
-            case TRACER_ROUND:
-                setBulletSpeed(100f);
-                setBulletDamage(30f);       // ADDED: Good damage
-                setMaxRange(200f);
-                setLifeTime(3f);
-                setBulletColor(new ColorRGBA(1f, 0.3f, 0.1f, 1f));
-                break;
-        }
+        setBulletSpeed(preset.speed);
+        setBulletDamage(preset.damage);
+        setMaxRange(preset.range);
+        setLifeTime(preset.lifeTime);
+        setBulletColor(preset.color);
     }
 
+    /**
+     * Ballistics per round type. Also read directly by hitscan fire, which needs the
+     * numbers but no tracer entity.
+     */
     public enum BulletPreset {
-        FAST_RIFLE,      // High-velocity, high-damage rifle round
-        PISTOL_ROUND,    // Standard pistol bullet
-        SHOTGUN_PELLET,  // Shorter range, moderate damage pellet
-        TRACER_ROUND     // Visible tracer ammunition with good damage
+        FAST_RIFLE(120f, 35f, 150f, 2f, RIFLE_COLOR),         // High-velocity, high-damage rifle round
+        PISTOL_ROUND(80f, 25f, 100f, 1.5f, PISTOL_COLOR),     // Standard pistol bullet
+        SHOTGUN_PELLET(60f, 15f, 50f, 1f, PELLET_COLOR),      // Shorter range, moderate damage pellet
+        TRACER_ROUND(100f, 30f, 200f, 3f, TRACER_COLOR);      // Visible tracer ammunition with good damage
+
+        public final float speed;
+        public final float damage;
+        public final float range;
+        public final float lifeTime;
+        private final ColorRGBA color;
+
+        BulletPreset(float speed, float damage, float range, float lifeTime, ColorRGBA color) {
+            this.speed = speed;
+            this.damage = damage;
+            this.range = range;
+            this.lifeTime = lifeTime;
+            this.color = color;
+        }
+
+        /**
+         * Tracer colour (shared - don't modify)
+         */
+        public ColorRGBA getColor() {
+            return color;
+        }
     }
 
     // ==== ENHANCED STATUS GETTERS ====
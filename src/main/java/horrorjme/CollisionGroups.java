@@ -0,0 +1,63 @@
+package horrorjme;
+
+import com.jme3.bullet.collision.PhysicsCollisionObject;
+
+/**
+ * Bullet collision groups and masks for every kind of body in the game.
+ *
+ * Bodies are tagged once when they are created; ray test hits are then classified by
+ * comparing the hit object's group (an int) instead of inspecting its spatial's name.
+ * Bullet lets two bodies collide when either one's mask contains the other's group.
+ */
+public final class CollisionGroups {
+
+    public static final int WORLD = PhysicsCollisionObject.COLLISION_GROUP_01;   // Map geometry
+    public static final int DEBRIS = PhysicsCollisionObject.COLLISION_GROUP_02;  // Shell casings
+    public static final int ENEMY = PhysicsCollisionObject.COLLISION_GROUP_03;   // Zombie bodies
+    public static final int PLAYER = PhysicsCollisionObject.COLLISION_GROUP_04;  // Player character
+    public static final int PICKUP = PhysicsCollisionObject.COLLISION_GROUP_05;  // Pickups (if given bodies)
+
+    // What each group collides with
+    public static final int WORLD_MASK = WORLD | DEBRIS | ENEMY | PLAYER | PICKUP;
+    public static final int DEBRIS_MASK = WORLD | DEBRIS | ENEMY | PLAYER;
+    public static final int ENEMY_MASK = WORLD | ENEMY | PLAYER | DEBRIS;
+    public static final int PLAYER_MASK = WORLD | ENEMY | DEBRIS;   // Casings can be kicked, as before
+    public static final int PICKUP_MASK = WORLD;
+
+    // Ray test filters
+    public static final int SHOT_BLOCKERS = WORLD | ENEMY;   // What stops a bullet
+    public static final int GROUND = WORLD;                   // What things stand on
+
+    private CollisionGroups() {
+    }
+
+    /**
+     * Tag a body with a group and the mask that goes with it
+     */
+    public static void assign(PhysicsCollisionObject body, int group) {
+        body.setCollisionGroup(group);
+        body.setCollideWithGroups(maskFor(group));
+    }
+
+    public static int maskFor(int group) {
+        switch (group) {
+            case WORLD: return WORLD_MASK;
+            case DEBRIS: return DEBRIS_MASK;
+            case ENEMY: return ENEMY_MASK;
+            case PLAYER: return PLAYER_MASK;
+            case PICKUP: return PICKUP_MASK;
+            default: return group;
+        }
+    }
+
+    /**
+     * Whether a hit object's group is in a filter
+     */
+    public static boolean matches(PhysicsCollisionObject hitObject, int filter) {
+        return (hitObject.getCollisionGroup() & filter) != 0;
+    }
+
+    public static boolean isWorld(PhysicsCollisionObject hitObject) {
+        return hitObject.getCollisionGroup() == WORLD;
+    }
+}
@@ -0,0 +1,202 @@
+package horrorjme;
+
+import com.jme3.math.Vector3f;
+import java.util.function.Consumer;
+
+/**
+ * Local crowd steering for zombies: separation, alignment and predictive avoidance
+ * (boids with an RVO-lite look-ahead), resolved in the AI layer instead of with
+ * zombie-vs-zombie physics contacts.
+ *
+ * One batched pass per frame walks the living zombies and asks the entity manager's
+ * spatial grid for the neighbours around each one, so the cost follows local density
+ * (capped at MAX_NEIGHBOURS per zombie), not the total horde size. The result is a
+ * small XZ offset stored on each zombie and blended into its path direction when its
+ * velocity is set.
+ */
+public class CrowdSteering {
+
+    private static final int MAX_NEIGHBOURS = 8;         // Closest few are enough to steer by
+    private static final float MAX_OFFSET = 1f;          // Never outweigh the path direction
+    private static final int FAR_INTERVAL = 4;           // Frames between passes outside the near band
+
+    // Tuning
+    private float neighbourRadius = 3f;        // Query radius around each zombie
+    private float personalRadius = 2f;         // Separation kicks in inside this distance
+    private float separationWeight = 1.2f;
+    private float alignmentWeight = 0.3f;
+    private float avoidanceWeight = 0.8f;
+    private float avoidanceHorizon = 1.5f;     // Seconds of look-ahead for predicted contacts
+    private boolean enabled = true;
+
+    // Reused per pass
+    private final EntityQueryBuffer neighbours = new EntityQueryBuffer(64);
+    private final Consumer<Entity> steerVisitor = this::steer;
+    private final Vector3f queryPosition = new Vector3f();
+    private EntityManager entityManager;
+    private int frame;
+
+    // Stats
+    private int steeredLastFrame;
+    private int neighbourChecksLastFrame;
+    private long totalNeighbourChecks;
+    private long passes;
+
+    /**
+     * Run the batched steering pass. Call once per frame after the AI has picked its
+     * directions and before entities move.
+     */
+    public void update(EntityManager entityManager) {
+        steeredLastFrame = 0;
+        neighbourChecksLastFrame = 0;
+        if (!enabled || entityManager == null) return;
+
+        this.entityManager = entityManager;
+        frame++;
+        entityManager.forEach(Entity.EntityType.ENEMY, steerVisitor);
+        this.entityManager = null;
+        neighbours.clear();
+
+        totalNeighbourChecks += neighbourChecksLastFrame;
+        passes++;
+    }
+
+    private void steer(Entity entity) {
+        if (!(entity instanceof ZombieEnemy)) return;
+        ZombieEnemy zombie = (ZombieEnemy) entity;
+
+        ZombieEnemy.ZombieState state = zombie.getCurrentState();
+        if (state == ZombieEnemy.ZombieState.DEAD) {
+            zombie.setCrowdSteering(0f, 0f);
+            return;
+        }
+        // OPTIMIZATION: Off-screen crowds keep their last offset for a few frames
+        if (zombie.lodBand != EntityManager.LOD_NEAR && (frame + zombie.getHandle()) % FAR_INTERVAL != 0) {
+            return;
+        }
+
+        Vector3f position = zombie.position;
+        Vector3f velocity = zombie.velocity;
+        queryPosition.set(position);
+        neighbours.clear();
+        entityManager.queryRange(queryPosition, neighbourRadius, Entity.EntityType.ENEMY, neighbours);
+
+        float separationX = 0f, separationZ = 0f;
+        float headingX = 0f, headingZ = 0f;
+        float avoidX = 0f, avoidZ = 0f;
+        int used = 0;
+        float contactDistance = personalRadius;
+
+        for (int i = 0; i < neighbours.size() && used < MAX_NEIGHBOURS; i++) {
+            Entity other = neighbours.get(i);
+            if (other == zombie || !(other instanceof ZombieEnemy)) continue;
+            if (((ZombieEnemy) other).getCurrentState() == ZombieEnemy.ZombieState.DEAD) continue;
+            used++;
+
+            float dx = position.x - other.position.x;
+            float dz = position.z - other.position.z;
+            float distanceSquared = dx * dx + dz * dz;
+
+            // Separation - stronger the deeper the overlap
+            if (distanceSquared < personalRadius * personalRadius) {
+                if (distanceSquared < 1e-6f) {
+                    // Exactly stacked - split them apart by handle order
+                    dx = zombie.getHandle() < other.getHandle() ? 1f : -1f;
+                    dz = 0f;
+                    distanceSquared = 1f;
+                }
+                float distance = (float) Math.sqrt(distanceSquared);
+                float push = (personalRadius - distance) / (personalRadius * distance);
+                separationX += dx * push;
+                separationZ += dz * push;
+            }
+
+            // Alignment - drift with the neighbours' heading
+            headingX += other.velocity.x;
+            headingZ += other.velocity.z;
+
+            // Avoidance (RVO-lite) - push away from the predicted closest approach
+            float relativeVX = velocity.x - other.velocity.x;
+            float relativeVZ = velocity.z - other.velocity.z;
+            float relativeSpeedSquared = relativeVX * relativeVX + relativeVZ * relativeVZ;
+            if (relativeSpeedSquared > 1e-4f) {
+                float time = -(dx * relativeVX + dz * relativeVZ) / relativeSpeedSquared;
+                if (time > 0f && time < avoidanceHorizon) {
+                    float closestX = dx + relativeVX * time;
+                    float closestZ = dz + relativeVZ * time;
+                    float closestSquared = closestX * closestX + closestZ * closestZ;
+                    if (closestSquared < contactDistance * contactDistance) {
+                        float urgency = 1f - time / avoidanceHorizon;
+                        float inverse = closestSquared > 1e-6f ? 1f / (float) Math.sqrt(closestSquared) : 0f;
+                        if (inverse == 0f) {
+                            // Head-on - sidestep perpendicular to the relative velocity
+                            inverse = 1f / (float) Math.sqrt(relativeSpeedSquared);
+                            closestX = -relativeVZ;
+                            closestZ = relativeVX;
+                        }
+                        avoidX += closestX * inverse * urgency;
+                        avoidZ += closestZ * inverse * urgency;
+                    }
+                }
+            }
+        }
+        neighbourChecksLastFrame += neighbours.size();
+
+        if (used == 0) {
+            zombie.setCrowdSteering(0f, 0f);
+            return;
+        }
+
+        float offsetX = separationX * separationWeight + avoidX * avoidanceWeight;
+        float offsetZ = separationZ * separationWeight + avoidZ * avoidanceWeight;
+
+        // Standing zombies (attacking) only spread out, they don't follow the flow
+        float headingSquared = headingX * headingX + headingZ * headingZ;
+        if (state == ZombieEnemy.ZombieState.WALKING && headingSquared > 1e-4f) {
+            float inverse = alignmentWeight / (float) Math.sqrt(headingSquared);
+            offsetX += headingX * inverse;
+            offsetZ += headingZ * inverse;
+        }
+
+        float lengthSquared = offsetX * offsetX + offsetZ * offsetZ;
+        if (lengthSquared > MAX_OFFSET * MAX_OFFSET) {
+            float scale = MAX_OFFSET / (float) Math.sqrt(lengthSquared);
+            offsetX *= scale;
+            offsetZ *= scale;
+        }
+
+        zombie.setCrowdSteering(offsetX, offsetZ);
+        steeredLastFrame++;
+    }
+
+    // ==== TUNING ====
+
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public boolean isEnabled() { return enabled; }
+
+    public void setRadii(float neighbourRadius, float personalRadius) {
+        this.neighbourRadius = Math.max(0.1f, neighbourRadius);
+        this.personalRadius = Math.max(0.1f, Math.min(personalRadius, this.neighbourRadius));
+    }
+
+    public void setWeights(float separation, float alignment, float avoidance) {
+        this.separationWeight = separation;
+        this.alignmentWeight = alignment;
+        this.avoidanceWeight = avoidance;
+    }
+
+    public void setAvoidanceHorizon(float seconds) {
+        this.avoidanceHorizon = Math.max(0.1f, seconds);
+    }
+
+    // ==== STATS ====
+
+    public int getSteeredLastFrame() { return steeredLastFrame; }
+    public int getNeighbourChecksLastFrame() { return neighbourChecksLastFrame; }
+
+    public String getStatistics() {
+        return String.format("CrowdSteering: %s - %d steered last frame, %d neighbour checks last frame, %.1f avg per pass",
+                enabled ? "on" : "off", steeredLastFrame, neighbourChecksLastFrame,
+                passes > 0 ? (float) totalNeighbourChecks / passes : 0f);
+    }
+}
@@ -6,8 +6,9 @@ import com.jme3.math.Vector3f;
 
 /**
  * FIXED DropSystem - Only spawns ammo for implemented weapons
+ * Subscribed to zombie DIED events on the entity event bus.
  */
-public class DropSystem {
+public class DropSystem implements EntityEventBus.Listener {
 
     // ADDED: Define which ammo types are actually usable in the game
     private static final AmmoType[] IMPLEMENTED_AMMO_TYPES = {
@@ -16,6 +17,30 @@ public class DropSystem {
             // Note: RIFLE_556 and SHOTGUN_12G are excluded since no weapons use them
     };
 
+    private final EntityManager entityManager;
+    private final AssetManager assetManager;
+    private final AudioManager audioManager;
+
+    public DropSystem(EntityManager entityManager, AssetManager assetManager, AudioManager audioManager) {
+        this.entityManager = entityManager;
+        this.assetManager = assetManager;
+        this.audioManager = audioManager;
+    }
+
+    /**
+     * Drop loot when an enemy dies
+     */
+    @Override
+    public void onEntityEvent(EntityEventBus.EventType type, Entity entity, float value) {
+        if (type != EntityEventBus.EventType.DIED || !(entity instanceof ZombieEnemy)) return;
+
+        ZombieEnemy zombie = (ZombieEnemy) entity;
+        if (zombie.hasProcessedDrop()) return;
+        zombie.setDropProcessed(true);
+
+        spawnDeathDrop(entity, entityManager, assetManager, audioManager);
+    }
+
     /**
      * Process enemy death with score tracking and health pack drops
      * FIXED: Only drops ammo for implemented weapons
@@ -30,6 +55,17 @@ public class DropSystem {
             scoreSystem.addKill();
         }
 
+        spawnDeathDrop(enemy, entityManager, assetManager, audioManager);
+    }
+
+    /**
+     * Roll and spawn at most one drop at an enemy's position
+     * FIXED: Only drops ammo for implemented weapons
+     */
+    public static void spawnDeathDrop(Entity enemy, EntityManager entityManager,
+                                      AssetManager assetManager, AudioManager audioManager) {
+        if (enemy == null || entityManager == null) return;
+
         Vector3f dropPosition = enemy.getPosition().add(
                 (FastMath.nextRandomFloat() - 0.5f) * 2f, // Random X offset
                 0.2f, // Slightly above ground
@@ -43,7 +79,7 @@ public class DropSystem {
             if (FastMath.nextRandomFloat() < dropChance) {
                 // Create ammo drop at enemy position
                 AmmoPickup ammoDrop = new AmmoPickup(dropPosition, ammoType, assetManager, audioManager);
-                entityManager.addEntity(ammoDrop);
+                entityManager.queueSpawn(ammoDrop);
 
                 System.out.println("Enemy dropped: " + ammoType.displayName);
                 return; // Only drop one item per enemy
@@ -53,7 +89,7 @@ public class DropSystem {
         // SECOND PRIORITY: 15% chance for health pack drop
         if (FastMath.nextRandomFloat() < 0.15f) {
             HealthPickup healthDrop = new HealthPickup(dropPosition, assetManager, audioManager);
-            entityManager.addEntity(healthDrop);
+            entityManager.queueSpawn(healthDrop);
             System.out.println("Enemy dropped: Health Pack");
             return; // Only drop one item per enemy
         }
@@ -61,7 +97,7 @@ public class DropSystem {
         // LOWEST PRIORITY: 10% chance for weapon drop
         if (FastMath.nextRandomFloat() < 0.10f) {
             WeaponPickup weaponDrop = createRandomWeaponSpawn(dropPosition, assetManager, audioManager);
-            entityManager.addEntity(weaponDrop);
+            entityManager.queueSpawn(weaponDrop);
             System.out.println("Enemy dropped: " + weaponDrop.getWeaponType().displayName +
                     " with " + weaponDrop.getStartingAmmo() + " rounds");
             return; // Only drop one item per enemy
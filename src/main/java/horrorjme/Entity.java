@@ -31,9 +31,51 @@ public abstract class Entity {
     protected float boundingRadius;
     protected float boundingHeight;  // ADDED: Height for better collision detection
 
-    // Unique identifier
+    // Unique identifier - generational handle assigned by EntityManager.
+    // entityId is only the debug String form of the handle.
     protected String entityId;
-    private static int nextId = 0;
+    int handle = EntityHandle.NONE;
+
+    // OPTIMIZATION: Spatial hash bookkeeping, owned by SpatialHash
+    boolean inSpatialHash;
+    long spatialCellKey;
+    int spatialCellIndex;
+    int segmentQueryStamp; // Last SpatialHash segment query that tested this entity
+
+    // Slot in the sweep-and-prune sorted array, owned by SweepAndPruneBroadphase
+    int broadphaseIndex = -1;
+
+    // OPTIMIZATION: Slot in EntityManager's typed bucket, owned by EntityBucket
+    int bucketSlot = -1;
+
+    // Set while an add or removal is deferred behind a running EntityManager query
+    boolean addPending;
+    boolean removalPending;
+
+    // OPTIMIZATION: Update LOD bookkeeping, owned by EntityManager
+    float lodPendingTpf;
+    byte lodBand;
+
+    // OPTIMIZATION: Sleep state, owned by EntityManager. A sleeping entity is not
+    // updated and not in the collision broadphase, but stays registered and queryable.
+    boolean sleeping;
+    boolean sleepRequested;
+    float requestedWakeDelay;
+    float requestedWakeRadius;
+    float sleepStartTime;
+    float wakeAtTime;
+    float wakeRadius;
+
+    // Lifecycle event bus of the owning EntityManager (null while unregistered)
+    EntityEventBus eventBus;
+
+    // Waiting in an EntityCommandBuffer spawn queue
+    boolean spawnQueued;
+
+    // Command buffer of the owning EntityManager (null while unregistered), and whether
+    // this entity is waiting in its destroy queue
+    EntityCommandBuffer commandBuffer;
+    boolean destroyQueued;
 
     public Entity(EntityType type, Vector3f position) {
         this.type = type;
@@ -48,7 +90,26 @@ public abstract class Entity {
         this.boundingRadius = 0.5f;
         this.boundingHeight = 1.0f;  // ADDED: Default height
 
-        this.entityId = type.name() + "_" + (nextId++);
+        this.entityId = type.name() + "_unregistered";
+    }
+
+    /**
+     * Return a destroyed, unregistered entity to its freshly-constructed state so an
+     * object pool can hand it out again. Subclasses reset their own state and call super.
+     */
+    protected void resetForReuse(Vector3f newPosition) {
+        position.set(newPosition);
+        velocity.set(0, 0, 0);
+        health = maxHealth;
+        active = true;
+        destroyed = false;
+        entityId = type.name() + "_unregistered";
+
+        lodPendingTpf = 0f;
+        lodBand = 0;
+        sleeping = false;
+        sleepRequested = false;
+        destroyQueued = false;
     }
 
     /**
@@ -56,6 +117,55 @@ public abstract class Entity {
      */
     public abstract void update(float tpf);
 
+    /**
+     * Whether EntityManager may throttle this entity's update by distance (update LOD).
+     * Throttled entities receive the accumulated time of the frames they skipped.
+     */
+    protected boolean usesUpdateLod() {
+        return false;
+    }
+
+    /**
+     * Cheaper update used for distant entities - only what is needed to keep the
+     * simulation moving, no visual work. Defaults to the full update.
+     */
+    protected void updateReduced(float tpf) {
+        update(tpf);
+    }
+
+    /**
+     * Ask EntityManager to put this entity to sleep after its current update.
+     * @param wakeAfter seconds until a timed wake, or 0 for none
+     * @param wakeRadius wake when the focus (camera) comes within this distance, or 0 for none
+     */
+    protected void requestSleep(float wakeAfter, float wakeRadius) {
+        this.sleepRequested = true;
+        this.requestedWakeDelay = Math.max(0f, wakeAfter);
+        this.requestedWakeRadius = Math.max(0f, wakeRadius);
+    }
+
+    /**
+     * Distance from the focus beyond which EntityManager puts this entity to sleep
+     * on its own (waking it again a little inside that distance). 0 disables.
+     */
+    protected float getAutoSleepDistance() {
+        return 0f;
+    }
+
+    /**
+     * Called when the entity goes to sleep
+     */
+    protected void onSleep() {
+    }
+
+    /**
+     * Called when the entity wakes, with the time it spent asleep
+     */
+    protected void onWake(float sleptSeconds) {
+    }
+
+    public boolean isSleeping() { return sleeping; }
+
     /**
      * Called when this entity collides with another entity
      */
@@ -116,9 +226,36 @@ public abstract class Entity {
      * Damage this entity
      */
     public void takeDamage(float damage) {
+        if (destroyed || destroyQueued) return; // Already dead
         health -= damage;
+        publishEvent(EntityEventBus.EventType.DAMAGED, damage);
         if (health <= 0) {
+            publishEvent(EntityEventBus.EventType.DIED, 0f);
+            requestDestroy();
+        }
+    }
+
+    /**
+     * Destroy this entity at the start of the owning EntityManager's next update, in the
+     * command buffer's structural-change step. It goes inactive right away so it stops
+     * updating and colliding meanwhile. Unregistered entities are destroyed immediately.
+     */
+    protected void requestDestroy() {
+        if (destroyed || destroyQueued) return;
+        if (commandBuffer == null) {
             destroy();
+            return;
+        }
+        active = false;
+        commandBuffer.queueDestroy(this);
+    }
+
+    /**
+     * Queue a lifecycle event on the owning EntityManager's event bus
+     */
+    protected void publishEvent(EntityEventBus.EventType type, float value) {
+        if (eventBus != null) {
+            eventBus.publish(type, this, value);
         }
     }
 
@@ -195,6 +332,18 @@ public abstract class Entity {
 
     public String getEntityId() { return entityId; }
 
+    public int getHandle() { return handle; }
+
+    /**
+     * Called by EntityManager on registration (handle) and removal (NONE)
+     */
+    void assignHandle(int handle) {
+        this.handle = handle;
+        if (handle != EntityHandle.NONE) {
+            this.entityId = type.name() + "_" + EntityHandle.toDebugString(handle);
+        }
+    }
+
     public Spatial getModel() { return model; }
 
     // Bounding volume getters and setters
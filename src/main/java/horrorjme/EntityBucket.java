@@ -0,0 +1,67 @@
+package horrorjme;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Unordered bucket of entities of one type.
+ * Each entity remembers its slot (Entity.bucketSlot), so removal swaps the last
+ * entity into the hole instead of scanning and shifting - O(1) per removal.
+ */
+public class EntityBucket {
+
+    private Entity[] items;
+    private int size;
+
+    public EntityBucket(int initialCapacity) {
+        items = new Entity[Math.max(4, initialCapacity)];
+    }
+
+    public void add(Entity entity) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        entity.bucketSlot = size;
+        items[size++] = entity;
+    }
+
+    /**
+     * OPTIMIZATION: Swap-remove using the entity's stored slot
+     * @return true if the entity was in this bucket
+     */
+    public boolean remove(Entity entity) {
+        int slot = entity.bucketSlot;
+        if (slot < 0 || slot >= size || items[slot] != entity) return false;
+
+        int last = --size;
+        if (slot != last) {
+            Entity moved = items[last];
+            items[slot] = moved;
+            moved.bucketSlot = slot;
+        }
+        items[last] = null;
+        entity.bucketSlot = -1;
+        return true;
+    }
+
+    public Entity get(int slot) { return items[slot]; }
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Append the bucket's entities to a list
+     */
+    public void copyTo(List<Entity> out) {
+        for (int i = 0; i < size; i++) {
+            out.add(items[i]);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            items[i].bucketSlot = -1;
+            items[i] = null;
+        }
+        size = 0;
+    }
+}
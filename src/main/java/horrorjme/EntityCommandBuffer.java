@@ -0,0 +1,133 @@
+package horrorjme;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deferred entity creation and destruction.
+ *
+ * Gameplay code queues spawns and destroys while the frame is simulating; EntityManager
+ * applies them in one structural-change step at the start of its next update. Spawns
+ * are limited to a per-frame budget so a burst (a shotgun blast's tracers and shells,
+ * a wave of zombies) is spread over a few frames instead of initialising every model
+ * in one frame. Destroys are never budgeted.
+ *
+ * Queueing is synchronized, so worker threads of a parallel update phase may queue
+ * safely; apply() runs on the render thread only.
+ */
+public class EntityCommandBuffer {
+
+    private static final int DEFAULT_SPAWN_BUDGET = 24;
+
+    private final ArrayDeque<Entity> spawnQueue = new ArrayDeque<>();
+    private final List<Entity> destroyQueue = new ArrayList<>();
+    private int spawnBudget = DEFAULT_SPAWN_BUDGET;
+
+    // Reused batches, filled under the lock and applied outside it
+    private final List<Entity> spawnBatch = new ArrayList<>();
+    private final List<Entity> destroyBatch = new ArrayList<>();
+
+    // Stats
+    private int lastSpawned;
+    private int lastDestroyed;
+    private int peakBacklog;
+
+    /**
+     * Queue an entity to be added to the manager on the next apply
+     */
+    public synchronized void queueSpawn(Entity entity) {
+        if (entity == null || entity.spawnQueued) return;
+        entity.spawnQueued = true;
+        spawnQueue.add(entity);
+        peakBacklog = Math.max(peakBacklog, spawnQueue.size());
+    }
+
+    /**
+     * Queue an entity to be destroyed and removed on the next apply.
+     * A queued spawn that is destroyed before it is applied is dropped.
+     */
+    public synchronized void queueDestroy(Entity entity) {
+        if (entity == null || entity.destroyQueued) return;
+        entity.destroyQueued = true;
+        destroyQueue.add(entity);
+    }
+
+    /**
+     * Apply queued destroys, then up to the spawn budget of queued spawns
+     */
+    void apply(EntityManager manager) {
+        synchronized (this) {
+            destroyBatch.addAll(destroyQueue);
+            destroyQueue.clear();
+
+            int limit = spawnBudget > 0 ? spawnBudget : Integer.MAX_VALUE;
+            while (spawnBatch.size() < limit && !spawnQueue.isEmpty()) {
+                spawnBatch.add(spawnQueue.poll());
+            }
+        }
+
+        // Destroys first so a spawn-then-destroy in the same frame never hits the scene
+        lastDestroyed = 0;
+        for (int i = 0; i < destroyBatch.size(); i++) {
+            Entity entity = destroyBatch.get(i);
+            // Stale entry - already removed (and maybe pooled and reused) since it was queued
+            if (!entity.destroyQueued) continue;
+            entity.destroyQueued = false;
+
+            if (!entity.isDestroyed()) {
+                entity.destroy();
+            }
+            // Entities may refuse (a dying zombie finishes its animation) - they
+            // destroy themselves later and are removed by the update loop
+            if (entity.isDestroyed() && manager.isAlive(entity.getHandle())) {
+                manager.removeEntity(entity);
+                lastDestroyed++;
+            }
+        }
+        destroyBatch.clear();
+
+        lastSpawned = 0;
+        for (int i = 0; i < spawnBatch.size(); i++) {
+            Entity entity = spawnBatch.get(i);
+            entity.spawnQueued = false;
+            if (entity.isDestroyed()) continue;
+
+            manager.addEntity(entity);
+            lastSpawned++;
+        }
+        spawnBatch.clear();
+    }
+
+    /**
+     * Drop everything still queued
+     */
+    public synchronized void clear() {
+        for (Entity entity : spawnQueue) {
+            entity.spawnQueued = false;
+        }
+        spawnQueue.clear();
+        for (Entity entity : destroyQueue) {
+            entity.destroyQueued = false;
+        }
+        destroyQueue.clear();
+    }
+
+    /**
+     * Maximum spawns applied per frame (0 = unlimited)
+     */
+    public void setSpawnBudget(int budget) {
+        this.spawnBudget = Math.max(0, budget);
+    }
+
+    public int getSpawnBudget() { return spawnBudget; }
+
+    public synchronized int getPendingSpawnCount() { return spawnQueue.size(); }
+    public synchronized int getPendingDestroyCount() { return destroyQueue.size(); }
+
+    // ==== STATS ====
+
+    public int getLastSpawned() { return lastSpawned; }
+    public int getLastDestroyed() { return lastDestroyed; }
+    public int getPeakBacklog() { return peakBacklog; }
+}
@@ -0,0 +1,185 @@
+package horrorjme;
+
+import java.util.Arrays;
+
+/**
+ * Lightweight entity lifecycle event dispatcher.
+ *
+ * Events are written into one preallocated ring buffer (parallel type / entity /
+ * value arrays) as they happen and delivered to subscribers when dispatch() is
+ * called once per frame, so publishing never runs game logic re-entrantly and
+ * allocates nothing once the ring has reached its working size. A single ring keeps
+ * the order between event types (an enemy's DIED always arrives before its DESTROYED).
+ */
+public class EntityEventBus {
+
+    public enum EventType {
+        SPAWNED,    // Registered with the EntityManager
+        DAMAGED,    // value = damage dealt
+        DIED,       // Health reached zero (death animation may still be playing)
+        DESTROYED,  // Removed from the EntityManager
+        PICKED_UP   // Pickup collected by the player
+    }
+
+    /**
+     * Receives events for the types it subscribed to
+     */
+    public interface Listener {
+        void onEntityEvent(EventType type, Entity entity, float value);
+    }
+
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final EventType[] TYPES = EventType.values();
+
+    // Ring buffer - capacity is always a power of two
+    private EventType[] eventTypes;
+    private Entity[] eventEntities;
+    private float[] eventValues;
+    private int mask;
+    private int head;
+    private int count;
+
+    // Subscribers per event type
+    private final Listener[][] listeners = new Listener[TYPES.length][];
+    private final int[] listenerCounts = new int[TYPES.length];
+
+    // Stats
+    private int lastDispatchCount;
+    private int ringGrowths;
+
+    public EntityEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EntityEventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(15, capacity - 1)) << 1; // Power of two, at least 16
+        eventTypes = new EventType[size];
+        eventEntities = new Entity[size];
+        eventValues = new float[size];
+        mask = size - 1;
+
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new Listener[4];
+        }
+    }
+
+    /**
+     * Subscribe a listener to one event type
+     */
+    public void subscribe(EventType type, Listener listener) {
+        int t = type.ordinal();
+        for (int i = 0; i < listenerCounts[t]; i++) {
+            if (listeners[t][i] == listener) return;
+        }
+        if (listenerCounts[t] == listeners[t].length) {
+            listeners[t] = Arrays.copyOf(listeners[t], listenerCounts[t] * 2);
+        }
+        listeners[t][listenerCounts[t]++] = listener;
+    }
+
+    public void unsubscribe(EventType type, Listener listener) {
+        int t = type.ordinal();
+        for (int i = 0; i < listenerCounts[t]; i++) {
+            if (listeners[t][i] == listener) {
+                // Keep subscription order - delivery order is part of the contract
+                System.arraycopy(listeners[t], i + 1, listeners[t], i, listenerCounts[t] - i - 1);
+                listeners[t][--listenerCounts[t]] = null;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Queue an event for the next dispatch
+     */
+    public void publish(EventType type, Entity entity, float value) {
+        // Nobody listening - don't even queue it
+        if (listenerCounts[type.ordinal()] == 0) return;
+
+        if (count == eventTypes.length) {
+            grow();
+        }
+        int slot = (head + count) & mask;
+        eventTypes[slot] = type;
+        eventEntities[slot] = entity;
+        eventValues[slot] = value;
+        count++;
+    }
+
+    /**
+     * Deliver all queued events in publish order. Events published by listeners
+     * during dispatch are delivered in the same call.
+     * @return number of events delivered
+     */
+    public int dispatch() {
+        int delivered = 0;
+        while (count > 0) {
+            EventType type = eventTypes[head];
+            Entity entity = eventEntities[head];
+            float value = eventValues[head];
+
+            // Drop the reference before delivery so removed entities can be collected
+            eventTypes[head] = null;
+            eventEntities[head] = null;
+            head = (head + 1) & mask;
+            count--;
+
+            int t = type.ordinal();
+            Listener[] typeListeners = listeners[t];
+            for (int i = 0; i < listenerCounts[t]; i++) {
+                try {
+                    typeListeners[i].onEntityEvent(type, entity, value);
+                } catch (Exception e) {
+                    System.err.println("EntityEventBus: listener failed on " + type + ": " + e.getMessage());
+                }
+            }
+            delivered++;
+        }
+        lastDispatchCount = delivered;
+        return delivered;
+    }
+
+    /**
+     * Drop all queued events (subscriptions are kept)
+     */
+    public void clear() {
+        Arrays.fill(eventTypes, null);
+        Arrays.fill(eventEntities, null);
+        head = 0;
+        count = 0;
+    }
+
+    private void grow() {
+        int oldSize = eventTypes.length;
+        EventType[] types = new EventType[oldSize * 2];
+        Entity[] entities = new Entity[oldSize * 2];
+        float[] values = new float[oldSize * 2];
+
+        // Unwrap the ring into the front of the new arrays
+        for (int i = 0; i < count; i++) {
+            int slot = (head + i) & mask;
+            types[i] = eventTypes[slot];
+            entities[i] = eventEntities[slot];
+            values[i] = eventValues[slot];
+        }
+        eventTypes = types;
+        eventEntities = entities;
+        eventValues = values;
+        mask = types.length - 1;
+        head = 0;
+        ringGrowths++;
+
+        System.out.println("EntityEventBus: ring grown to " + types.length + " events");
+    }
+
+    // ==== STATS ====
+
+    public int getPendingCount() { return count; }
+    public int getCapacity() { return eventTypes.length; }
+    public int getLastDispatchCount() { return lastDispatchCount; }
+    public int getRingGrowths() { return ringGrowths; }
+
+    public int getListenerCount(EventType type) {
+        return listenerCounts[type.ordinal()];
+    }
+}
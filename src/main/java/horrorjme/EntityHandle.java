@@ -0,0 +1,61 @@
+package horrorjme;
+
+/**
+ * Generational integer entity handles.
+ * A handle packs a slot index (low bits) with a generation counter (high bits),
+ * so a stale handle to a recycled slot never resolves to the new occupant.
+ */
+public final class EntityHandle {
+
+    public static final int INDEX_BITS = 20;                 // Up to ~1M live entities
+    public static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    public static final int GENERATION_MASK = (1 << (32 - INDEX_BITS)) - 1;
+
+    /** Never a valid handle - generations start at 1 */
+    public static final int NONE = 0;
+
+    private EntityHandle() {
+    }
+
+    public static int pack(int index, int generation) {
+        return ((generation & GENERATION_MASK) << INDEX_BITS) | (index & INDEX_MASK);
+    }
+
+    public static int indexOf(int handle) {
+        return handle & INDEX_MASK;
+    }
+
+    public static int generationOf(int handle) {
+        return (handle >>> INDEX_BITS) & GENERATION_MASK;
+    }
+
+    /**
+     * Handle-to-String bridge for debug output, e.g. "42v3"
+     */
+    public static String toDebugString(int handle) {
+        if (handle == NONE) {
+            return "none";
+        }
+        return indexOf(handle) + "v" + generationOf(handle);
+    }
+
+    /**
+     * Inverse of toDebugString, also accepting an "ENEMY_42v3" style entity id.
+     * Returns NONE if the string isn't a handle.
+     */
+    public static int parseDebugString(String text) {
+        if (text == null) return NONE;
+
+        int start = text.lastIndexOf('_') + 1;
+        int separator = text.indexOf('v', start);
+        if (separator <= start) return NONE;
+
+        try {
+            int index = Integer.parseInt(text.substring(start, separator));
+            int generation = Integer.parseInt(text.substring(separator + 1));
+            return pack(index, generation);
+        } catch (NumberFormatException e) {
+            return NONE;
+        }
+    }
+}
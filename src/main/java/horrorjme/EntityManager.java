@@ -3,42 +3,102 @@ package horrorjme;
 import com.jme3.math.Vector3f;
 import com.jme3.scene.Node;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Optimized EntityManager with efficient spatial grid updates and collision detection
  */
 public class EntityManager {
 
-    private Map<String, Entity> entities;
-    private Map<Entity.EntityType, List<Entity>> entitiesByType;
+    // OPTIMIZATION: Update LOD bands
+    public static final byte LOD_NEAR = 0;
+    public static final byte LOD_MID = 1;
+    public static final byte LOD_FAR = 2;
+    private static final float MAX_LOD_STEP = 0.5f; // Cap on accumulated time delivered in one tick
+
+    /**
+     * Collision broadphase selection
+     */
+    public enum BroadphaseMode {
+        GRID,
+        SWEEP_AND_PRUNE
+    }
+
+    // OPTIMIZATION: Generational handle table with dense entity/position arrays
+    private EntityTable entities;
+    // OPTIMIZATION: Typed buckets with O(1) swap-remove
+    private Map<Entity.EntityType, EntityBucket> entitiesByType;
     private List<Entity> entitiesToRemove;
     private Node entityNode;
 
     // Spatial partitioning for optimization
     private static final int GRID_SIZE = 16;
-    private Map<String, Set<Entity>> spatialGrid;
+    private SpatialHash spatialGrid;
 
-    // OPTIMIZATION: Track previous positions to detect movement
-    private Map<String, Vector3f> previousPositions;
+    private final EntityQueryBuffer rangeBuffer = new EntityQueryBuffer(64);
+
+    // OPTIMIZATION: Previous positions live in the entity table's dense arrays
     private static final float MOVEMENT_THRESHOLD = 0.01f; // Only update if moved more than this
 
-    // OPTIMIZATION: Track processed collision pairs to avoid double processing
-    private Set<String> processedCollisionPairs;
+    // OPTIMIZATION: Pluggable collision broadphase (the grid stays maintained for queries)
+    private BroadphaseMode broadphaseMode = BroadphaseMode.GRID;
+    private Broadphase broadphase;
+
+    // OPTIMIZATION: Collision pass counters for the last frame
+    private int collisionPairsTested;
+    private int collisionPairsHit;
+    private long lastBroadphaseNanos;
+
+    // OPTIMIZATION: Update LOD - entities that opt in are ticked less often by distance
+    // from the focus (camera). Near: every frame. Mid: every midInterval frames. Far or
+    // mid-and-behind-the-camera: every farInterval frames with the reduced update.
+    private boolean updateLodEnabled = true;
+    private boolean lodFocusSet;
+    private final Vector3f lodFocusPosition = new Vector3f();
+    private final Vector3f lodFocusDirection = new Vector3f(0, 0, 1);
+    private float lodNearDistance = 30f;
+    private float lodMidDistance = 60f;
+    private int lodMidInterval = 3;
+    private int lodFarInterval = 8;
+    private int frameCounter;
+    private int lodNearCount;
+    private int lodMidCount;
+    private int lodFarCount;
+    private int lodTickedCount;
+
+    // OPTIMIZATION: Sleep/wake - sleeping entities sit past the awake partition of the
+    // entity table, skipped by the update loop and the broadphase
+    private static final int WAKE_SCAN_INTERVAL = 8; // Frames between timer / destroyed scans
+    private float gameTime;
+    private float maxWakeRadius;
+    private final List<Entity> pendingSleeps = new ArrayList<>();
+    private final List<Entity> pendingWakes = new ArrayList<>();
+    private final EntityQueryBuffer wakeBuffer = new EntityQueryBuffer(32);
+
+    // OPTIMIZATION: Zero-copy queries - adds and removals requested while a query
+    // is iterating are deferred until the outermost query finishes
+    private int iterationDepth;
+    private final List<Entity> deferredAdds = new ArrayList<>();
+    private final List<Entity> deferredRemovals = new ArrayList<>();
+    private final Broadphase.PairVisitor collisionVisitor = this::handleCandidatePair;
+
+    // Lifecycle events (spawned, damaged, died, destroyed, picked up)
+    private final EntityEventBus eventBus = new EntityEventBus();
+
+    // OPTIMIZATION: Deferred spawns/destroys, applied in one budgeted step per frame
+    private final EntityCommandBuffer commandBuffer = new EntityCommandBuffer();
 
     public EntityManager(Node rootNode) {
-        entities = new ConcurrentHashMap<>();
+        entities = new EntityTable();
         entitiesByType = new EnumMap<>(Entity.EntityType.class);
         entitiesToRemove = new ArrayList<>();
-        spatialGrid = new HashMap<>();
-
-        // OPTIMIZATION: Initialize position tracking
-        previousPositions = new HashMap<>();
-        processedCollisionPairs = new HashSet<>();
+        spatialGrid = new SpatialHash(GRID_SIZE);
+        broadphase = createBroadphase(broadphaseMode);
 
         // Initialize type lists
         for (Entity.EntityType type : Entity.EntityType.values()) {
-            entitiesByType.put(type, new ArrayList<>());
+            entitiesByType.put(type, new EntityBucket(64));
         }
 
         // Create entity node
@@ -47,14 +107,24 @@ public class EntityManager {
     }
 
     /**
-     * Add entity to the manager
+     * Add entity to the manager. During a query the add is deferred until the
+     * outermost query returns, so the query never sees the storage reshuffle.
      */
     public void addEntity(Entity entity) {
-        if (entity == null) return;
+        if (entity == null || entity.addPending || entities.isValid(entity.getHandle())) return;
 
-        String id = entity.getEntityId();
-        entities.put(id, entity);
+        // Adding swaps into the awake partition - don't do it under a running query
+        if (iterationDepth > 0) {
+            entity.addPending = true;
+            deferredAdds.add(entity);
+            return;
+        }
+
+        // Registration also tracks the initial position in the dense arrays
+        entity.assignHandle(entities.add(entity));
         entitiesByType.get(entity.getType()).add(entity);
+        entity.eventBus = eventBus;
+        entity.commandBuffer = commandBuffer;
 
         // Initialize and attach to scene
         entity.initializeModel();
@@ -62,10 +132,28 @@ public class EntityManager {
 
         // Add to spatial grid
         addToSpatialGrid(entity);
+        broadphase.add(entity);
 
-        // OPTIMIZATION: Track initial position
-        previousPositions.put(id, entity.getPosition().clone());
+        eventBus.publish(EntityEventBus.EventType.SPAWNED, entity, 0f);
+    }
 
+    /**
+     * Queue an entity to be added at the start of the next update (budgeted per frame).
+     * Prefer this over addEntity for anything spawned during gameplay. Thread-safe.
+     */
+    public void queueSpawn(Entity entity) {
+        commandBuffer.queueSpawn(entity);
+    }
+
+    /**
+     * Queue an entity to be destroyed and removed at the start of the next update. Thread-safe.
+     */
+    public void queueDestroy(Entity entity) {
+        commandBuffer.queueDestroy(entity);
+    }
+
+    public EntityCommandBuffer getCommandBuffer() {
+        return commandBuffer;
     }
 
     /**
@@ -73,43 +161,90 @@ public class EntityManager {
      */
     public void removeEntity(Entity entity) {
         if (entity == null) return;
+        if (entity.addPending) {
+            // Never registered - just drop the deferred add
+            entity.addPending = false;
+            deferredAdds.remove(entity);
+            return;
+        }
+        if (!entities.isValid(entity.getHandle())) return;
+
+        // Don't reshuffle storage under a running query
+        if (iterationDepth > 0) {
+            if (!entity.removalPending) {
+                entity.removalPending = true;
+                deferredRemovals.add(entity);
+            }
+            return;
+        }
+
+        entities.remove(entity.getHandle());
 
-        String entityId = entity.getEntityId();
-        entities.remove(entityId);
+        entity.removalPending = false;
+        entity.sleeping = false;
+        entity.sleepRequested = false;
         entitiesByType.get(entity.getType()).remove(entity);
 
         // Remove from spatial grid
         removeFromSpatialGrid(entity);
-
-        // OPTIMIZATION: Clean up position tracking
-        previousPositions.remove(entityId);
+        broadphase.remove(entity);
+        entity.assignHandle(EntityHandle.NONE);
 
         // Detach from scene
         entity.detachFromScene();
 
+        eventBus.publish(EntityEventBus.EventType.DESTROYED, entity, 0f);
+        entity.eventBus = null;
+        entity.commandBuffer = null;
+        entity.destroyQueued = false;
+
     }
 
     /**
      * OPTIMIZED: Update all entities with efficient spatial grid updates
      */
     public void update(float tpf) {
-        // OPTIMIZATION: Clear collision pairs at start of frame
-        processedCollisionPairs.clear();
-
-        // Update all active entities
-        for (Entity entity : entities.values()) {
-            if (entity.isActive() && !entity.isDestroyed()) {
-                // OPTIMIZATION: Only update spatial grid if entity actually moved
-                updateSpatialGridIfMoved(entity);
-
-                // Update entity logic
-                entity.update(tpf);
-            }
+        // Update all active entities. Entities added or removed during the loop
+        // are applied once it finishes.
+        frameCounter++;
+        lodNearCount = 0;
+        lodMidCount = 0;
+        lodFarCount = 0;
+        lodTickedCount = 0;
+        boolean useLod = updateLodEnabled && lodFocusSet;
+        gameTime += tpf;
+
+        // Structural changes queued since the last frame, in one batch
+        commandBuffer.apply(this);
+
+        // Wake sleepers whose timer ran out or that the focus came near
+        processWakes();
+
+        beginIteration();
+        try {
+            for (int i = 0; i < entities.awakeCount(); i++) {
+                Entity entity = entities.getDense(i);
+                if (entity.isActive() && !entity.isDestroyed()) {
+                    // OPTIMIZATION: Only update spatial grid if entity actually moved
+                    updateSpatialGridIfMoved(entity, i);
+
+                    // Update entity logic
+                    if (useLod && entity.usesUpdateLod()) {
+                        updateWithLod(entity, tpf);
+                    } else {
+                        entity.update(tpf);
+                    }
+                }
 
-            // Mark destroyed entities for removal
-            if (entity.isDestroyed()) {
-                entitiesToRemove.add(entity);
+                // Mark destroyed entities for removal
+                if (entity.isDestroyed()) {
+                    entitiesToRemove.add(entity);
+                } else if (entity.sleepRequested || shouldAutoSleep(entity)) {
+                    pendingSleeps.add(entity);
+                }
             }
+        } finally {
+            endIteration();
         }
 
         // Remove destroyed entities
@@ -118,200 +253,637 @@ public class EntityManager {
         }
         entitiesToRemove.clear();
 
+        applySleepChanges();
+
         // Check collisions with optimization
         checkCollisionsOptimized();
     }
 
+    // ==== SLEEP / WAKE ====
+
     /**
-     * OPTIMIZATION: Only update spatial grid if entity actually moved
+     * Put an entity to sleep: no per-frame update and no collisions until woken.
+     * @param wakeAfter seconds until a timed wake, or 0 for none
+     * @param wakeRadius wake when the focus comes within this distance, or 0 for none
+     */
+    public void sleepEntity(Entity entity, float wakeAfter, float wakeRadius) {
+        if (entity == null || !entities.isValid(entity.getHandle()) || entity.sleeping) return;
+
+        entity.requestSleep(wakeAfter, wakeRadius);
+        if (iterationDepth > 0) {
+            pendingSleeps.add(entity);
+        } else {
+            applySleep(entity);
+        }
+    }
+
+    /**
+     * Wake an entity explicitly (e.g. in response to a game event)
      */
-    private void updateSpatialGridIfMoved(Entity entity) {
-        String entityId = entity.getEntityId();
-        Vector3f currentPos = entity.getPosition();
-        Vector3f previousPos = previousPositions.get(entityId);
+    public void wakeEntity(Entity entity) {
+        if (entity == null || !entity.sleeping || !entities.isValid(entity.getHandle())) return;
+
+        if (iterationDepth > 0) {
+            pendingWakes.add(entity);
+        } else {
+            applyWake(entity);
+        }
+    }
 
-        if (previousPos == null) {
-            // First time - add to spatial grid and track position
-            addToSpatialGrid(entity);
-            previousPositions.put(entityId, currentPos.clone());
+    private boolean shouldAutoSleep(Entity entity) {
+        float distance = entity.getAutoSleepDistance();
+        if (distance <= 0f || !lodFocusSet) return false;
+
+        float dx = entity.position.x - lodFocusPosition.x;
+        float dy = entity.position.y - lodFocusPosition.y;
+        float dz = entity.position.z - lodFocusPosition.z;
+        if (dx * dx + dy * dy + dz * dz <= distance * distance) return false;
+
+        // Hysteresis: wake a little inside the sleep distance
+        entity.requestSleep(0f, distance * 0.9f);
+        return true;
+    }
+
+    private void applySleepChanges() {
+        for (int i = 0; i < pendingSleeps.size(); i++) {
+            Entity entity = pendingSleeps.get(i);
+            if (entity.sleepRequested && !entity.isDestroyed() && entities.isValid(entity.getHandle())) {
+                applySleep(entity);
+            }
+        }
+        pendingSleeps.clear();
+
+        for (int i = 0; i < pendingWakes.size(); i++) {
+            applyWake(pendingWakes.get(i));
+        }
+        pendingWakes.clear();
+    }
+
+    private void applySleep(Entity entity) {
+        entity.sleepRequested = false;
+        if (entity.sleeping) return;
+
+        entities.setSleeping(entity.getHandle(), true);
+        broadphase.remove(entity);
+
+        entity.sleeping = true;
+        entity.sleepStartTime = gameTime;
+        entity.wakeAtTime = entity.requestedWakeDelay > 0f ? gameTime + entity.requestedWakeDelay : Float.POSITIVE_INFINITY;
+        entity.wakeRadius = entity.requestedWakeRadius;
+        maxWakeRadius = Math.max(maxWakeRadius, entity.wakeRadius);
+        entity.onSleep();
+    }
+
+    private void applyWake(Entity entity) {
+        if (!entity.sleeping || !entities.isValid(entity.getHandle())) return;
+
+        entities.setSleeping(entity.getHandle(), false);
+        entity.sleeping = false;
+        if (!entity.isDestroyed()) {
+            broadphase.add(entity);
+        }
+        entity.lodPendingTpf = 0f;
+        entity.onWake(gameTime - entity.sleepStartTime);
+    }
+
+    /**
+     * Proximity wakes use a grid query around the focus. Timer wakes (and sleepers
+     * destroyed from outside, e.g. a pickup collected while asleep) are found by a
+     * scan of the sleeping partition every few frames.
+     */
+    private void processWakes() {
+        int sleeping = entities.size() - entities.awakeCount();
+        if (sleeping == 0) return;
+
+        if (lodFocusSet && maxWakeRadius > 0f) {
+            wakeBuffer.clear();
+            spatialGrid.queryRange(lodFocusPosition.x, lodFocusPosition.y, lodFocusPosition.z,
+                    maxWakeRadius, null, wakeBuffer);
+            for (int i = 0; i < wakeBuffer.size(); i++) {
+                Entity entity = wakeBuffer.get(i);
+                if (!entity.sleeping || entity.wakeRadius <= 0f) continue;
+
+                float dx = entity.position.x - lodFocusPosition.x;
+                float dy = entity.position.y - lodFocusPosition.y;
+                float dz = entity.position.z - lodFocusPosition.z;
+                if (dx * dx + dy * dy + dz * dz <= entity.wakeRadius * entity.wakeRadius) {
+                    applyWake(entity);
+                }
+            }
+            wakeBuffer.clear();
+        }
+
+        if (frameCounter % WAKE_SCAN_INTERVAL != 0) return;
+
+        // Walk backwards. Waking swaps the first (not yet scanned) sleeper into
+        // slot i, so re-check the same slot after a wake.
+        for (int i = entities.size() - 1; i >= entities.awakeCount(); i--) {
+            Entity entity = entities.getDense(i);
+            // Destroyed sleepers are woken so the update loop's removal pass picks them up
+            if (entity.isDestroyed() || entity.wakeAtTime <= gameTime) {
+                applyWake(entity);
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Entities currently being updated
+     */
+    public int getActiveEntityCount() {
+        return entities.awakeCount();
+    }
+
+    /**
+     * Entities registered but asleep
+     */
+    public int getSleepingEntityCount() {
+        return entities.size() - entities.awakeCount();
+    }
+
+    /**
+     * OPTIMIZATION: Tick an entity according to its distance band. Skipped frames
+     * accumulate their tpf, and ticks are staggered by handle index so a band's
+     * entities don't all land on the same frame.
+     */
+    private void updateWithLod(Entity entity, float tpf) {
+        byte band = classifyLod(entity);
+        entity.lodBand = band;
+        entity.lodPendingTpf += tpf;
+
+        int interval;
+        if (band == LOD_NEAR) {
+            lodNearCount++;
+            interval = 1;
+        } else if (band == LOD_MID) {
+            lodMidCount++;
+            interval = lodMidInterval;
+        } else {
+            lodFarCount++;
+            interval = lodFarInterval;
+        }
+
+        if (interval > 1 && (frameCounter + EntityHandle.indexOf(entity.handle)) % interval != 0) {
             return;
         }
 
+        float step = Math.min(entity.lodPendingTpf, MAX_LOD_STEP);
+        entity.lodPendingTpf = 0f;
+        lodTickedCount++;
+
+        if (band == LOD_FAR) {
+            entity.updateReduced(step);
+        } else {
+            entity.update(step);
+        }
+    }
+
+    private byte classifyLod(Entity entity) {
+        float dx = entity.position.x - lodFocusPosition.x;
+        float dy = entity.position.y - lodFocusPosition.y;
+        float dz = entity.position.z - lodFocusPosition.z;
+        float distanceSquared = dx * dx + dy * dy + dz * dz;
+
+        if (distanceSquared <= lodNearDistance * lodNearDistance) {
+            return LOD_NEAR;
+        }
+        if (distanceSquared <= lodMidDistance * lodMidDistance) {
+            // Behind the camera counts as far once outside the near band
+            boolean behind = dx * lodFocusDirection.x + dy * lodFocusDirection.y + dz * lodFocusDirection.z < 0f;
+            return behind ? LOD_FAR : LOD_MID;
+        }
+        return LOD_FAR;
+    }
+
+    /**
+     * Set the point (usually the camera) update LOD distances are measured from
+     */
+    public void setLodFocus(Vector3f position, Vector3f direction) {
+        lodFocusPosition.set(position);
+        lodFocusDirection.set(direction);
+        lodFocusSet = true;
+    }
+
+    /**
+     * Configure update LOD bands. Intervals are in frames (1 = every frame).
+     */
+    public void setUpdateLodBands(float nearDistance, float midDistance, int midInterval, int farInterval) {
+        this.lodNearDistance = Math.max(0f, nearDistance);
+        this.lodMidDistance = Math.max(this.lodNearDistance, midDistance);
+        this.lodMidInterval = Math.max(1, midInterval);
+        this.lodFarInterval = Math.max(1, farInterval);
+    }
+
+    public void setUpdateLodEnabled(boolean enabled) {
+        this.updateLodEnabled = enabled;
+    }
+
+    public boolean isUpdateLodEnabled() {
+        return updateLodEnabled;
+    }
+
+    /**
+     * OPTIMIZATION: Only update spatial grid if entity actually moved
+     */
+    private void updateSpatialGridIfMoved(Entity entity, int denseIndex) {
+        Vector3f currentPos = entity.position;
+        float dx = currentPos.x - entities.getTrackedX(denseIndex);
+        float dy = currentPos.y - entities.getTrackedY(denseIndex);
+        float dz = currentPos.z - entities.getTrackedZ(denseIndex);
+
         // Check if entity moved significantly
-        float distanceMoved = currentPos.distance(previousPos);
-        if (distanceMoved > MOVEMENT_THRESHOLD) {
-            // Entity moved - update spatial grid
-            String oldGridKey = getGridKey(previousPos);
-            String newGridKey = getGridKey(currentPos);
-
-            // Only do expensive grid operations if entity changed grid cells
-            if (!oldGridKey.equals(newGridKey)) {
-                removeFromSpatialGridAtPosition(entity, previousPos);
-                addToSpatialGrid(entity);
-            }
+        if (dx * dx + dy * dy + dz * dz > MOVEMENT_THRESHOLD * MOVEMENT_THRESHOLD) {
+            // Entity moved - the hash compares packed cell keys and only
+            // touches cell arrays if the entity actually changed cells
+            spatialGrid.update(entity);
+            broadphase.update(entity);
 
             // Update tracked position
-            previousPos.set(currentPos);
+            entities.setTracked(denseIndex, currentPos.x, currentPos.y, currentPos.z);
         }
     }
 
     /**
-     * OPTIMIZATION: Avoid double collision processing
+     * OPTIMIZATION: Collision pass over broadphase candidate pairs. Every broadphase
+     * reports each unordered pair once, so no per-frame dedupe set is needed.
      */
     private void checkCollisionsOptimized() {
-        for (Entity entity : entities.values()) {
-            if (!entity.isActive() || entity.isDestroyed()) continue;
+        collisionPairsTested = 0;
+        collisionPairsHit = 0;
+
+        long start = System.nanoTime();
+        beginIteration();
+        try {
+            broadphase.collectPairs(collisionVisitor);
+        } finally {
+            endIteration();
+        }
+        lastBroadphaseNanos = System.nanoTime() - start;
+    }
 
-            Set<Entity> nearbyEntities = getNearbyEntities(entity);
-            for (Entity other : nearbyEntities) {
-                if (entity != other && entity.collidesWith(other)) {
+    /**
+     * Narrow phase for one candidate pair
+     */
+    private void handleCandidatePair(Entity a, Entity b) {
+        collisionPairsTested++;
+        if (a.collidesWith(b)) {
+            collisionPairsHit++;
+            a.onCollision(b);
+            b.onCollision(a);
+        }
+    }
 
-                    // OPTIMIZATION: Create unique pair ID to avoid double processing
-                    String pairId = createCollisionPairId(entity, other);
+    private Broadphase createBroadphase(BroadphaseMode mode) {
+        switch (mode) {
+            case SWEEP_AND_PRUNE:
+                return new SweepAndPruneBroadphase();
+            case GRID:
+            default:
+                return new GridBroadphase(spatialGrid, entities);
+        }
+    }
 
-                    if (!processedCollisionPairs.contains(pairId)) {
-                        // Process collision only once per pair
-                        entity.onCollision(other);
-                        other.onCollision(entity);
+    /**
+     * Switch the collision broadphase. The new one is rebuilt from the current entities.
+     */
+    public void setBroadphaseMode(BroadphaseMode mode) {
+        if (mode == null || mode == broadphaseMode) return;
+
+        broadphase.clear();
+        broadphaseMode = mode;
+        broadphase = createBroadphase(mode);
+        for (int i = 0; i < entities.awakeCount(); i++) {
+            broadphase.add(entities.getDense(i));
+        }
+    }
 
-                        // Mark this pair as processed for this frame
-                        processedCollisionPairs.add(pairId);
-                    }
+    public BroadphaseMode getBroadphaseMode() {
+        return broadphaseMode;
+    }
+
+    /**
+     * Run every broadphase on the current scene without dispatching collisions and
+     * report candidate counts and timings side by side, one line per broadphase.
+     * Intended for the debug console with a crowd gathered in the spot being measured.
+     */
+    public String benchmarkBroadphases(int iterations) {
+        iterations = Math.max(1, iterations);
+        StringBuilder report = new StringBuilder();
+        Broadphase.PairVisitor countOnly = (a, b) -> { };
+
+        // Sweep-and-prune slots live on the entities, so release the live broadphase first
+        broadphase.clear();
+
+        for (BroadphaseMode mode : BroadphaseMode.values()) {
+            Broadphase candidate = createBroadphase(mode);
+            for (int i = 0; i < entities.awakeCount(); i++) {
+                candidate.add(entities.getDense(i));
+            }
+
+            // Warm-up pass also settles the sweep-and-prune sort order
+            int pairs = candidate.collectPairs(countOnly);
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                candidate.collectPairs(countOnly);
+            }
+            long averageNanos = (System.nanoTime() - start) / iterations;
+
+            if (report.length() > 0) report.append("\n");
+            report.append(String.format("Broadphase %s: %d candidate pairs, %.1f us/pass over %d entities",
+                    candidate.getName(), pairs, averageNanos / 1000f, entities.size()));
+            candidate.clear();
+        }
+
+        // Rebuild the live broadphase
+        broadphase.clear();
+        broadphase = createBroadphase(broadphaseMode);
+        for (int i = 0; i < entities.awakeCount(); i++) {
+            broadphase.add(entities.getDense(i));
+        }
+        return report.toString();
+    }
+
+    // ==== ZERO-COPY QUERIES ====
+    // Iterate internal storage directly. Destroyed entities are skipped. Entities
+    // added during a query are not visited by it; removals requested during a query
+    // (including from the callback) are applied once the outermost query returns.
+
+    /**
+     * Visit every live entity
+     */
+    public void forEach(Consumer<? super Entity> action) {
+        beginIteration();
+        try {
+            int count = entities.size();
+            for (int i = 0; i < count; i++) {
+                Entity entity = entities.getDense(i);
+                if (!entity.isDestroyed()) {
+                    action.accept(entity);
                 }
             }
+        } finally {
+            endIteration();
         }
     }
 
     /**
-     * OPTIMIZATION: Create consistent collision pair ID regardless of order
+     * Visit every live entity of a type
      */
-    private String createCollisionPairId(Entity a, Entity b) {
-        String idA = a.getEntityId();
-        String idB = b.getEntityId();
+    public void forEach(Entity.EntityType type, Consumer<? super Entity> action) {
+        forEach(type, null, action);
+    }
 
-        // Ensure consistent ordering so A-B and B-A produce same ID
-        if (idA.compareTo(idB) < 0) {
-            return idA + "-" + idB;
-        } else {
-            return idB + "-" + idA;
+    /**
+     * Visit every live entity of a type that passes the filter (null filter passes all)
+     */
+    public void forEach(Entity.EntityType type, Predicate<? super Entity> filter, Consumer<? super Entity> action) {
+        EntityBucket bucket = entitiesByType.get(type);
+        beginIteration();
+        try {
+            int count = bucket.size();
+            for (int i = 0; i < count; i++) {
+                Entity entity = bucket.get(i);
+                if (!entity.isDestroyed() && (filter == null || filter.test(entity))) {
+                    action.accept(entity);
+                }
+            }
+        } finally {
+            endIteration();
+        }
+    }
+
+    /**
+     * First live entity of a type that passes the filter, or null
+     */
+    public Entity findFirst(Entity.EntityType type, Predicate<? super Entity> filter) {
+        EntityBucket bucket = entitiesByType.get(type);
+        for (int i = 0; i < bucket.size(); i++) {
+            Entity entity = bucket.get(i);
+            if (!entity.isDestroyed() && (filter == null || filter.test(entity))) {
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * First live entity of any type that passes the filter, or null
+     */
+    public Entity findFirst(Predicate<? super Entity> filter) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.getDense(i);
+            if (!entity.isDestroyed() && (filter == null || filter.test(entity))) {
+                return entity;
+            }
         }
+        return null;
     }
 
     /**
-     * OPTIMIZATION: Remove entity from spatial grid at specific position
+     * Number of live entities of a type that pass the filter (null filter passes all)
      */
-    private void removeFromSpatialGridAtPosition(Entity entity, Vector3f position) {
-        String key = getGridKey(position);
-        Set<Entity> grid = spatialGrid.get(key);
-        if (grid != null) {
-            grid.remove(entity);
-            if (grid.isEmpty()) {
-                spatialGrid.remove(key);
+    public int count(Entity.EntityType type, Predicate<? super Entity> filter) {
+        EntityBucket bucket = entitiesByType.get(type);
+        int count = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            Entity entity = bucket.get(i);
+            if (!entity.isDestroyed() && (filter == null || filter.test(entity))) {
+                count++;
             }
         }
+        return count;
     }
 
-    // ... Rest of methods remain the same ...
+    private void beginIteration() {
+        iterationDepth++;
+    }
+
+    private void endIteration() {
+        if (--iterationDepth > 0) return;
+
+        // Depth is back to 0, so these apply immediately
+        for (int i = 0; i < deferredRemovals.size(); i++) {
+            removeEntity(deferredRemovals.get(i));
+        }
+        deferredRemovals.clear();
+
+        for (int i = 0; i < deferredAdds.size(); i++) {
+            Entity entity = deferredAdds.get(i);
+            entity.addPending = false;
+            addEntity(entity);
+        }
+        deferredAdds.clear();
+    }
 
+    /**
+     * Copy of the entities of a type. Prefer forEach/findFirst/count in per-frame code.
+     */
     public List<Entity> getEntitiesByType(Entity.EntityType type) {
-        return new ArrayList<>(entitiesByType.get(type));
+        EntityBucket bucket = entitiesByType.get(type);
+        List<Entity> result = new ArrayList<>(bucket.size());
+        bucket.copyTo(result);
+        return result;
+    }
+
+    /**
+     * Resolve a handle, or null if the entity has since been removed
+     */
+    public Entity getEntity(int handle) {
+        return entities.get(handle);
     }
 
+    /**
+     * Debug bridge: resolve an entity id string such as "ENEMY_42v1"
+     */
     public Entity getEntity(String entityId) {
-        return entities.get(entityId);
+        return entities.get(EntityHandle.parseDebugString(entityId));
+    }
+
+    public boolean isAlive(int handle) {
+        return entities.isValid(handle);
+    }
+
+    /**
+     * Lifecycle event bus - subscribe here instead of polling entity state every frame
+     */
+    public EntityEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Deliver the lifecycle events queued since the last call. Call once per frame.
+     */
+    public int dispatchEvents() {
+        return eventBus.dispatch();
     }
 
+    /**
+     * Copy of all entities. Prefer forEach/findFirst/count in per-frame code.
+     */
     public Collection<Entity> getAllEntities() {
-        return new ArrayList<>(entities.values());
+        List<Entity> result = new ArrayList<>(entities.size());
+        for (int i = 0; i < entities.size(); i++) {
+            result.add(entities.getDense(i));
+        }
+        return result;
     }
 
+    /**
+     * Live entities within range of a position. Walks only the grid cells in range.
+     */
     public List<Entity> getEntitiesInRange(Vector3f position, float range) {
-        List<Entity> result = new ArrayList<>();
-        for (Entity entity : entities.values()) {
-            if (entity.isActive() && !entity.isDestroyed()) {
-                if (entity.getPosition().distance(position) <= range) {
-                    result.add(entity);
-                }
-            }
+        rangeBuffer.clear();
+        spatialGrid.queryRange(position.x, position.y, position.z, range, null, rangeBuffer);
+
+        List<Entity> result = new ArrayList<>(rangeBuffer.size());
+        for (int i = 0; i < rangeBuffer.size(); i++) {
+            result.add(rangeBuffer.get(i));
         }
+        rangeBuffer.clear();
         return result;
     }
 
+    /**
+     * OPTIMIZATION: Append live entities within range (optionally of one type) to a
+     * caller-supplied buffer. The buffer is not cleared first.
+     * @return number of entities appended
+     */
+    public int queryRange(Vector3f position, float range, Entity.EntityType type, EntityQueryBuffer out) {
+        return spatialGrid.queryRange(position.x, position.y, position.z, range, type, out);
+    }
+
+    /**
+     * Closest live entity of a type, searching the grid outward ring by ring
+     */
     public Entity getClosestEntity(Vector3f position, Entity.EntityType type) {
-        Entity closest = null;
-        float closestDistance = Float.MAX_VALUE;
-
-        for (Entity entity : entitiesByType.get(type)) {
-            if (entity.isActive() && !entity.isDestroyed()) {
-                float distance = entity.getPosition().distance(position);
-                if (distance < closestDistance) {
-                    closestDistance = distance;
-                    closest = entity;
-                }
-            }
-        }
+        return spatialGrid.findNearest(position.x, position.y, position.z, Float.POSITIVE_INFINITY, type, null);
+    }
+
+    /**
+     * Closest live entity within maxRange (type may be null for any type), ignoring exclude
+     */
+    public Entity findNearest(Vector3f position, float maxRange, Entity.EntityType type, Entity exclude) {
+        return spatialGrid.findNearest(position.x, position.y, position.z, maxRange, type, exclude);
+    }
+
+    /**
+     * Append up to k closest live entities within maxRange to the buffer, nearest first
+     * @return number of entities appended
+     */
+    public int findKNearest(Vector3f position, int k, float maxRange, Entity.EntityType type,
+                            Entity exclude, EntityQueryBuffer out) {
+        return spatialGrid.findKNearest(position.x, position.y, position.z, k, maxRange, type, exclude, out);
+    }
+
+    /**
+     * OPTIMIZATION: First live entity hit by the segment from-to, walking only the grid
+     * cells the segment crosses. radius > 0 sweeps a capsule (melee, thick shots).
+     * Type, exclude and filter may be null. See getLastSegmentHitDistance().
+     */
+    public Entity raycast(Vector3f from, Vector3f to, float radius, Entity.EntityType type,
+                          Entity exclude, Predicate<? super Entity> filter) {
+        return spatialGrid.querySegment(from.x, from.y, from.z, to.x, to.y, to.z, radius, type, exclude, filter);
+    }
+
+    /**
+     * Whether no entity passing the filter blocks the segment from-to (world geometry is not considered)
+     */
+    public boolean hasEntityLineOfSight(Vector3f from, Vector3f to, Entity exclude, Predicate<? super Entity> filter) {
+        return spatialGrid.querySegment(from.x, from.y, from.z, to.x, to.y, to.z, 0f, null, exclude, filter) == null;
+    }
 
-        return closest;
+    /**
+     * Distance along the segment to the last raycast() hit (+infinity if it missed)
+     */
+    public float getLastSegmentHitDistance() {
+        return spatialGrid.getSegmentHitDistance();
     }
 
     public void clear() {
-        for (Entity entity : entities.values()) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.getDense(i);
             entity.detachFromScene();
+            entity.assignHandle(EntityHandle.NONE);
+            entity.removalPending = false;
+            entity.sleeping = false;
+            entity.sleepRequested = false;
+            entity.eventBus = null;
         }
         entities.clear();
-        for (List<Entity> list : entitiesByType.values()) {
-            list.clear();
+        eventBus.clear();
+        commandBuffer.clear();
+        for (EntityBucket bucket : entitiesByType.values()) {
+            bucket.clear();
         }
         spatialGrid.clear();
+        broadphase.clear();
         entitiesToRemove.clear();
+        for (int i = 0; i < deferredAdds.size(); i++) {
+            deferredAdds.get(i).addPending = false;
+        }
+        deferredAdds.clear();
+        deferredRemovals.clear();
+        pendingSleeps.clear();
+        pendingWakes.clear();
+        maxWakeRadius = 0f;
 
         // OPTIMIZATION: Clear tracking data
-        previousPositions.clear();
-        processedCollisionPairs.clear();
+        collisionPairsTested = 0;
+        collisionPairsHit = 0;
+        lastBroadphaseNanos = 0;
     }
 
     // Spatial Grid Methods
-    private String getGridKey(Vector3f position) {
-        int x = (int)(position.x / GRID_SIZE);
-        int z = (int)(position.z / GRID_SIZE);
-        return x + "," + z;
-    }
-
     private void addToSpatialGrid(Entity entity) {
-        String key = getGridKey(entity.getPosition());
-        spatialGrid.computeIfAbsent(key, k -> new HashSet<>()).add(entity);
+        spatialGrid.insert(entity);
     }
 
+    /**
+     * Removes the entity from the cell it was registered in, which may differ
+     * from its current position if it moved since the last grid update
+     */
     private void removeFromSpatialGrid(Entity entity) {
-        String key = getGridKey(entity.getPosition());
-        Set<Entity> grid = spatialGrid.get(key);
-        if (grid != null) {
-            grid.remove(entity);
-            if (grid.isEmpty()) {
-                spatialGrid.remove(key);
-            }
-        }
-    }
-
-    private Set<Entity> getNearbyEntities(Entity entity) {
-        Set<Entity> nearby = new HashSet<>();
-        Vector3f pos = entity.getPosition();
-
-        // Check entity's grid cell and adjacent cells
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dz = -1; dz <= 1; dz++) {
-                int x = (int)(pos.x / GRID_SIZE) + dx;
-                int z = (int)(pos.z / GRID_SIZE) + dz;
-                String key = x + "," + z;
-
-                Set<Entity> grid = spatialGrid.get(key);
-                if (grid != null) {
-                    nearby.addAll(grid);
-                }
-            }
-        }
-
-        return nearby;
+        spatialGrid.remove(entity);
     }
 
     // Statistics
@@ -323,17 +895,46 @@ public class EntityManager {
         return entitiesByType.get(type).size();
     }
 
-    // OPTIMIZATION: Performance statistics
-    public void printPerformanceStats() {
-
-
+    /**
+     * Candidate pairs that reached the narrow phase last frame
+     */
+    public int getCollisionPairsTested() {
+        return collisionPairsTested;
+    }
 
+    /**
+     * Pairs that actually overlapped last frame
+     */
+    public int getCollisionPairsHit() {
+        return collisionPairsHit;
+    }
 
-        int totalEntitiesInGrid = 0;
-        for (Set<Entity> cell : spatialGrid.values()) {
-            totalEntitiesInGrid += cell.size();
-        }
+    // Update LOD metrics for the last frame
+    public int getLodNearCount() { return lodNearCount; }
+    public int getLodMidCount() { return lodMidCount; }
+    public int getLodFarCount() { return lodFarCount; }
+    public int getLodTickedCount() { return lodTickedCount; }
 
+    /**
+     * Time spent in the last collision pass (broadphase plus narrow phase)
+     */
+    public long getLastBroadphaseNanos() {
+        return lastBroadphaseNanos;
+    }
 
+    // OPTIMIZATION: Performance statistics
+    public String getStatistics() {
+        return String.format("EntityManager: %d entities (%d active, %d sleeping), %d in grid across %d cells (largest %d, table %d)",
+                entities.size(), getActiveEntityCount(), getSleepingEntityCount(), spatialGrid.getEntityCount(),
+                spatialGrid.getOccupiedCellCount(), spatialGrid.getLargestCellPopulation(), spatialGrid.getTableCapacity())
+                + String.format("\n  Collisions: %d pairs tested, %d hit (%s, %.1f us)",
+                collisionPairsTested, collisionPairsHit, broadphase.getName(), lastBroadphaseNanos / 1000f)
+                + String.format("\n  Update LOD %s: near %d, mid %d, far %d, ticked %d",
+                updateLodEnabled ? "on" : "off", lodNearCount, lodMidCount, lodFarCount, lodTickedCount)
+                + String.format("\n  Command buffer: %d spawned, %d destroyed, backlog %d (peak %d)",
+                commandBuffer.getLastSpawned(), commandBuffer.getLastDestroyed(),
+                commandBuffer.getPendingSpawnCount(), commandBuffer.getPeakBacklog())
+                + String.format("\n  Events: %d last dispatch (ring %d, grown %dx)",
+                eventBus.getLastDispatchCount(), eventBus.getCapacity(), eventBus.getRingGrowths());
     }
-}
\ No newline at end of file
+}
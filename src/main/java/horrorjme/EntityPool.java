@@ -0,0 +1,175 @@
+package horrorjme;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-capacity pool for short-lived effect entities (bullet tracers, shell casings).
+ *
+ * Instances are recycled when EntityManager reports them DESTROYED (expired) and are
+ * handed out again by acquire(); the caller re-launches them (which resets their state)
+ * and queues the spawn. Entities keep their mesh, material and physics body between
+ * uses, so after warm-up the firing path allocates nothing.
+ *
+ * When every instance is in use the pool either evicts the oldest live one (casings
+ * lying on the floor) or, without eviction, hands out an unpooled overflow instance
+ * (tracers, which must not vanish mid-flight).
+ */
+public class EntityPool<T extends Entity> implements EntityEventBus.Listener {
+
+    private final String name;
+    private final Class<T> entityClass;
+    private final Supplier<T> factory;
+    private final EntityManager entityManager;
+
+    private final ArrayDeque<T> free = new ArrayDeque<>();
+    private final ArrayDeque<T> live = new ArrayDeque<>(); // Oldest first
+    private int capacity;
+    private boolean evictOldestWhenFull;
+
+    // Stats
+    private int hits;
+    private int misses;
+    private int evictions;
+    private int overflows;
+
+    public EntityPool(String name, Class<T> entityClass, Supplier<T> factory, int capacity,
+                      boolean evictOldestWhenFull, EntityManager entityManager) {
+        this.name = name;
+        this.entityClass = entityClass;
+        this.factory = factory;
+        this.capacity = Math.max(1, capacity);
+        this.evictOldestWhenFull = evictOldestWhenFull;
+        this.entityManager = entityManager;
+
+        entityManager.getEventBus().subscribe(EntityEventBus.EventType.DESTROYED, this);
+    }
+
+    /**
+     * Get an instance to launch. Returns null only when eviction was needed but the
+     * oldest instance couldn't be released this frame.
+     */
+    public T acquire() {
+        T entity = free.poll();
+        if (entity != null) {
+            hits++;
+            live.addLast(entity);
+            return entity;
+        }
+
+        if (live.size() < capacity) {
+            misses++;
+            entity = factory.get();
+            live.addLast(entity);
+            return entity;
+        }
+
+        // Full. Entities dropped by EntityManager.clear() never report DESTROYED - reclaim those first.
+        entity = reclaimStale();
+        if (entity != null) {
+            hits++;
+            return entity;
+        }
+
+        if (!evictOldestWhenFull) {
+            overflows++;
+            return factory.get(); // Not tracked - collected normally once it expires
+        }
+
+        return evictOldest();
+    }
+
+    private T reclaimStale() {
+        Iterator<T> it = live.iterator();
+        while (it.hasNext()) {
+            T entity = it.next();
+            if (entity.getHandle() == EntityHandle.NONE && !entity.spawnQueued) {
+                it.remove();
+                if (!entity.isDestroyed()) {
+                    entity.destroy(); // Release physics bodies etc.
+                }
+                live.addLast(entity);
+                return entity;
+            }
+        }
+        return null;
+    }
+
+    private T evictOldest() {
+        T oldest = live.peekFirst();
+
+        // Still waiting in the spawn queue - re-launching it replaces that spawn
+        if (!oldest.spawnQueued) {
+            if (!oldest.isDestroyed()) {
+                oldest.destroy();
+            }
+            entityManager.removeEntity(oldest);
+            if (entityManager.isAlive(oldest.getHandle())) {
+                return null; // Removal deferred behind a running query - skip this one
+            }
+        }
+
+        live.pollFirst();
+        live.addLast(oldest);
+        evictions++;
+        return oldest;
+    }
+
+    /**
+     * Recycle on expiry
+     */
+    @Override
+    public void onEntityEvent(EntityEventBus.EventType type, Entity entity, float value) {
+        if (type != EntityEventBus.EventType.DESTROYED || !entityClass.isInstance(entity)) return;
+
+        // Evicted and re-launched since this event was queued - it's live again
+        if (!entity.isDestroyed() || entity.spawnQueued || entity.getHandle() != EntityHandle.NONE) return;
+
+        T pooled = entityClass.cast(entity);
+        if (live.remove(pooled)) {
+            free.push(pooled);
+        }
+    }
+
+    /**
+     * Build instances ahead of time (model and physics are built on first spawn)
+     */
+    public void prewarm(int count) {
+        while (free.size() + live.size() < Math.min(count, capacity)) {
+            free.push(factory.get());
+        }
+    }
+
+    /**
+     * Stop listening for expiries (the pool's owner is going away)
+     */
+    public void dispose() {
+        entityManager.getEventBus().unsubscribe(EntityEventBus.EventType.DESTROYED, this);
+        free.clear();
+        live.clear();
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public void setEvictOldestWhenFull(boolean evict) {
+        this.evictOldestWhenFull = evict;
+    }
+
+    // ==== STATS ====
+
+    public int getCapacity() { return capacity; }
+    public int getLiveCount() { return live.size(); }
+    public int getFreeCount() { return free.size(); }
+    public int getHits() { return hits; }
+    public int getMisses() { return misses; }
+    public int getEvictions() { return evictions; }
+    public int getOverflows() { return overflows; }
+
+    public String getStatistics() {
+        return String.format("%s pool: %d live, %d free (cap %d) - %d hits, %d misses, %d evicted, %d overflow",
+                name, live.size(), free.size(), capacity, hits, misses, evictions, overflows);
+    }
+}
@@ -0,0 +1,56 @@
+package horrorjme;
+
+import java.util.Arrays;
+
+/**
+ * Reusable, growable result buffer for entity queries.
+ * Callers keep one instance around and clear it between queries so the
+ * per-frame query paths don't allocate once the buffer has grown to size.
+ */
+public class EntityQueryBuffer {
+
+    private Entity[] items;
+    private int size;
+
+    public EntityQueryBuffer() {
+        this(32);
+    }
+
+    public EntityQueryBuffer(int initialCapacity) {
+        items = new Entity[Math.max(4, initialCapacity)];
+    }
+
+    /**
+     * Append an entity, growing the backing array if needed
+     */
+    public void add(Entity entity) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = entity;
+    }
+
+    public Entity get(int index) {
+        return items[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Reset the buffer, dropping references so destroyed entities can be collected
+     */
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+    }
+
+    public int capacity() {
+        return items.length;
+    }
+}
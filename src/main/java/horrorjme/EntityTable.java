@@ -0,0 +1,246 @@
+package horrorjme;
+
+import java.util.Arrays;
+
+/**
+ * Dense entity storage addressed by generational handles.
+ *
+ * Sparse side: per slot index, the current generation and the entity's position
+ * in the dense arrays. Dense side: live entities packed at [0, size) together with
+ * their per-entity bookkeeping (tracked positions), so iteration is a linear walk.
+ * Removal swaps the last dense element into the hole, keeping everything O(1).
+ *
+ * The dense arrays are partitioned: awake entities occupy [0, awakeCount) and
+ * sleeping ones [awakeCount, size), so per-frame loops can stop at awakeCount.
+ */
+public class EntityTable {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    // Sparse (indexed by handle index)
+    private int[] generations;
+    private int[] denseIndexOf;
+    private int[] freeIndices;
+    private int freeCount;
+    private int highWaterMark;
+
+    // Dense (indexed by dense position)
+    private Entity[] dense;
+    private int[] denseHandles;
+    private float[] trackedX;
+    private float[] trackedY;
+    private float[] trackedZ;
+    private int size;
+    private int awakeCount;
+
+    public EntityTable() {
+        generations = new int[INITIAL_CAPACITY];
+        denseIndexOf = new int[INITIAL_CAPACITY];
+        freeIndices = new int[INITIAL_CAPACITY];
+
+        dense = new Entity[INITIAL_CAPACITY];
+        denseHandles = new int[INITIAL_CAPACITY];
+        trackedX = new float[INITIAL_CAPACITY];
+        trackedY = new float[INITIAL_CAPACITY];
+        trackedZ = new float[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Register an entity and return its new handle
+     */
+    public int add(Entity entity) {
+        int index;
+        if (freeCount > 0) {
+            index = freeIndices[--freeCount];
+        } else {
+            index = highWaterMark++;
+            if (index > EntityHandle.INDEX_MASK) {
+                throw new IllegalStateException("Entity table full (" + index + " slots)");
+            }
+            ensureSparseCapacity(index + 1);
+        }
+
+        // Generations start at 1 so a packed handle is never NONE
+        int generation = generations[index];
+        if (generation == 0) {
+            generation = 1;
+            generations[index] = generation;
+        }
+        int handle = EntityHandle.pack(index, generation);
+
+        ensureDenseCapacity(size + 1);
+        int denseIndex = size++;
+        dense[denseIndex] = entity;
+        denseHandles[denseIndex] = handle;
+        trackedX[denseIndex] = entity.position.x;
+        trackedY[denseIndex] = entity.position.y;
+        trackedZ[denseIndex] = entity.position.z;
+        denseIndexOf[index] = denseIndex;
+
+        // New entities start awake - move into the awake partition
+        swapDense(denseIndex, awakeCount);
+        awakeCount++;
+
+        return handle;
+    }
+
+    /**
+     * Unregister the entity behind a handle. Stale handles are ignored.
+     * @return true if an entity was removed
+     */
+    public boolean remove(int handle) {
+        if (!isValid(handle)) return false;
+
+        int index = EntityHandle.indexOf(handle);
+        int denseIndex = denseIndexOf[index];
+
+        // Awake: first move to the partition boundary and shrink the awake range
+        if (denseIndex < awakeCount) {
+            awakeCount--;
+            swapDense(denseIndex, awakeCount);
+            denseIndex = awakeCount;
+        }
+
+        // OPTIMIZATION: Swap-remove keeps the dense arrays packed
+        int last = --size;
+        swapDense(denseIndex, last);
+        dense[last] = null;
+
+        // Bump the generation so outstanding handles to this slot go stale
+        int nextGeneration = (generations[index] + 1) & EntityHandle.GENERATION_MASK;
+        generations[index] = nextGeneration == 0 ? 1 : nextGeneration;
+        denseIndexOf[index] = -1;
+
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        }
+        freeIndices[freeCount++] = index;
+        return true;
+    }
+
+    /**
+     * Move a live entity between the awake and sleeping partitions
+     * @return true if its partition changed
+     */
+    public boolean setSleeping(int handle, boolean sleeping) {
+        if (!isValid(handle)) return false;
+
+        int denseIndex = denseIndexOf[EntityHandle.indexOf(handle)];
+        boolean isAwake = denseIndex < awakeCount;
+        if (sleeping == !isAwake) return false;
+
+        if (sleeping) {
+            awakeCount--;
+            swapDense(denseIndex, awakeCount);
+        } else {
+            swapDense(denseIndex, awakeCount);
+            awakeCount++;
+        }
+        return true;
+    }
+
+    private void swapDense(int a, int b) {
+        if (a == b) return;
+
+        Entity entity = dense[a];
+        dense[a] = dense[b];
+        dense[b] = entity;
+
+        int handle = denseHandles[a];
+        denseHandles[a] = denseHandles[b];
+        denseHandles[b] = handle;
+
+        float t = trackedX[a];
+        trackedX[a] = trackedX[b];
+        trackedX[b] = t;
+        t = trackedY[a];
+        trackedY[a] = trackedY[b];
+        trackedY[b] = t;
+        t = trackedZ[a];
+        trackedZ[a] = trackedZ[b];
+        trackedZ[b] = t;
+
+        denseIndexOf[EntityHandle.indexOf(denseHandles[a])] = a;
+        denseIndexOf[EntityHandle.indexOf(denseHandles[b])] = b;
+    }
+
+    public boolean isValid(int handle) {
+        if (handle == EntityHandle.NONE) return false;
+        int index = EntityHandle.indexOf(handle);
+        return index < highWaterMark
+                && generations[index] == EntityHandle.generationOf(handle)
+                && denseIndexOf[index] >= 0;
+    }
+
+    /**
+     * Resolve a handle, or null if it is stale
+     */
+    public Entity get(int handle) {
+        return isValid(handle) ? dense[denseIndexOf[EntityHandle.indexOf(handle)]] : null;
+    }
+
+    /**
+     * Dense position of a live handle, or -1
+     */
+    public int denseIndexOf(int handle) {
+        return isValid(handle) ? denseIndexOf[EntityHandle.indexOf(handle)] : -1;
+    }
+
+    // ==== DENSE ACCESS ====
+
+    public int size() { return size; }
+    public int awakeCount() { return awakeCount; }
+    public Entity getDense(int denseIndex) { return dense[denseIndex]; }
+    public int getDenseHandle(int denseIndex) { return denseHandles[denseIndex]; }
+
+    public float getTrackedX(int denseIndex) { return trackedX[denseIndex]; }
+    public float getTrackedY(int denseIndex) { return trackedY[denseIndex]; }
+    public float getTrackedZ(int denseIndex) { return trackedZ[denseIndex]; }
+
+    public void setTracked(int denseIndex, float x, float y, float z) {
+        trackedX[denseIndex] = x;
+        trackedY[denseIndex] = y;
+        trackedZ[denseIndex] = z;
+    }
+
+    /**
+     * Remove everything. Generations are kept so handles from before the clear stay stale.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            int index = EntityHandle.indexOf(denseHandles[i]);
+            int nextGeneration = (generations[index] + 1) & EntityHandle.GENERATION_MASK;
+            generations[index] = nextGeneration == 0 ? 1 : nextGeneration;
+            denseIndexOf[index] = -1;
+            dense[i] = null;
+        }
+        size = 0;
+        awakeCount = 0;
+
+        // Every slot below the high water mark is free again
+        if (freeIndices.length < highWaterMark) {
+            freeIndices = new int[highWaterMark];
+        }
+        freeCount = 0;
+        for (int index = highWaterMark - 1; index >= 0; index--) {
+            freeIndices[freeCount++] = index;
+        }
+    }
+
+    private void ensureSparseCapacity(int required) {
+        if (required <= generations.length) return;
+        int capacity = Math.max(required, generations.length * 2);
+        generations = Arrays.copyOf(generations, capacity);
+        denseIndexOf = Arrays.copyOf(denseIndexOf, capacity);
+    }
+
+    private void ensureDenseCapacity(int required) {
+        if (required <= dense.length) return;
+        int capacity = Math.max(required, dense.length * 2);
+        dense = Arrays.copyOf(dense, capacity);
+        denseHandles = Arrays.copyOf(denseHandles, capacity);
+        trackedX = Arrays.copyOf(trackedX, capacity);
+        trackedY = Arrays.copyOf(trackedY, capacity);
+        trackedZ = Arrays.copyOf(trackedZ, capacity);
+    }
+}
@@ -0,0 +1,509 @@
+package horrorjme;
+
+import com.jme3.collision.CollisionResults;
+import com.jme3.math.Ray;
+import com.jme3.scene.Spatial;
+import java.util.Arrays;
+
+/**
+ * Shared flow field toward the player over a walkable grid of the current map.
+ *
+ * Every zombie chases the same target, so instead of one path per zombie the whole
+ * grid gets one Dijkstra integration outward from the player's cell, and each cell
+ * stores the direction to its cheapest neighbour. A zombie's steering is then a
+ * lookup of its own cell - the cost doesn't depend on how many zombies are chasing.
+ *
+ * The grid comes from the baked GroundHeightField: a node is one standable ground
+ * layer (enough headroom to the layer above) in one cell, so bridges and upper floors
+ * are separate nodes. Neighbouring nodes connect when the climb between them is
+ * walkable and a knee-height ray between their centres doesn't hit map geometry
+ * (walls are vertical, so the height samples alone don't see thin ones). Links are
+ * tested once at build time and kept as a bit mask per node.
+ *
+ * The field is recomputed when the player crosses into another cell. The new
+ * integration runs in slices within a per-frame time budget into a back buffer;
+ * zombies keep reading the last complete field until the new one is swapped in.
+ */
+public class FlowField {
+
+    public static final int NO_DIRECTION = -1;
+
+    private static final int MAX_LAYERS = GroundHeightField.MAX_LAYERS;
+    private static final int DEFAULT_STRIDE = 2;          // Heightfield samples per flow cell
+    private static final float MIN_HEADROOM = 1.8f;       // Standable if the layer above is this far up
+    private static final float MAX_CLIMB_PER_CELL = 0.9f; // ~42 degrees at 1 unit cells
+    private static final float MAX_STEP_UP = 1.0f;        // Locating a node: layers above feet + this are ignored
+    private static final float LINK_RAY_HEIGHT = 1.0f;    // Wall test height above the higher node
+    private static final float DEFAULT_BUDGET_MS = 1.0f;
+    private static final int NODES_PER_SLICE = 256;       // Work between budget checks
+
+    // 8 neighbours: dx, dz, cost
+    private static final int[] NEIGHBOUR_X = {1, -1, 0, 0, 1, 1, -1, -1};
+    private static final int[] NEIGHBOUR_Z = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final float[] NEIGHBOUR_COST = {1f, 1f, 1f, 1f, 1.4142135f, 1.4142135f, 1.4142135f, 1.4142135f};
+    private static final int[] OPPOSITE = {1, 0, 3, 2, 7, 6, 5, 4};
+    private static final float[] DIRECTION_X = new float[8];
+    private static final float[] DIRECTION_Z = new float[8];
+
+    static {
+        for (int d = 0; d < 8; d++) {
+            float length = (float) Math.sqrt(NEIGHBOUR_X[d] * NEIGHBOUR_X[d] + NEIGHBOUR_Z[d] * NEIGHBOUR_Z[d]);
+            DIRECTION_X[d] = NEIGHBOUR_X[d] / length;
+            DIRECTION_Z[d] = NEIGHBOUR_Z[d] / length;
+        }
+    }
+
+    // Grid
+    private int sizeX;
+    private int sizeZ;
+    private float originX;
+    private float originZ;
+    private float cellSize;
+    private float inverseCellSize;
+    private boolean built;
+
+    // Nodes: (cell * MAX_LAYERS + layer), standable layers only, highest first
+    private byte[] layerCounts;
+    private float[] heights;
+    private byte[] links;      // Bit d set: walkable to the neighbour in direction d
+
+    // Front field (read by zombies), back field (being integrated)
+    private byte[] directions;
+    private byte[] backDirections;
+    private float[] cost;
+    private int[] stamp;
+    private int currentStamp;
+
+    // Integration state (resumable across frames)
+    private static final int PHASE_IDLE = 0;
+    private static final int PHASE_INTEGRATE = 1;
+    private static final int PHASE_DIRECTIONS = 2;
+    private int phase = PHASE_IDLE;
+    private int directionCursor;
+    private int[] heap = new int[256];
+    private float[] heapCost = new float[256];
+    private int heapSize;
+
+    private int targetNode = -1;       // Node of the last complete field
+    private int pendingTarget = -1;    // Node being integrated
+    private int wantedTarget = -1;     // Latest player node
+    private float budgetMs = DEFAULT_BUDGET_MS;
+
+    // Stats
+    private int nodeCount;
+    private int recomputes;
+    private int slicedFrames;
+    private long recomputeStartNanos;
+    private long lastRecomputeNanos;    // Wall time from player cell change to field swap
+    private long recomputeNanos;
+
+    /**
+     * Build the walkable grid from baked ground heights and the map they came from
+     */
+    public void build(GroundHeightField ground, Spatial map) {
+        build(ground, map, DEFAULT_STRIDE);
+    }
+
+    public void build(GroundHeightField ground, Spatial map, int stride) {
+        clear();
+        if (ground == null || !ground.isBaked() || map == null) return;
+
+        long start = System.currentTimeMillis();
+        stride = Math.max(1, stride);
+        sizeX = (ground.getSizeX() + stride - 1) / stride;
+        sizeZ = (ground.getSizeZ() + stride - 1) / stride;
+        cellSize = ground.getSpacing() * stride;
+        inverseCellSize = 1f / cellSize;
+        // Cells are centred on the sampled points
+        originX = ground.getOriginX() - cellSize * 0.5f;
+        originZ = ground.getOriginZ() - cellSize * 0.5f;
+
+        int cells = sizeX * sizeZ;
+        layerCounts = new byte[cells];
+        heights = new float[cells * MAX_LAYERS];
+        nodeCount = 0;
+
+        for (int cz = 0; cz < sizeZ; cz++) {
+            for (int cx = 0; cx < sizeX; cx++) {
+                int ix = cx * stride, iz = cz * stride;
+                int layers = ground.getLayerCount(ix, iz);
+                int cell = cz * sizeX + cx;
+                int standable = 0;
+                for (int k = 0; k < layers; k++) {
+                    float height = ground.getLayerHeight(ix, iz, k);
+                    // Layer 0 is the highest; anything else needs room to stand under the one above
+                    if (k > 0 && ground.getLayerHeight(ix, iz, k - 1) - height < MIN_HEADROOM) continue;
+                    heights[cell * MAX_LAYERS + standable++] = height;
+                }
+                layerCounts[cell] = (byte) standable;
+                nodeCount += standable;
+            }
+        }
+
+        int nodes = cells * MAX_LAYERS;
+        int linkCount = buildLinks(map);
+        directions = new byte[nodes];
+        backDirections = new byte[nodes];
+        Arrays.fill(directions, (byte) NO_DIRECTION);
+        cost = new float[nodes];
+        stamp = new int[nodes];
+        built = true;
+
+        System.out.println(String.format("FlowField: %dx%d cells (%.2f units), %d walkable nodes, %d links in %d ms",
+                sizeX, sizeZ, cellSize, nodeCount, linkCount, System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Test every pair of neighbouring nodes once (four directions, mirrored)
+     * @return number of links
+     */
+    private int buildLinks(Spatial map) {
+        links = new byte[sizeX * sizeZ * MAX_LAYERS];
+        CollisionResults results = new CollisionResults();
+        Ray ray = new Ray();
+        int linkCount = 0;
+
+        for (int cz = 0; cz < sizeZ; cz++) {
+            for (int cx = 0; cx < sizeX; cx++) {
+                int cell = cz * sizeX + cx;
+                for (int k = 0, layers = layerCounts[cell]; k < layers; k++) {
+                    int node = cell * MAX_LAYERS + k;
+                    for (int d = 0; d < 8; d += 2) { // 0 (+x), 2 (+z), 4 (+x+z), 6 (-x+z)
+                        int nx = cx + NEIGHBOUR_X[d], nz = cz + NEIGHBOUR_Z[d];
+                        if (nx < 0 || nz < 0 || nx >= sizeX || nz >= sizeZ) continue;
+                        int next = linkedLayer(nx, nz, heights[node]);
+                        if (next < 0 || blocked(map, ray, results, cx, cz, nx, nz, Math.max(heights[node], heights[next]))) continue;
+
+                        links[node] |= 1 << d;
+                        links[next] |= 1 << OPPOSITE[d];
+                        linkCount++;
+                    }
+                }
+            }
+        }
+
+        // No cutting corners: a diagonal needs both of its straight links
+        for (int node = 0; node < links.length; node++) {
+            int mask = links[node];
+            for (int d = 4; d < 8; d++) {
+                int straightX = NEIGHBOUR_X[d] > 0 ? 0 : 1;
+                int straightZ = NEIGHBOUR_Z[d] > 0 ? 2 : 3;
+                if ((mask & (1 << straightX)) == 0 || (mask & (1 << straightZ)) == 0) {
+                    mask &= ~(1 << d);
+                }
+            }
+            links[node] = (byte) mask;
+        }
+        return linkCount;
+    }
+
+    private boolean blocked(Spatial map, Ray ray, CollisionResults results, int cx, int cz, int nx, int nz, float height) {
+        float y = height + LINK_RAY_HEIGHT;
+        float fromX = originX + (cx + 0.5f) * cellSize, fromZ = originZ + (cz + 0.5f) * cellSize;
+        float toX = originX + (nx + 0.5f) * cellSize, toZ = originZ + (nz + 0.5f) * cellSize;
+        float dx = toX - fromX, dz = toZ - fromZ;
+        float length = (float) Math.sqrt(dx * dx + dz * dz);
+
+        ray.getOrigin().set(fromX, y, fromZ);
+        ray.getDirection().set(dx / length, 0f, dz / length);
+        ray.setLimit(length);
+        results.clear();
+        return map.collideWith(ray, results) > 0;
+    }
+
+    // ==== UPDATE ====
+
+    /**
+     * Once per frame: start a new integration if the player changed cell, and advance
+     * the one in progress within the frame budget
+     */
+    public void update(float playerX, float playerY, float playerZ) {
+        update(playerX, playerY, playerZ, System.nanoTime() + (long) (budgetMs * 1_000_000L));
+    }
+
+    /**
+     * Same as update(x, y, z), but integrate until a shared deadline (AIScheduler)
+     * instead of this field's own budget
+     */
+    public void update(float playerX, float playerY, float playerZ, long deadline) {
+        if (!built) return;
+
+        int node = findNode(playerX, playerY, playerZ);
+        if (node >= 0) {
+            wantedTarget = node;
+        }
+
+        if (phase == PHASE_IDLE) {
+            if (wantedTarget < 0 || wantedTarget == targetNode) return;
+            begin(wantedTarget);
+        }
+
+        long startNanos = System.nanoTime();
+        while (phase != PHASE_IDLE && System.nanoTime() < deadline) {
+            if (phase == PHASE_INTEGRATE) {
+                integrate(NODES_PER_SLICE);
+            } else {
+                computeDirections(NODES_PER_SLICE * 4);
+            }
+        }
+        recomputeNanos += System.nanoTime() - startNanos;
+        if (phase != PHASE_IDLE) {
+            slicedFrames++;
+        }
+    }
+
+    /**
+     * Finish any integration in progress right now (e.g. right after a map load)
+     */
+    public void completeNow() {
+        while (phase == PHASE_INTEGRATE) {
+            integrate(Integer.MAX_VALUE);
+        }
+        while (phase == PHASE_DIRECTIONS) {
+            computeDirections(Integer.MAX_VALUE);
+        }
+    }
+
+    private void begin(int target) {
+        pendingTarget = target;
+        if (++currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            currentStamp = 1;
+        }
+        heapSize = 0;
+        stamp[target] = currentStamp;
+        cost[target] = 0f;
+        push(target, 0f);
+        phase = PHASE_INTEGRATE;
+        recomputeStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Dijkstra from the player's node outward
+     */
+    private void integrate(int maxNodes) {
+        for (int n = 0; n < maxNodes; n++) {
+            if (heapSize == 0) {
+                phase = PHASE_DIRECTIONS;
+                directionCursor = 0;
+                return;
+            }
+            float nodeCost = heapCost[0];
+            int node = pop();
+            if (nodeCost > cost[node]) continue; // Stale heap entry
+
+            int cell = node / MAX_LAYERS;
+            int cx = cell % sizeX, cz = cell / sizeX;
+            float height = heights[node];
+
+            int mask = links[node];
+            for (int d = 0; d < 8; d++) {
+                if ((mask & (1 << d)) == 0) continue;
+                int next = linkedLayer(cx + NEIGHBOUR_X[d], cz + NEIGHBOUR_Z[d], height);
+
+                float nextCost = nodeCost + NEIGHBOUR_COST[d];
+                if (stamp[next] != currentStamp || nextCost < cost[next]) {
+                    stamp[next] = currentStamp;
+                    cost[next] = nextCost;
+                    push(next, nextCost);
+                }
+            }
+        }
+    }
+
+    /**
+     * Node in cell (x, z) reachable from a node at the given height, or -1
+     */
+    private int linkedLayer(int x, int z, float height) {
+        int cell = z * sizeX + x;
+        int base = cell * MAX_LAYERS;
+        for (int k = 0, layers = layerCounts[cell]; k < layers; k++) {
+            if (Math.abs(heights[base + k] - height) <= MAX_CLIMB_PER_CELL * cellSize) {
+                return base + k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Every reached node points at its cheapest reachable neighbour
+     */
+    private void computeDirections(int maxNodes) {
+        int nodes = directions.length;
+        int end = (int) Math.min((long) directionCursor + maxNodes, nodes);
+        for (int node = directionCursor; node < end; node++) {
+            backDirections[node] = (byte) bestDirection(node);
+        }
+        directionCursor = end;
+
+        if (directionCursor == nodes) {
+            byte[] swap = directions;
+            directions = backDirections;
+            backDirections = swap;
+            targetNode = pendingTarget;
+            pendingTarget = -1;
+            phase = PHASE_IDLE;
+            recomputes++;
+            lastRecomputeNanos = System.nanoTime() - recomputeStartNanos;
+        }
+    }
+
+    private int bestDirection(int node) {
+        if (stamp[node] != currentStamp || node == pendingTarget) return NO_DIRECTION;
+
+        int cell = node / MAX_LAYERS;
+        int cx = cell % sizeX, cz = cell / sizeX;
+        float height = heights[node];
+        float best = cost[node];
+        int bestDirection = NO_DIRECTION;
+
+        int mask = links[node];
+        for (int d = 0; d < 8; d++) {
+            if ((mask & (1 << d)) == 0) continue;
+            int next = linkedLayer(cx + NEIGHBOUR_X[d], cz + NEIGHBOUR_Z[d], height);
+            if (stamp[next] != currentStamp) continue;
+            if (cost[next] < best) {
+                best = cost[next];
+                bestDirection = d;
+            }
+        }
+        return bestDirection;
+    }
+
+    // ==== LOOKUP ====
+
+    /**
+     * Node under a position: the highest standable layer no more than a step above the
+     * feet, or -1 off the grid
+     */
+    public int findNode(float x, float y, float z) {
+        if (!built) return -1;
+        int cx = (int) Math.floor((x - originX) * inverseCellSize);
+        int cz = (int) Math.floor((z - originZ) * inverseCellSize);
+        if (cx < 0 || cz < 0 || cx >= sizeX || cz >= sizeZ) return -1;
+
+        int cell = cz * sizeX + cx;
+        int base = cell * MAX_LAYERS;
+        for (int k = 0, layers = layerCounts[cell]; k < layers; k++) {
+            if (heights[base + k] <= y + MAX_STEP_UP) {
+                return base + k;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Steering direction at a position (one of 8, see getDirectionX/Z)
+     * @return direction index, or NO_DIRECTION (off the grid, unreachable, in the player's cell)
+     */
+    public int directionAt(float x, float y, float z) {
+        int node = findNode(x, y, z);
+        return node >= 0 ? directions[node] : NO_DIRECTION;
+    }
+
+    public static float getDirectionX(int direction) {
+        return DIRECTION_X[direction];
+    }
+
+    public static float getDirectionZ(int direction) {
+        return DIRECTION_Z[direction];
+    }
+
+    /**
+     * Whether a complete field exists (zombies can steer by it)
+     */
+    public boolean isReady() {
+        return built && targetNode >= 0;
+    }
+
+    // ==== HEAP ====
+
+    private void push(int node, float nodeCost) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, heapSize * 2);
+            heapCost = Arrays.copyOf(heapCost, heapSize * 2);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int up = (i - 1) >>> 1;
+            if (heapCost[up] <= nodeCost) break;
+            heap[i] = heap[up];
+            heapCost[i] = heapCost[up];
+            i = up;
+        }
+        heap[i] = node;
+        heapCost[i] = nodeCost;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        float lastCost = heapCost[heapSize];
+        int i = 0;
+        int half = heapSize >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && heapCost[child + 1] < heapCost[child]) child++;
+            if (heapCost[child] >= lastCost) break;
+            heap[i] = heap[child];
+            heapCost[i] = heapCost[child];
+            i = child;
+        }
+        heap[i] = last;
+        heapCost[i] = lastCost;
+        return top;
+    }
+
+    // ==== CONFIGURATION ====
+
+    /**
+     * Forget the map (unloaded)
+     */
+    public void clear() {
+        built = false;
+        layerCounts = null;
+        heights = null;
+        links = null;
+        directions = null;
+        backDirections = null;
+        cost = null;
+        stamp = null;
+        currentStamp = 0;
+        heapSize = 0;
+        phase = PHASE_IDLE;
+        targetNode = -1;
+        pendingTarget = -1;
+        wantedTarget = -1;
+        nodeCount = 0;
+    }
+
+    /**
+     * Milliseconds of integration per frame
+     */
+    public void setBudgetMs(float budgetMs) {
+        this.budgetMs = Math.max(0.05f, budgetMs);
+    }
+
+    public float getBudgetMs() {
+        return budgetMs;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    // ==== STATS ====
+
+    public int getNodeCount() { return nodeCount; }
+    public int getRecomputes() { return recomputes; }
+    public boolean isRecomputing() { return phase != PHASE_IDLE; }
+
+    public String getStatistics() {
+        if (!built) {
+            return "FlowField: not built";
+        }
+        return String.format("FlowField: %dx%d cells, %d nodes - %d recomputes (last %.1f ms wall, %.2f ms avg work), %d sliced frames",
+                sizeX, sizeZ, nodeCount, recomputes, lastRecomputeNanos / 1_000_000.0,
+                recomputes > 0 ? recomputeNanos / 1_000_000.0 / recomputes : 0.0, slicedFrames);
+    }
+}
@@ -0,0 +1,71 @@
+package horrorjme;
+
+/**
+ * Uniform grid broadphase backed by EntityManager's spatial hash.
+ * The hash is maintained by the manager for spatial queries anyway, so
+ * add/remove/update are no-ops here; pairs come from 3x3 cell neighbourhoods
+ * filtered by handle index so each pair is reported once.
+ */
+public class GridBroadphase implements Broadphase {
+
+    private final SpatialHash spatialHash;
+    private final EntityTable entities;
+    private final EntityQueryBuffer nearbyBuffer = new EntityQueryBuffer(64);
+
+    public GridBroadphase(SpatialHash spatialHash, EntityTable entities) {
+        this.spatialHash = spatialHash;
+        this.entities = entities;
+    }
+
+    @Override
+    public void add(Entity entity) {
+        // Shared spatial hash - maintained by EntityManager
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        // Shared spatial hash - maintained by EntityManager
+    }
+
+    @Override
+    public void update(Entity entity) {
+        // Shared spatial hash - maintained by EntityManager
+    }
+
+    @Override
+    public int collectPairs(PairVisitor visitor) {
+        int candidates = 0;
+
+        // Sleeping entities sit past the awake partition and are skipped
+        for (int e = 0; e < entities.awakeCount(); e++) {
+            Entity entity = entities.getDense(e);
+            if (!entity.isActive() || entity.isDestroyed()) continue;
+
+            int entityIndex = EntityHandle.indexOf(entity.handle);
+            nearbyBuffer.clear();
+            spatialHash.queryNeighbourhood(entity.position.x, entity.position.z, 1, nearbyBuffer);
+
+            for (int i = 0; i < nearbyBuffer.size(); i++) {
+                Entity other = nearbyBuffer.get(i);
+                // Each pair appears from both sides - keep the lower-index visit only
+                if (other.sleeping || EntityHandle.indexOf(other.handle) <= entityIndex) continue;
+
+                candidates++;
+                visitor.visit(entity, other);
+            }
+        }
+
+        nearbyBuffer.clear();
+        return candidates;
+    }
+
+    @Override
+    public void clear() {
+        nearbyBuffer.clear();
+    }
+
+    @Override
+    public String getName() {
+        return "Grid(" + (int) spatialHash.getCellSize() + ")";
+    }
+}
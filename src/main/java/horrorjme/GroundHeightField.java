@@ -0,0 +1,283 @@
+package horrorjme;
+
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bounding.BoundingVolume;
+import com.jme3.collision.CollisionResult;
+import com.jme3.collision.CollisionResults;
+import com.jme3.math.FastMath;
+import com.jme3.math.Ray;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Spatial;
+import java.util.Arrays;
+
+/**
+ * Ground heights for the loaded map, baked once at load time so ground snapping is a
+ * bilinear lookup instead of a Bullet ray test per moving entity per frame.
+ *
+ * The map's triangles are sampled on a regular XZ grid by casting one vertical ray per
+ * grid point through the whole map and keeping every walkable surface it passes
+ * (bridges, balconies, upper floors), up to MAX_LAYERS per point, highest first.
+ * A lookup picks the highest layer at or below the probe height at the four corners
+ * of the cell and blends them.
+ *
+ * Cells whose corners don't agree - a different number of layers, or a drop bigger
+ * than a step between neighbours (wall tops, ledges, holes) - are flagged ambiguous at
+ * bake time. Lookups there return NaN and the caller falls back to its ray test.
+ */
+public class GroundHeightField {
+
+    public static final int MAX_LAYERS = 4;
+
+    private static final float DEFAULT_SPACING = 0.5f;
+    private static final int MAX_SAMPLES = 512 * 512;    // Spacing grows for very large maps
+    private static final float MIN_WALKABLE_NORMAL_Y = 0.5f; // Steeper than 60 degrees is wall
+    private static final float LAYER_MERGE_DISTANCE = 0.25f; // Both faces of a thin floor = one layer
+    private static final float MAX_STEP = 0.6f;           // Bigger jumps inside one cell are ambiguous
+
+    // Grid
+    private float originX;
+    private float originZ;
+    private float spacing;
+    private float inverseSpacing;
+    private int sizeX;
+    private int sizeZ;
+    private boolean baked;
+
+    // Per sample point: layer count and heights (MAX_LAYERS per point, highest first)
+    private byte[] layerCounts;
+    private float[] heights;
+
+    // Per cell (sizeX - 1) * (sizeZ - 1): corners disagree, use the ray fallback
+    private boolean[] ambiguous;
+    private int ambiguousCells;
+
+    // Reused bake scratch
+    private final CollisionResults bakeResults = new CollisionResults();
+    private final Ray bakeRay = new Ray();
+    private final float[] bakeLayers = new float[MAX_LAYERS];
+
+    // Stats
+    private int lookups;
+    private int fallbacks;
+    private long bakeTimeMs;
+
+    /**
+     * Sample the map's geometry. Replaces whatever was baked before.
+     */
+    public void bake(Spatial map) {
+        clear();
+        if (map == null) return;
+
+        long start = System.currentTimeMillis();
+        map.updateGeometricState(); // World bounds and transforms after scaling
+
+        BoundingVolume worldBound = map.getWorldBound();
+        if (!(worldBound instanceof BoundingBox)) {
+            System.err.println("GroundHeightField: map has no bounding box, not baking");
+            return;
+        }
+        BoundingBox box = (BoundingBox) worldBound;
+        Vector3f min = box.getMin(null);
+        Vector3f max = box.getMax(null);
+
+        float width = max.x - min.x;
+        float depth = max.z - min.z;
+        spacing = Math.max(DEFAULT_SPACING, FastMath.sqrt(width * depth / MAX_SAMPLES));
+        inverseSpacing = 1f / spacing;
+        originX = min.x;
+        originZ = min.z;
+        sizeX = (int) Math.ceil(width * inverseSpacing) + 1;
+        sizeZ = (int) Math.ceil(depth * inverseSpacing) + 1;
+
+        layerCounts = new byte[sizeX * sizeZ];
+        heights = new float[sizeX * sizeZ * MAX_LAYERS];
+
+        float rayY = max.y + 1f;
+        float rayLength = max.y - min.y + 2f;
+        bakeRay.setDirection(Vector3f.UNIT_Y.negate());
+        bakeRay.setLimit(rayLength);
+
+        for (int iz = 0; iz < sizeZ; iz++) {
+            for (int ix = 0; ix < sizeX; ix++) {
+                bakeRay.getOrigin().set(originX + ix * spacing, rayY, originZ + iz * spacing);
+                samplePoint(map, iz * sizeX + ix);
+            }
+        }
+
+        flagAmbiguousCells();
+        baked = true;
+        bakeTimeMs = System.currentTimeMillis() - start;
+
+        System.out.println(String.format("GroundHeightField: baked %dx%d samples (%.2f spacing) in %d ms, %d/%d cells ambiguous",
+                sizeX, sizeZ, spacing, bakeTimeMs, ambiguousCells, (sizeX - 1) * (sizeZ - 1)));
+    }
+
+    /**
+     * Collect the walkable surfaces under one grid point, highest first
+     */
+    private void samplePoint(Spatial map, int point) {
+        bakeResults.clear();
+        map.collideWith(bakeRay, bakeResults);
+
+        int layers = 0;
+        float lastHeight = Float.POSITIVE_INFINITY;
+        // Results are sorted by distance - nearest (highest) first
+        for (int i = 0; i < bakeResults.size() && layers < MAX_LAYERS; i++) {
+            CollisionResult result = bakeResults.getCollision(i);
+            Vector3f normal = result.getContactNormal();
+            if (normal != null && Math.abs(normal.y) < MIN_WALKABLE_NORMAL_Y) continue;
+
+            float height = result.getContactPoint().y;
+            if (lastHeight - height < LAYER_MERGE_DISTANCE) continue;
+
+            bakeLayers[layers++] = height;
+            lastHeight = height;
+        }
+
+        layerCounts[point] = (byte) layers;
+        System.arraycopy(bakeLayers, 0, heights, point * MAX_LAYERS, layers);
+    }
+
+    private void flagAmbiguousCells() {
+        ambiguous = new boolean[(sizeX - 1) * (sizeZ - 1)];
+        ambiguousCells = 0;
+
+        for (int iz = 0; iz < sizeZ - 1; iz++) {
+            for (int ix = 0; ix < sizeX - 1; ix++) {
+                int p00 = iz * sizeX + ix;
+                int p10 = p00 + 1;
+                int p01 = p00 + sizeX;
+                int p11 = p01 + 1;
+
+                boolean flag = false;
+                int layers = layerCounts[p00];
+                if (layers == 0 || layers != layerCounts[p10] || layers != layerCounts[p01] || layers != layerCounts[p11]) {
+                    flag = true;
+                } else {
+                    for (int k = 0; k < layers && !flag; k++) {
+                        float h00 = heights[p00 * MAX_LAYERS + k];
+                        float h10 = heights[p10 * MAX_LAYERS + k];
+                        float h01 = heights[p01 * MAX_LAYERS + k];
+                        float h11 = heights[p11 * MAX_LAYERS + k];
+                        float low = Math.min(Math.min(h00, h10), Math.min(h01, h11));
+                        float high = Math.max(Math.max(h00, h10), Math.max(h01, h11));
+                        flag = high - low > MAX_STEP;
+                    }
+                }
+
+                if (flag) {
+                    ambiguous[iz * (sizeX - 1) + ix] = true;
+                    ambiguousCells++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Ground height under (x, z): the highest surface at or below maxY, the same
+     * surface a ray cast down from maxY would hit first.
+     * @return the height, or NaN when the field can't answer (not baked, outside the
+     *         map, ambiguous cell, no surface below maxY) - use a ray test instead
+     */
+    public float sample(float x, float z, float maxY) {
+        if (!baked) return Float.NaN;
+        lookups++;
+
+        float fx = (x - originX) * inverseSpacing;
+        float fz = (z - originZ) * inverseSpacing;
+        int ix = (int) Math.floor(fx);
+        int iz = (int) Math.floor(fz);
+        if (ix < 0 || iz < 0 || ix >= sizeX - 1 || iz >= sizeZ - 1 || ambiguous[iz * (sizeX - 1) + ix]) {
+            fallbacks++;
+            return Float.NaN;
+        }
+
+        int p00 = iz * sizeX + ix;
+        float h00 = layerBelow(p00, maxY);
+        float h10 = layerBelow(p00 + 1, maxY);
+        float h01 = layerBelow(p00 + sizeX, maxY);
+        float h11 = layerBelow(p00 + sizeX + 1, maxY);
+
+        // Any NaN propagates into low/high and fails the step check
+        float low = Math.min(Math.min(h00, h10), Math.min(h01, h11));
+        float high = Math.max(Math.max(h00, h10), Math.max(h01, h11));
+        if (!(high - low <= MAX_STEP)) {
+            fallbacks++; // Corners picked different floors (probe between storeys)
+            return Float.NaN;
+        }
+
+        float tx = fx - ix;
+        float tz = fz - iz;
+        float near = h00 + (h10 - h00) * tx;
+        float far = h01 + (h11 - h01) * tx;
+        return near + (far - near) * tz;
+    }
+
+    private float layerBelow(int point, float maxY) {
+        int base = point * MAX_LAYERS;
+        for (int k = 0, layers = layerCounts[point]; k < layers; k++) {
+            float height = heights[base + k];
+            if (height <= maxY) return height;
+        }
+        return Float.NaN;
+    }
+
+    /**
+     * Forget the baked map (map unloaded)
+     */
+    public void clear() {
+        baked = false;
+        layerCounts = null;
+        heights = null;
+        ambiguous = null;
+        sizeX = 0;
+        sizeZ = 0;
+        ambiguousCells = 0;
+        lookups = 0;
+        fallbacks = 0;
+        bakeResults.clear();
+        Arrays.fill(bakeLayers, 0f);
+    }
+
+    public boolean isBaked() {
+        return baked;
+    }
+
+    // Raw grid access (FlowField builds its walkable grid from the baked layers)
+
+    int getSizeX() { return sizeX; }
+    int getSizeZ() { return sizeZ; }
+    float getOriginX() { return originX; }
+    float getOriginZ() { return originZ; }
+
+    int getLayerCount(int ix, int iz) {
+        return layerCounts[iz * sizeX + ix];
+    }
+
+    /**
+     * Height of a layer at a sample point (layer 0 is the highest)
+     */
+    float getLayerHeight(int ix, int iz, int layer) {
+        return heights[(iz * sizeX + ix) * MAX_LAYERS + layer];
+    }
+
+    public float getSpacing() {
+        return spacing;
+    }
+
+    // ==== STATS ====
+
+    public int getLookups() { return lookups; }
+    public int getFallbacks() { return fallbacks; }
+    public int getAmbiguousCells() { return ambiguousCells; }
+    public long getBakeTimeMs() { return bakeTimeMs; }
+
+    public String getStatistics() {
+        if (!baked) {
+            return "GroundHeightField: not baked";
+        }
+        return String.format("GroundHeightField: %dx%d (%.2f spacing, %d KB) - %d lookups, %d ray fallbacks (%.1f%%)",
+                sizeX, sizeZ, spacing, (heights.length * 4 + layerCounts.length + ambiguous.length) / 1024,
+                lookups, fallbacks, lookups > 0 ? 100f * fallbacks / lookups : 0f);
+    }
+}
@@ -0,0 +1,191 @@
+package horrorjme;
+
+import com.jme3.bullet.BulletAppState;
+import com.jme3.bullet.collision.PhysicsCollisionObject;
+import com.jme3.bullet.collision.PhysicsRayTestResult;
+import com.jme3.math.Vector3f;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Resolves weapon hits at trigger time instead of by flying projectiles.
+ *
+ * Each pellet is one Bullet ray test; the nearest hit that blocks shots wins. Enemy
+ * bodies map back to their entity through the body's application data (set by
+ * SpriteEntity), so there is no per-frame entity scan. Damage from all pellets of one
+ * shot is summed per entity and applied once in applyShot(), so a shotgun blast is one
+ * takeDamage() per zombie, not one per pellet.
+ *
+ * Without physics the ray is tested against enemy bounding spheres through the entity
+ * grid instead.
+ */
+public class HitscanResolver {
+
+    private static final int MAX_TARGETS_PER_SHOT = 16;
+
+    private final BulletAppState bulletAppState;
+    private final EntityManager entityManager;
+
+    // Reused ray test scratch
+    private final List<PhysicsRayTestResult> rayResults = new ArrayList<>();
+    private final Vector3f rayEnd = new Vector3f();
+
+    // Damage accumulated for the current shot
+    private final Entity[] shotTargets = new Entity[MAX_TARGETS_PER_SHOT];
+    private final float[] shotDamage = new float[MAX_TARGETS_PER_SHOT];
+    private int shotTargetCount;
+
+    // Last traced pellet
+    private Entity lastHitEntity;
+    private float lastHitDistance;
+
+    private final Predicate<Entity> liveTarget = HitscanResolver::isLiveTarget; // No-physics filter
+
+    // Stats
+    private int shots;
+    private int pellets;
+    private int entityHits;
+    private int worldHits;
+
+    public HitscanResolver(BulletAppState bulletAppState, EntityManager entityManager) {
+        this.bulletAppState = bulletAppState;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Start a new shot (clears accumulated pellet damage)
+     */
+    public void beginShot() {
+        for (int i = 0; i < shotTargetCount; i++) {
+            shotTargets[i] = null;
+        }
+        shotTargetCount = 0;
+        shots++;
+    }
+
+    /**
+     * Trace one pellet and bank its damage against whatever it hits.
+     * @return distance to the first blocking hit, or range if nothing was hit
+     */
+    public float tracePellet(Vector3f origin, Vector3f direction, float range, float damage) {
+        pellets++;
+        lastHitEntity = null;
+        lastHitDistance = range;
+
+        if (bulletAppState != null && bulletAppState.getPhysicsSpace() != null) {
+            tracePhysics(origin, direction, range);
+        } else {
+            traceEntities(origin, direction, range);
+        }
+
+        if (lastHitEntity != null) {
+            entityHits++;
+            bankDamage(lastHitEntity, damage);
+        } else if (lastHitDistance < range) {
+            worldHits++;
+        }
+        return lastHitDistance;
+    }
+
+    private void tracePhysics(Vector3f origin, Vector3f direction, float range) {
+        rayEnd.set(direction).multLocal(range).addLocal(origin);
+        rayResults.clear();
+        bulletAppState.getPhysicsSpace().rayTest(origin, rayEnd, rayResults);
+
+        float nearest = 1f;
+        for (int i = 0; i < rayResults.size(); i++) {
+            PhysicsRayTestResult result = rayResults.get(i);
+            PhysicsCollisionObject hitObject = result.getCollisionObject();
+            if (result.getHitFraction() >= nearest || !blocksShot(hitObject)) continue;
+
+            nearest = result.getHitFraction();
+            Object data = hitObject.getApplicationData();
+            lastHitEntity = data instanceof Entity ? (Entity) data : null;
+        }
+        lastHitDistance = nearest * range;
+        rayResults.clear(); // Don't hold on to bodies between shots
+    }
+
+    /**
+     * World geometry and living enemies stop a shot; the player, casings and corpses don't
+     */
+    private boolean blocksShot(PhysicsCollisionObject hitObject) {
+        if (!CollisionGroups.matches(hitObject, CollisionGroups.SHOT_BLOCKERS)) return false;
+        if (hitObject.getCollisionGroup() != CollisionGroups.ENEMY) return true;
+
+        Object data = hitObject.getApplicationData();
+        return data instanceof Entity && isLiveTarget((Entity) data);
+    }
+
+    private static boolean isLiveTarget(Entity entity) {
+        return entity.getType() == Entity.EntityType.ENEMY && entity.isActive() && entity.getHealth() > 0f;
+    }
+
+    /**
+     * No physics: nearest enemy whose bounding sphere the ray passes through,
+     * walking only the grid cells along the ray
+     */
+    private void traceEntities(Vector3f origin, Vector3f direction, float range) {
+        rayEnd.set(direction).normalizeLocal().multLocal(range).addLocal(origin);
+        Entity hit = entityManager.raycast(origin, rayEnd, 0f, Entity.EntityType.ENEMY, null, liveTarget);
+        if (hit != null) {
+            lastHitEntity = hit;
+            lastHitDistance = entityManager.getLastSegmentHitDistance();
+        }
+    }
+
+    private void bankDamage(Entity entity, float damage) {
+        for (int i = 0; i < shotTargetCount; i++) {
+            if (shotTargets[i] == entity) {
+                shotDamage[i] += damage;
+                return;
+            }
+        }
+        if (shotTargetCount == MAX_TARGETS_PER_SHOT) {
+            entity.takeDamage(damage); // More targets than slots - apply directly
+            return;
+        }
+        shotTargets[shotTargetCount] = entity;
+        shotDamage[shotTargetCount] = damage;
+        shotTargetCount++;
+    }
+
+    /**
+     * Apply the shot's damage, once per entity hit
+     * @return number of entities damaged
+     */
+    public int applyShot() {
+        int damaged = shotTargetCount;
+        for (int i = 0; i < shotTargetCount; i++) {
+            Entity target = shotTargets[i];
+            target.takeDamage(shotDamage[i]);
+            shotTargets[i] = null;
+        }
+        shotTargetCount = 0;
+        return damaged;
+    }
+
+    /**
+     * Entity hit by the last traced pellet, or null (world hit or miss)
+     */
+    public Entity getLastHitEntity() {
+        return lastHitEntity;
+    }
+
+    public float getLastHitDistance() {
+        return lastHitDistance;
+    }
+
+    // ==== STATS ====
+
+    public int getShots() { return shots; }
+    public int getPellets() { return pellets; }
+    public int getEntityHits() { return entityHits; }
+    public int getWorldHits() { return worldHits; }
+
+    public String getStatistics() {
+        return String.format("HitscanResolver: %d shots, %d pellets - %d entity hits, %d world hits, %d misses",
+                shots, pellets, entityHits, worldHits, pellets - entityHits - worldHits);
+    }
+}
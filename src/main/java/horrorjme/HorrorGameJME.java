@@ -3,6 +3,7 @@ package horrorjme;
 import com.jme3.app.SimpleApplication;
 import com.jme3.bullet.BulletAppState;
 import com.jme3.bullet.collision.PhysicsCollisionObject;
+import com.jme3.bullet.collision.PhysicsRayTestResult;
 import com.jme3.bullet.collision.shapes.CollisionShape;
 import com.jme3.bullet.collision.shapes.CapsuleCollisionShape;
 import com.jme3.bullet.control.CharacterControl;
@@ -34,7 +35,10 @@ import com.jme3.util.SkyFactory;
 import com.jme3.asset.AssetManager;
 import com.jme3.renderer.Camera;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
 
 /**
  * COMPLETE UPDATED HorrorGameJME with Timer System and Point Economy
@@ -53,9 +57,21 @@ public class HorrorGameJME extends SimpleApplication {
     private SkyboxManager skyboxManager;
     private MapManager mapManager;
 
+    // OPTIMIZATION: Reused per-frame enemy visitors (no list copies or lambda allocations)
+    private final Vector3f aiPlayerPosition = new Vector3f();
+    private final Consumer<Entity> zombieAIVisitor = this::updateEnemyAI;
+    private final Consumer<Entity> zombieCleanupVisitor = HorrorGameJME::releaseEnemy;
+
+    // Zombie sight checks against the level (scheduled by aiScheduler)
+    private final ZombieSimulation.SightTest worldSightTest = this::hasWorldLineOfSight;
+    private final Vector3f sightFrom = new Vector3f();
+    private final Vector3f sightTo = new Vector3f();
+    private final List<PhysicsRayTestResult> sightResults = new ArrayList<>();
+
     // NEW: Timer and Score systems
     private TimerSystem timerSystem;
     private ScoreSystem scoreSystem;
+    private DropSystem dropSystem;
 
     // Pickup system managers
     private PickupSpawner pickupSpawner;
@@ -68,6 +84,7 @@ public class HorrorGameJME extends SimpleApplication {
 
     // Game world
     private Spatial doomMap;
+    private final GroundHeightField groundHeightField = new GroundHeightField(); // OPTIMIZATION: Baked per map
     private DebugNoclipControl debugNoclip;
     private final ConcurrentLinkedQueue<Runnable> sceneCommands = new ConcurrentLinkedQueue<>();
 
@@ -76,12 +93,18 @@ public class HorrorGameJME extends SimpleApplication {
     private FadeFilter fadeFilter;
     private ColorOverlayFilter noiseFilter;
     private ZombieSpawner zombieSpawner;
+    private ZombieSimulation zombieSimulation; // OPTIMIZATION: Struct-of-arrays zombie AI
+    private final NavPathService navigation = new NavPathService(); // Navmesh paths, rebuilt per map
+    private final FlowField flowField = new FlowField(); // OPTIMIZATION: One shared field for the whole horde
+    private final CrowdSteering crowdSteering = new CrowdSteering(); // Zombie spacing in the AI layer
+    private final AIScheduler aiScheduler = new AIScheduler(); // OPTIMIZATION: 2 ms per frame for re-planning, sight and spawn searches
     private float noiseTimer = 0f;
 
     // Movement settings
     private static final float MAP_SCALE = 1.50f;
     private static final Vector3f PLAYER_START_POS = new Vector3f(10f, 0f, 20f);
     private static final float MOUSE_SENSITIVITY = 0.5f;
+    private static final int ZOMBIE_POOL_PREWARM = 6; // Per zombie type
 
     // Add fields for inter-round delay
     private boolean interRoundDelayActive = false;
@@ -172,13 +195,26 @@ public class HorrorGameJME extends SimpleApplication {
         skyboxManager = new SkyboxManager(assetManager, rootNode);
         zombieSpawner = new ZombieSpawner(assetManager, cam, bulletAppState, entityManager);
         zombieSpawner.setAudioManager(audioManager);
+        zombieSimulation = new ZombieSimulation();
+        zombieSpawner.setZombieSimulation(zombieSimulation);
+        zombieSimulation.setNavigation(navigation);
+        zombieSimulation.setFlowField(flowField);
+        zombieSimulation.setScheduler(aiScheduler, worldSightTest);
+        zombieSpawner.setScheduler(aiScheduler);
+        zombieSpawner.setGroundHeightField(groundHeightField);
         mapManager = new MapManager();
         // NEW: Initialize timer and score systems
         timerSystem = new TimerSystem();
         scoreSystem = new ScoreSystem();
 
+        // Kills and drops come from entity DIED events instead of polling enemy state
+        dropSystem = new DropSystem(entityManager, assetManager, audioManager);
+        entityManager.getEventBus().subscribe(EntityEventBus.EventType.DIED, scoreSystem);
+        entityManager.getEventBus().subscribe(EntityEventBus.EventType.DIED, dropSystem);
+
         // Initialize pickup system
         pickupSpawner = new PickupSpawner(assetManager, audioManager, bulletAppState);
+        pickupSpawner.setGroundHeightField(groundHeightField);
 
         try {
             audioManager.initializeHorrorSounds();
@@ -243,11 +279,17 @@ public class HorrorGameJME extends SimpleApplication {
 
             CollisionShape mapCollisionShape = CollisionShapeFactory.createMeshShape(doomMap);
             landscapeControl = new RigidBodyControl(mapCollisionShape, 0);
+            CollisionGroups.assign(landscapeControl, CollisionGroups.WORLD);
             doomMap.addControl(landscapeControl);
 
             rootNode.attachChild(doomMap);
             bulletAppState.getPhysicsSpace().add(landscapeControl);
 
+            // Sample ground heights once so zombies don't ray test the floor every frame
+            groundHeightField.bake(doomMap);
+            navigation.setNavMesh(NavMesh.build(doomMap));
+            flowField.build(groundHeightField, doomMap);
+
             System.out.println(mapToLoad.getDisplayName() + " loaded successfully.");
         } catch (Exception e) {
             System.err.println("Failed to load map: " + mapToLoad.getDisplayName());
@@ -329,11 +371,15 @@ public class HorrorGameJME extends SimpleApplication {
 
         CollisionShape mapShape = CollisionShapeFactory.createMeshShape(fallbackMap);
         landscapeControl = new RigidBodyControl(mapShape, 0);
+        CollisionGroups.assign(landscapeControl, CollisionGroups.WORLD);
         fallbackMap.addControl(landscapeControl);
 
         rootNode.attachChild(fallbackMap);
         bulletAppState.getPhysicsSpace().add(landscapeControl);
         doomMap = fallbackMap;
+        groundHeightField.bake(fallbackMap);
+        navigation.setNavMesh(NavMesh.build(fallbackMap));
+        flowField.build(groundHeightField, fallbackMap);
     }
 
     private void createSmoothPhysicsPlayer() {
@@ -344,6 +390,7 @@ public class HorrorGameJME extends SimpleApplication {
 
         CapsuleCollisionShape capsuleShape = new CapsuleCollisionShape(0.45f, 0.3f, 1);
         playerControl = new CharacterControl(capsuleShape, 0.31f);
+        CollisionGroups.assign(playerControl.getCharacter(), CollisionGroups.PLAYER);
 
         playerControl.setJumpSpeed(15);
         playerControl.setFallSpeed(25);
@@ -455,28 +502,15 @@ public class HorrorGameJME extends SimpleApplication {
     private void spawnZombiesWithDrops() {
         System.out.println("=== SPAWNING ZOMBIES ===");
 
+        // OPTIMIZATION: Build pooled zombies before the first wave (no-op while the pool is full)
+        zombieSpawner.prewarmPool(ZOMBIE_POOL_PREWARM);
+
         Vector3f playerStartPos = PLAYER_START_POS.mult(MAP_SCALE);
         zombieSpawner.spawnInitialZombies(playerStartPos);
 
         System.out.println("=== ZOMBIE SPAWNING COMPLETE ===");
     }
 
-    private void processEnemyDeaths() {
-        for (Entity entity : entityManager.getEntitiesByType(Entity.EntityType.ENEMY)) {
-            if (entity instanceof ZombieEnemy) {
-                ZombieEnemy zombie = (ZombieEnemy) entity;
-
-                if (zombie.getCurrentState() == ZombieEnemy.ZombieState.DEAD && !zombie.hasProcessedDrop()) {
-                    System.out.println("Processing death drop for zombie: " + zombie.getEntityId());
-
-                    // NEW: Create drops with score system integration
-                    DropSystem.processEnemyDeath(zombie, entityManager, assetManager, audioManager, scoreSystem);
-                    zombie.setDropProcessed(true);
-                }
-            }
-        }
-    }
-
     private void setupPostProcessing() {
         postProcessor = new FilterPostProcessor(assetManager);
 
@@ -601,13 +635,26 @@ public class HorrorGameJME extends SimpleApplication {
             rootNode.detachChild(doomMap);
             doomMap = null;
         }
+        groundHeightField.clear();
+        navigation.setNavMesh(null);
+        flowField.clear();
+        aiScheduler.clear(); // Queued spawn searches belong to this game
     
         player = null;
         inputHandler.setPlayer(null);
     
         if (entityManager != null) {
+            // clear() drops entities without onDestroy - release their AI slots, paths and bodies first
+            if (zombieSimulation != null) {
+                zombieSimulation.clear();
+                zombieSimulation.clearPlayerPosition();
+            }
+            entityManager.forEach(Entity.EntityType.ENEMY, zombieCleanupVisitor);
             entityManager.clear();
         }
+        if (zombieSpawner != null) {
+            zombieSpawner.getZombiePool().clear(); // Next game prewarms a fresh pool
+        }
     
         // NEW: Reset timer and score systems
         if (timerSystem != null) {
@@ -648,14 +695,17 @@ public class HorrorGameJME extends SimpleApplication {
             }
 
             if (entityManager != null) {
+                // Zombie AI thinks first so the entity update applies this frame's decisions
+                updateZombieAI(tpf);
+                entityManager.setLodFocus(cam.getLocation(), cam.getDirection());
                 entityManager.update(tpf);
-                updateZombieAI();
 
                 if (pickupProcessor != null) {
                     pickupProcessor.update(tpf);
                 }
 
-                processEnemyDeaths();
+                // OPTIMIZATION: Deliver this frame's lifecycle events (kills, drops, spawns)
+                entityManager.dispatchEvents();
             }
 
             // NEW: Update timer system and handle events
@@ -744,19 +794,76 @@ public class HorrorGameJME extends SimpleApplication {
         }
     }
 
-    private void updateZombieAI() {
+    private void updateZombieAI(float tpf) {
         if (player == null) return;
 
-        for (Entity entity : entityManager.getEntitiesByType(Entity.EntityType.ENEMY)) {
-            if (entity instanceof ZombieEnemy) {
-                ZombieEnemy zombie = (ZombieEnemy) entity;
-                zombie.setPlayerPosition(player.getPosition());
-                zombie.setPlayer(player);
-            } else if (entity instanceof SimpleEnemy) {
-                SimpleEnemy enemy = (SimpleEnemy) entity;
-                enemy.setPlayerPosition(player.getPosition());
-                enemy.setPlayer(player);
+        // OPTIMIZATION: One player position copy per frame, no enemy list copy
+        aiPlayerPosition.set(player.getPosition());
+
+        // Expensive AI work shares one frame budget: the flow field (shared by everyone)
+        // first, then path searches, per-zombie re-planning and sight checks, then spawns
+        aiScheduler.beginFrame();
+        flowField.update(aiPlayerPosition.x, aiPlayerPosition.y, aiPlayerPosition.z,
+                aiScheduler.getDeadlineNanos()); // Re-integrates on a cell change
+        navigation.update(tpf, aiScheduler.getDeadlineNanos()); // Time-sliced path searches (or worker results)
+        entityManager.forEach(Entity.EntityType.ENEMY, zombieAIVisitor);
+
+        // Think step for simulated zombies - one pass over primitive arrays
+        if (zombieSimulation != null) {
+            zombieSimulation.setPlayerPosition(aiPlayerPosition.x, aiPlayerPosition.y, aiPlayerPosition.z);
+            zombieSimulation.think(tpf);
+        }
+        aiScheduler.runQueued();
+        aiScheduler.endFrame();
+
+        // Batched neighbour pass over the spatial grid, applied when zombies set velocity
+        crowdSteering.update(entityManager);
+    }
+
+    /**
+     * Whether a zombie at (from) can see the player at (to) - only level geometry blocks
+     */
+    private boolean hasWorldLineOfSight(float fromX, float fromY, float fromZ, float toX, float toY, float toZ) {
+        if (bulletAppState == null || bulletAppState.getPhysicsSpace() == null) return true;
+
+        sightFrom.set(fromX, fromY + 1f, fromZ); // Zombie eye height
+        sightTo.set(toX, toY, toZ);
+        sightResults.clear();
+        bulletAppState.getPhysicsSpace().rayTest(sightFrom, sightTo, sightResults);
+
+        boolean clear = true;
+        for (int i = 0; i < sightResults.size() && clear; i++) {
+            clear = !CollisionGroups.isWorld(sightResults.get(i).getCollisionObject());
+        }
+        sightResults.clear(); // Don't hold on to bodies between checks
+        return clear;
+    }
+
+    /**
+     * Free a zombie dropped by EntityManager.clear() - no DESTROYED event means the
+     * pool never takes it back, so its body, animator and path go now
+     */
+    private static void releaseEnemy(Entity entity) {
+        if (entity instanceof ZombieEnemy) {
+            ZombieEnemy zombie = (ZombieEnemy) entity;
+            zombie.setKeepResourcesOnDestroy(false);
+            zombie.onDestroy();
+        }
+    }
+
+    private void updateEnemyAI(Entity entity) {
+        if (entity instanceof ZombieEnemy) {
+            ZombieEnemy zombie = (ZombieEnemy) entity;
+            zombie.setPlayer(player);
+            zombie.setNavigation(navigation);
+            zombie.setFlowField(flowField);
+            if (!zombie.isSimulated()) { // Simulated zombies read it from the simulation
+                zombie.setPlayerPosition(aiPlayerPosition);
             }
+        } else if (entity instanceof SimpleEnemy) {
+            SimpleEnemy enemy = (SimpleEnemy) entity;
+            enemy.setPlayerPosition(aiPlayerPosition);
+            enemy.setPlayer(player);
         }
     }
 
@@ -775,6 +882,11 @@ public class HorrorGameJME extends SimpleApplication {
         if (audioManager != null) {
             audioManager.cleanup();
         }
+        if (zombieSimulation != null) {
+            zombieSimulation.clear();
+            zombieSimulation.shutdown();
+        }
+        navigation.shutdown();
         if (entityManager != null) {
             entityManager.clear();
         }
@@ -785,6 +897,12 @@ public class HorrorGameJME extends SimpleApplication {
     // Public getters for debugging
     public Player getPlayer() { return player; }
     public EntityManager getEntityManager() { return entityManager; }
+    public ZombieSimulation getZombieSimulation() { return zombieSimulation; }
+    public GroundHeightField getGroundHeightField() { return groundHeightField; }
+    public NavPathService getNavigation() { return navigation; }
+    public FlowField getFlowField() { return flowField; }
+    public CrowdSteering getCrowdSteering() { return crowdSteering; }
+    public AIScheduler getAIScheduler() { return aiScheduler; }
     public TimerSystem getTimerSystem() { return timerSystem; }
     public ScoreSystem getScoreSystem() { return scoreSystem; }
     public PickupSpawner getPickupSpawner() { return pickupSpawner; }
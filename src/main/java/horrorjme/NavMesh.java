@@ -0,0 +1,676 @@
+package horrorjme;
+
+import com.jme3.math.FastMath;
+import com.jme3.math.Matrix4f;
+import com.jme3.math.Vector3f;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.mesh.IndexBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Navigation mesh built from the walkable triangles of the loaded map.
+ *
+ * Every map triangle flatter than MAX_SLOPE (in world space, so after MAP_SCALE) is a
+ * navigation polygon. Vertices are welded by position so triangles from different
+ * mesh parts that share an edge become neighbours; the shared edge is the portal
+ * between them. Triangles are bucketed on an XZ grid for point lookup.
+ *
+ * The mesh is immutable once built. Searches keep their scratch in a Search object,
+ * so one mesh can serve the render thread and a path worker thread at the same time.
+ */
+public class NavMesh {
+
+    private static final float MAX_SLOPE_NORMAL_Y = FastMath.cos(45f * FastMath.DEG_TO_RAD);
+    private static final float WELD_PRECISION = 0.01f;   // Vertices closer than this are one vertex
+    private static final float BUCKET_SIZE = 4f;
+    private static final float MAX_STEP_UP = 1.0f;        // Floors above this are not "under" a point
+    private static final float FUNNEL_EPSILON = 1e-6f;
+
+    // Welded vertices
+    private final float[] vx, vy, vz;
+
+    // Triangles: vertex indices, centroids, neighbours across edge (v0v1, v1v2, v2v0) or -1
+    private final int[] triVerts;
+    private final int[] neighbours;
+    private final float[] cx, cy, cz;
+    private final int triangleCount;
+
+    // XZ buckets of triangle indices
+    private final float originX, originZ;
+    private final int bucketsX, bucketsZ;
+    private final int[] bucketStart;   // bucketsX * bucketsZ + 1 offsets into bucketTris
+    private final int[] bucketTris;
+
+    private NavMesh(float[] vx, float[] vy, float[] vz, int[] triVerts) {
+        this.vx = vx;
+        this.vy = vy;
+        this.vz = vz;
+        this.triVerts = triVerts;
+        this.triangleCount = triVerts.length / 3;
+
+        cx = new float[triangleCount];
+        cy = new float[triangleCount];
+        cz = new float[triangleCount];
+        for (int t = 0; t < triangleCount; t++) {
+            int a = triVerts[t * 3], b = triVerts[t * 3 + 1], c = triVerts[t * 3 + 2];
+            cx[t] = (vx[a] + vx[b] + vx[c]) / 3f;
+            cy[t] = (vy[a] + vy[b] + vy[c]) / 3f;
+            cz[t] = (vz[a] + vz[b] + vz[c]) / 3f;
+        }
+
+        neighbours = new int[triangleCount * 3];
+        linkNeighbours();
+
+        // Bucket grid over the triangles' XZ extent
+        float minX = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < vx.length; i++) {
+            minX = Math.min(minX, vx[i]);
+            minZ = Math.min(minZ, vz[i]);
+            maxX = Math.max(maxX, vx[i]);
+            maxZ = Math.max(maxZ, vz[i]);
+        }
+        if (triangleCount == 0) {
+            minX = minZ = maxX = maxZ = 0f;
+        }
+        originX = minX;
+        originZ = minZ;
+        bucketsX = (int) ((maxX - minX) / BUCKET_SIZE) + 1;
+        bucketsZ = (int) ((maxZ - minZ) / BUCKET_SIZE) + 1;
+        bucketStart = new int[bucketsX * bucketsZ + 1];
+        bucketTris = fillBuckets();
+    }
+
+    /**
+     * Build from a map spatial (already scaled and attached)
+     */
+    public static NavMesh build(Spatial map) {
+        long start = System.currentTimeMillis();
+        map.updateGeometricState();
+
+        List<Geometry> geometries = new ArrayList<>();
+        map.depthFirstTraversal(spatial -> {
+            if (spatial instanceof Geometry) {
+                geometries.add((Geometry) spatial);
+            }
+        });
+
+        Map<Long, Integer> weld = new HashMap<>();
+        float[] positions = new float[3 * 1024];
+        int vertexCount = 0;
+        int[] tris = new int[3 * 1024];
+        int triCount = 0;
+
+        Vector3f a = new Vector3f(), b = new Vector3f(), c = new Vector3f();
+        Vector3f edge1 = new Vector3f(), edge2 = new Vector3f(), normal = new Vector3f();
+        int[] welded = new int[3];
+
+        for (Geometry geometry : geometries) {
+            Mesh mesh = geometry.getMesh();
+            if (mesh == null || mesh.getMode() != Mesh.Mode.Triangles) continue;
+            VertexBuffer positionBuffer = mesh.getBuffer(VertexBuffer.Type.Position);
+            if (positionBuffer == null) continue;
+
+            FloatBuffer meshPositions = (FloatBuffer) positionBuffer.getData();
+            IndexBuffer indices = mesh.getIndicesAsList();
+            Matrix4f world = geometry.getWorldMatrix();
+
+            for (int i = 0; i + 2 < indices.size(); i += 3) {
+                readVertex(meshPositions, indices.get(i), world, a);
+                readVertex(meshPositions, indices.get(i + 1), world, b);
+                readVertex(meshPositions, indices.get(i + 2), world, c);
+
+                edge1.set(b).subtractLocal(a);
+                edge2.set(c).subtractLocal(a);
+                edge1.cross(edge2, normal);
+                float length = normal.length();
+                if (length < 1e-6f) continue; // Degenerate
+                // Winding varies between exports - either face up or down is a floor
+                if (Math.abs(normal.y) / length < MAX_SLOPE_NORMAL_Y) continue;
+
+                Vector3f[] corners = {a, b, c};
+                for (int k = 0; k < 3; k++) {
+                    long key = weldKey(corners[k]);
+                    Integer index = weld.get(key);
+                    if (index == null) {
+                        if (vertexCount * 3 == positions.length) {
+                            positions = Arrays.copyOf(positions, positions.length * 2);
+                        }
+                        positions[vertexCount * 3] = corners[k].x;
+                        positions[vertexCount * 3 + 1] = corners[k].y;
+                        positions[vertexCount * 3 + 2] = corners[k].z;
+                        index = vertexCount++;
+                        weld.put(key, index);
+                    }
+                    welded[k] = index;
+                }
+                if (welded[0] == welded[1] || welded[1] == welded[2] || welded[2] == welded[0]) continue;
+
+                if (triCount * 3 == tris.length) {
+                    tris = Arrays.copyOf(tris, tris.length * 2);
+                }
+                tris[triCount * 3] = welded[0];
+                tris[triCount * 3 + 1] = welded[1];
+                tris[triCount * 3 + 2] = welded[2];
+                triCount++;
+            }
+        }
+
+        float[] xs = new float[vertexCount], ys = new float[vertexCount], zs = new float[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            xs[i] = positions[i * 3];
+            ys[i] = positions[i * 3 + 1];
+            zs[i] = positions[i * 3 + 2];
+        }
+        NavMesh navMesh = new NavMesh(xs, ys, zs, Arrays.copyOf(tris, triCount * 3));
+
+        System.out.println(String.format("NavMesh: %d walkable polygons, %d vertices from %d geometries in %d ms",
+                triCount, vertexCount, geometries.size(), System.currentTimeMillis() - start));
+        return navMesh;
+    }
+
+    private static void readVertex(FloatBuffer positions, int index, Matrix4f world, Vector3f store) {
+        store.set(positions.get(index * 3), positions.get(index * 3 + 1), positions.get(index * 3 + 2));
+        world.mult(store, store);
+    }
+
+    private static long weldKey(Vector3f v) {
+        long x = Math.round(v.x / WELD_PRECISION) & 0x1FFFFF;
+        long y = Math.round(v.y / WELD_PRECISION) & 0x1FFFFF;
+        long z = Math.round(v.z / WELD_PRECISION) & 0x1FFFFF;
+        return (x << 42) | (y << 21) | z;
+    }
+
+    private void linkNeighbours() {
+        Arrays.fill(neighbours, -1);
+        Map<Long, Integer> openEdges = new HashMap<>(triangleCount * 2);
+
+        for (int t = 0; t < triangleCount; t++) {
+            for (int e = 0; e < 3; e++) {
+                int v0 = triVerts[t * 3 + e];
+                int v1 = triVerts[t * 3 + (e + 1) % 3];
+                long key = ((long) Math.min(v0, v1) << 32) | Math.max(v0, v1);
+
+                Integer other = openEdges.remove(key);
+                if (other == null) {
+                    openEdges.put(key, t * 3 + e);
+                } else {
+                    // Edges shared by more than two triangles link the first pair only
+                    neighbours[t * 3 + e] = other / 3;
+                    neighbours[other] = t;
+                }
+            }
+        }
+    }
+
+    private int[] fillBuckets() {
+        // Count, then fill: each triangle goes into every bucket its XZ bounds touch
+        int[] counts = new int[bucketsX * bucketsZ];
+        for (int pass = 0; pass < 2; pass++) {
+            int[] cursor = pass == 0 ? counts : Arrays.copyOf(bucketStart, bucketStart.length - 1);
+            int[] tris = pass == 0 ? null : new int[bucketStart[bucketStart.length - 1]];
+
+            for (int t = 0; t < triangleCount; t++) {
+                int a = triVerts[t * 3], b = triVerts[t * 3 + 1], c = triVerts[t * 3 + 2];
+                int bx0 = bucketX(Math.min(vx[a], Math.min(vx[b], vx[c])));
+                int bx1 = bucketX(Math.max(vx[a], Math.max(vx[b], vx[c])));
+                int bz0 = bucketZ(Math.min(vz[a], Math.min(vz[b], vz[c])));
+                int bz1 = bucketZ(Math.max(vz[a], Math.max(vz[b], vz[c])));
+                for (int bz = bz0; bz <= bz1; bz++) {
+                    for (int bx = bx0; bx <= bx1; bx++) {
+                        int bucket = bz * bucketsX + bx;
+                        if (pass == 0) {
+                            counts[bucket]++;
+                        } else {
+                            tris[cursor[bucket]++] = t;
+                        }
+                    }
+                }
+            }
+
+            if (pass == 0) {
+                for (int i = 0; i < counts.length; i++) {
+                    bucketStart[i + 1] = bucketStart[i] + counts[i];
+                }
+            } else {
+                return tris;
+            }
+        }
+        return null; // Unreachable
+    }
+
+    private int bucketX(float x) {
+        return Math.max(0, Math.min(bucketsX - 1, (int) ((x - originX) / BUCKET_SIZE)));
+    }
+
+    private int bucketZ(float z) {
+        return Math.max(0, Math.min(bucketsZ - 1, (int) ((z - originZ) / BUCKET_SIZE)));
+    }
+
+    // ==== POINT LOOKUP ====
+
+    /**
+     * Polygon under a point: the highest one containing (x, z) that isn't more than a
+     * step above y. Off the mesh, the polygon with the nearest centroid in the
+     * surrounding buckets.
+     * @return polygon index, or -1 if there is none nearby
+     */
+    public int findPolygon(float x, float y, float z) {
+        if (triangleCount == 0) return -1;
+
+        int bx = bucketX(x);
+        int bz = bucketZ(z);
+        int best = -1;
+        float bestHeight = Float.NEGATIVE_INFINITY;
+
+        int bucket = bz * bucketsX + bx;
+        for (int i = bucketStart[bucket]; i < bucketStart[bucket + 1]; i++) {
+            int t = bucketTris[i];
+            float height = heightInTriangle(t, x, z);
+            if (Float.isNaN(height) || height > y + MAX_STEP_UP) continue;
+            if (height > bestHeight) {
+                bestHeight = height;
+                best = t;
+            }
+        }
+        if (best >= 0) return best;
+
+        // Off the mesh (standing on an edge, under a ledge) - nearest centroid nearby
+        float bestDistance = Float.POSITIVE_INFINITY;
+        for (int nz = Math.max(0, bz - 1); nz <= Math.min(bucketsZ - 1, bz + 1); nz++) {
+            for (int nx = Math.max(0, bx - 1); nx <= Math.min(bucketsX - 1, bx + 1); nx++) {
+                int b = nz * bucketsX + nx;
+                for (int i = bucketStart[b]; i < bucketStart[b + 1]; i++) {
+                    int t = bucketTris[i];
+                    float dx = cx[t] - x, dy = (cy[t] - y) * 2f, dz = cz[t] - z; // Prefer the same floor
+                    float distance = dx * dx + dy * dy + dz * dz;
+                    if (distance < bestDistance) {
+                        bestDistance = distance;
+                        best = t;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Height of triangle t at (x, z), or NaN if (x, z) is outside it
+     */
+    private float heightInTriangle(int t, float x, float z) {
+        int a = triVerts[t * 3], b = triVerts[t * 3 + 1], c = triVerts[t * 3 + 2];
+        float v0x = vx[b] - vx[a], v0z = vz[b] - vz[a];
+        float v1x = vx[c] - vx[a], v1z = vz[c] - vz[a];
+        float v2x = x - vx[a], v2z = z - vz[a];
+
+        float denominator = v0x * v1z - v1x * v0z;
+        if (Math.abs(denominator) < 1e-8f) return Float.NaN;
+        float u = (v2x * v1z - v1x * v2z) / denominator;
+        float v = (v0x * v2z - v2x * v0z) / denominator;
+        if (u < -1e-4f || v < -1e-4f || u + v > 1f + 1e-4f) return Float.NaN;
+
+        return vy[a] + u * (vy[b] - vy[a]) + v * (vy[c] - vy[a]);
+    }
+
+    // ==== SEARCH ====
+
+    public Search newSearch() {
+        return new Search();
+    }
+
+    /**
+     * Resumable A* over polygons. One per thread; begin() then step() until it isn't RUNNING.
+     */
+    public final class Search {
+        public static final int RUNNING = 0;
+        public static final int FOUND = 1;
+        public static final int FAILED = 2;
+
+        private final float[] g = new float[triangleCount];
+        private final int[] parent = new int[triangleCount];
+        private final int[] stamp = new int[triangleCount];   // Visited this search
+        private final boolean[] closed = new boolean[triangleCount];
+        private final int[] heapIndex = new int[triangleCount];
+        private int currentStamp;
+
+        // Binary min-heap on f = g + h
+        private int[] heap = new int[64];
+        private float[] heapF = new float[64];
+        private int heapSize;
+
+        private int startPoly;
+        private int goalPoly;
+        private float goalX, goalY, goalZ;
+        private int status = FAILED;
+        private int expansions;
+
+        public void begin(int startPoly, int goalPoly, float goalX, float goalY, float goalZ) {
+            this.startPoly = startPoly;
+            this.goalPoly = goalPoly;
+            this.goalX = goalX;
+            this.goalY = goalY;
+            this.goalZ = goalZ;
+            expansions = 0;
+            heapSize = 0;
+
+            if (startPoly < 0 || goalPoly < 0) {
+                status = FAILED;
+                return;
+            }
+            status = RUNNING;
+
+            if (++currentStamp == Integer.MAX_VALUE) {
+                Arrays.fill(stamp, 0);
+                currentStamp = 1;
+            }
+            visit(startPoly, -1, 0f);
+        }
+
+        /**
+         * Expand up to maxExpansions polygons
+         * @return RUNNING, FOUND or FAILED
+         */
+        public int step(int maxExpansions) {
+            for (int n = 0; n < maxExpansions && status == RUNNING; n++) {
+                if (heapSize == 0) {
+                    status = FAILED;
+                    break;
+                }
+                int current = pop();
+                if (current == goalPoly) {
+                    status = FOUND;
+                    break;
+                }
+                closed[current] = true;
+                expansions++;
+
+                for (int e = 0; e < 3; e++) {
+                    int next = neighbours[current * 3 + e];
+                    if (next < 0 || (stamp[next] == currentStamp && closed[next])) continue;
+
+                    float dx = cx[next] - cx[current], dy = cy[next] - cy[current], dz = cz[next] - cz[current];
+                    float cost = g[current] + (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+                    if (stamp[next] != currentStamp) {
+                        visit(next, current, cost);
+                    } else if (cost < g[next]) {
+                        g[next] = cost;
+                        parent[next] = current;
+                        decreaseKey(next, cost + heuristic(next));
+                    }
+                }
+            }
+            return status;
+        }
+
+        private void visit(int poly, int from, float cost) {
+            stamp[poly] = currentStamp;
+            closed[poly] = false;
+            g[poly] = cost;
+            parent[poly] = from;
+            push(poly, cost + heuristic(poly));
+        }
+
+        private float heuristic(int poly) {
+            float dx = goalX - cx[poly], dy = goalY - cy[poly], dz = goalZ - cz[poly];
+            return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        /**
+         * Polygons from start to goal (after FOUND)
+         */
+        public int[] getCorridor() {
+            if (status != FOUND) return null;
+            int length = 0;
+            for (int p = goalPoly; p >= 0; p = parent[p]) {
+                length++;
+            }
+            int[] corridor = new int[length];
+            for (int p = goalPoly, i = length - 1; p >= 0; p = parent[p], i--) {
+                corridor[i] = p;
+            }
+            return corridor;
+        }
+
+        public int getStatus() { return status; }
+        public int getExpansions() { return expansions; }
+        public int getStartPoly() { return startPoly; }
+        public int getGoalPoly() { return goalPoly; }
+
+        private void push(int poly, float f) {
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heapSize * 2);
+                heapF = Arrays.copyOf(heapF, heapSize * 2);
+            }
+            heap[heapSize] = poly;
+            heapF[heapSize] = f;
+            heapIndex[poly] = heapSize;
+            siftUp(heapSize++);
+        }
+
+        private int pop() {
+            int top = heap[0];
+            heapIndex[top] = -1;
+            heapSize--;
+            if (heapSize > 0) {
+                heap[0] = heap[heapSize];
+                heapF[0] = heapF[heapSize];
+                heapIndex[heap[0]] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void decreaseKey(int poly, float f) {
+            int i = heapIndex[poly];
+            if (i < 0) {
+                push(poly, f); // Already popped (inconsistent heuristic) - reopen
+                closed[poly] = false;
+                return;
+            }
+            heapF[i] = f;
+            siftUp(i);
+        }
+
+        private void siftUp(int i) {
+            int poly = heap[i];
+            float f = heapF[i];
+            while (i > 0) {
+                int up = (i - 1) >>> 1;
+                if (heapF[up] <= f) break;
+                heap[i] = heap[up];
+                heapF[i] = heapF[up];
+                heapIndex[heap[i]] = i;
+                i = up;
+            }
+            heap[i] = poly;
+            heapF[i] = f;
+            heapIndex[poly] = i;
+        }
+
+        private void siftDown(int i) {
+            int poly = heap[i];
+            float f = heapF[i];
+            int half = heapSize >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < heapSize && heapF[child + 1] < heapF[child]) child++;
+                if (heapF[child] >= f) break;
+                heap[i] = heap[child];
+                heapF[i] = heapF[child];
+                heapIndex[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = poly;
+            heapF[i] = f;
+            heapIndex[poly] = i;
+        }
+    }
+
+    // ==== FUNNEL ====
+
+    /**
+     * String-pull a polygon corridor into corner waypoints (simple stupid funnel).
+     * @param out receives x, y, z triples, ending with the goal
+     * @return number of waypoints written
+     */
+    public int smoothPath(int[] corridor, float startX, float startY, float startZ,
+                          float goalX, float goalY, float goalZ, float[] out) {
+        int maxPoints = out.length / 3;
+        int portalCount = corridor.length + 1;
+
+        // Portals as left/right points relative to the direction of travel.
+        // The first and last portals are degenerate: the start and goal points.
+        float[] left = new float[portalCount * 3];
+        float[] right = new float[portalCount * 3];
+        setPoint(left, 0, startX, startY, startZ);
+        setPoint(right, 0, startX, startY, startZ);
+        for (int i = 0; i + 1 < corridor.length; i++) {
+            writePortal(corridor[i], corridor[i + 1], left, right, i + 1);
+        }
+        setPoint(left, portalCount - 1, goalX, goalY, goalZ);
+        setPoint(right, portalCount - 1, goalX, goalY, goalZ);
+
+        int count = 0;
+        float apexX = startX, apexZ = startZ;
+        float leftX = startX, leftZ = startZ, rightX = startX, rightZ = startZ;
+        int apexIndex = 0, leftIndex = 0, rightIndex = 0;
+
+        for (int i = 1; i < portalCount && count < maxPoints - 1; i++) {
+            float lx = left[i * 3], lz = left[i * 3 + 2];
+            float rx = right[i * 3], rz = right[i * 3 + 2];
+
+            // Right side: tighten if the new point is inside the funnel
+            if (side(apexX, apexZ, rightX, rightZ, rx, rz) >= 0f) {
+                if (samePoint(apexX, apexZ, rightX, rightZ) || side(apexX, apexZ, leftX, leftZ, rx, rz) < 0f) {
+                    rightX = rx;
+                    rightZ = rz;
+                    rightIndex = i;
+                } else {
+                    // Crossed the left side - left point is a corner
+                    count = emit(out, count, left, leftIndex);
+                    apexX = leftX;
+                    apexZ = leftZ;
+                    apexIndex = leftIndex;
+                    rightX = leftX = apexX;
+                    rightZ = leftZ = apexZ;
+                    rightIndex = leftIndex = apexIndex;
+                    i = apexIndex;
+                    continue;
+                }
+            }
+
+            // Left side, mirrored
+            if (side(apexX, apexZ, leftX, leftZ, lx, lz) <= 0f) {
+                if (samePoint(apexX, apexZ, leftX, leftZ) || side(apexX, apexZ, rightX, rightZ, lx, lz) > 0f) {
+                    leftX = lx;
+                    leftZ = lz;
+                    leftIndex = i;
+                } else {
+                    count = emit(out, count, right, rightIndex);
+                    apexX = rightX;
+                    apexZ = rightZ;
+                    apexIndex = rightIndex;
+                    rightX = leftX = apexX;
+                    rightZ = leftZ = apexZ;
+                    rightIndex = leftIndex = apexIndex;
+                    i = apexIndex;
+                }
+            }
+        }
+
+        // Goal (unless the funnel already ended on it)
+        if (count > 0 && samePoint(out[(count - 1) * 3], out[(count - 1) * 3 + 2], goalX, goalZ)) {
+            count--;
+        }
+        out[count * 3] = goalX;
+        out[count * 3 + 1] = goalY;
+        out[count * 3 + 2] = goalZ;
+        return count + 1;
+    }
+
+    /**
+     * Shared edge of two neighbouring polygons, split into left and right of travel
+     */
+    private void writePortal(int from, int to, float[] left, float[] right, int index) {
+        int edge = 0;
+        for (int e = 0; e < 3; e++) {
+            if (neighbours[from * 3 + e] == to) {
+                edge = e;
+                break;
+            }
+        }
+        int a = triVerts[from * 3 + edge];
+        int b = triVerts[from * 3 + (edge + 1) % 3];
+
+        // Leaving through edge a->b: if the triangle's third vertex is on the left of
+        // a->b, b is on the left of the direction of travel
+        int c = triVerts[from * 3 + (edge + 2) % 3];
+        if (side(vx[a], vz[a], vx[b], vz[b], vx[c], vz[c]) > 0f) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        setPoint(left, index, vx[a], vy[a], vz[a]);
+        setPoint(right, index, vx[b], vy[b], vz[b]);
+    }
+
+    /**
+     * Positive when (px, pz) is left of the line from a to b (same convention as portals)
+     */
+    private static float side(float ax, float az, float bx, float bz, float px, float pz) {
+        return (bx - ax) * (pz - az) - (bz - az) * (px - ax);
+    }
+
+    private static boolean samePoint(float ax, float az, float bx, float bz) {
+        float dx = ax - bx, dz = az - bz;
+        return dx * dx + dz * dz < FUNNEL_EPSILON;
+    }
+
+    private static int emit(float[] out, int count, float[] points, int index) {
+        // Skip duplicates (funnel restarts on a shared corner)
+        if (count > 0 && samePoint(out[(count - 1) * 3], out[(count - 1) * 3 + 2], points[index * 3], points[index * 3 + 2])) {
+            return count;
+        }
+        out[count * 3] = points[index * 3];
+        out[count * 3 + 1] = points[index * 3 + 1];
+        out[count * 3 + 2] = points[index * 3 + 2];
+        return count + 1;
+    }
+
+    private static void setPoint(float[] points, int index, float x, float y, float z) {
+        points[index * 3] = x;
+        points[index * 3 + 1] = y;
+        points[index * 3 + 2] = z;
+    }
+
+    // ==== INFO ====
+
+    public int getPolygonCount() {
+        return triangleCount;
+    }
+
+    public boolean isEmpty() {
+        return triangleCount == 0;
+    }
+
+    public float getCentroidX(int poly) { return cx[poly]; }
+    public float getCentroidY(int poly) { return cy[poly]; }
+    public float getCentroidZ(int poly) { return cz[poly]; }
+
+    public String getStatistics() {
+        int links = 0;
+        for (int neighbour : neighbours) {
+            if (neighbour >= 0) links++;
+        }
+        return String.format("NavMesh: %d polygons, %d vertices, %d portals, %dx%d buckets",
+                triangleCount, vx.length, links / 2, bucketsX, bucketsZ);
+    }
+}
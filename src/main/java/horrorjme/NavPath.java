@@ -0,0 +1,91 @@
+package horrorjme;
+
+/**
+ * One agent's path: smoothed waypoints from NavPathService plus the follow cursor.
+ *
+ * Only touched on the render thread (results from a worker thread are published in
+ * NavPathService.update()), and each agent owns its own path, so a parallel think
+ * step can follow many paths at once.
+ */
+public class NavPath {
+
+    public enum Status {
+        NONE,       // Never requested (or cancelled)
+        PENDING,    // Queued or being searched
+        READY,      // Waypoints valid
+        FAILED      // No route - steer straight at the target
+    }
+
+    public static final int MAX_WAYPOINTS = 32;
+
+    // Follow policy shared by every agent
+    public static final float DIRECT_CHASE_DISTANCE = 4f;  // Closer than this, skip the path
+    private static final float ARRIVE_RADIUS = 0.75f;
+    private static final float REPLAN_DISTANCE = 3f;       // Target moved this far from the planned goal
+    private static final float REPLAN_INTERVAL = 2f;       // Seconds before a path is re-planned anyway
+
+    // Waypoints (x, y, z triples), the last one is the goal
+    final float[] points = new float[MAX_WAYPOINTS * 3];
+    int count;
+    int next;
+
+    Status status = Status.NONE;
+    int requestId;             // Bumped per request/cancel - stale results are dropped
+    boolean queued;            // In the service's main-thread queue
+
+    // Endpoints of the latest request
+    float fromX, fromY, fromZ;
+    float goalX, goalY, goalZ;
+    float requestTime;
+
+    // Last steer() result
+    private float steerX, steerZ;
+
+    /**
+     * Steer toward the next waypoint, advancing past reached ones. The direction (XZ,
+     * normalized) is kept in this path - see getSteerX/Z.
+     * @return false if there is nothing to follow (not ready or finished)
+     */
+    public boolean steer(float x, float z) {
+        if (status != Status.READY) return false;
+
+        while (next < count) {
+            float dx = points[next * 3] - x;
+            float dz = points[next * 3 + 2] - z;
+            float distanceSquared = dx * dx + dz * dz;
+            if (distanceSquared > ARRIVE_RADIUS * ARRIVE_RADIUS || next == count - 1) {
+                if (distanceSquared < 1e-6f) return false;
+                float inverse = 1f / (float) Math.sqrt(distanceSquared);
+                steerX = dx * inverse;
+                steerZ = dz * inverse;
+                return true;
+            }
+            next++;
+        }
+        return false;
+    }
+
+    /**
+     * Whether a new request is due: never planned, the target moved away from the
+     * planned goal, or the plan is old
+     */
+    public boolean needsReplan(float targetX, float targetZ, float now) {
+        if (status == Status.PENDING) return false;
+        if (status == Status.NONE) return true;
+
+        float dx = targetX - goalX, dz = targetZ - goalZ;
+        return dx * dx + dz * dz > REPLAN_DISTANCE * REPLAN_DISTANCE || now - requestTime > REPLAN_INTERVAL;
+    }
+
+    public float getSteerX() { return steerX; }
+    public float getSteerZ() { return steerZ; }
+
+    public Status getStatus() { return status; }
+    public boolean isReady() { return status == Status.READY; }
+    public int getWaypointCount() { return count; }
+    public int getNextWaypoint() { return next; }
+
+    public float getWaypointX(int i) { return points[i * 3]; }
+    public float getWaypointY(int i) { return points[i * 3 + 1]; }
+    public float getWaypointZ(int i) { return points[i * 3 + 2]; }
+}
@@ -0,0 +1,462 @@
+package horrorjme;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Path requests over the current NavMesh, spread across frames.
+ *
+ * Agents call requestPath() with their own NavPath; update() then runs A* within a
+ * time budget per frame, resuming a search where the last frame left off, and writes
+ * the smoothed waypoints into the path. Polygon corridors are cached by (start
+ * polygon, goal polygon), so zombies coming from the same area toward the player
+ * share one search; only the cheap funnel pass runs per agent.
+ *
+ * With setAsync(true) searches run on a daemon worker thread instead. The mesh is
+ * immutable and the worker has its own Search scratch; results are handed back and
+ * published to NavPaths in update(), so paths are still only written on the render
+ * thread.
+ */
+public class NavPathService {
+
+    private static final int CORRIDOR_CACHE_SIZE = 256;
+    private static final int EXPANSIONS_PER_SLICE = 64;    // A* steps between budget checks
+    private static final float DEFAULT_BUDGET_MS = 1.0f;
+
+    private NavMesh navMesh;
+    private NavMesh.Search search;                         // Render-thread search
+
+    private final ArrayDeque<NavPath> queue = new ArrayDeque<>();
+    private NavPath activePath;                            // Search in progress across frames
+    private int activeRequestId;
+    private final float[] smoothScratch = new float[NavPath.MAX_WAYPOINTS * 3];
+
+    // Corridor cache, least recently used evicted. Shared with the worker thread.
+    private final Map<Long, int[]> corridorCache = new LinkedHashMap<Long, int[]>(CORRIDOR_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+            return size() > CORRIDOR_CACHE_SIZE;
+        }
+    };
+
+    // Async mode
+    private boolean async;
+    private Worker worker;
+    private final ConcurrentLinkedQueue<Result> results = new ConcurrentLinkedQueue<>();
+
+    private float budgetMs = DEFAULT_BUDGET_MS;
+    private float time;
+
+    // Stats
+    private int requests;
+    private int completed;
+    private int failed;
+    private int cacheHits;
+    private int slicedFrames;     // Frames that ended with a search still running
+    private long totalExpansions;
+
+    /**
+     * Use a new mesh (map loaded). Pending requests and cached corridors are dropped.
+     */
+    public void setNavMesh(NavMesh navMesh) {
+        clear();
+        this.navMesh = navMesh;
+        this.search = navMesh != null ? navMesh.newSearch() : null;
+        if (worker != null) {
+            worker.setNavMesh(navMesh);
+        }
+    }
+
+    public NavMesh getNavMesh() {
+        return navMesh;
+    }
+
+    public boolean hasNavMesh() {
+        return navMesh != null && !navMesh.isEmpty();
+    }
+
+    /**
+     * Ask for a path. A request for a path that is already pending replaces its endpoints.
+     */
+    public void requestPath(NavPath path, float fromX, float fromY, float fromZ,
+                            float goalX, float goalY, float goalZ) {
+        if (!hasNavMesh()) {
+            path.status = NavPath.Status.FAILED;
+            return;
+        }
+        requests++;
+        path.fromX = fromX;
+        path.fromY = fromY;
+        path.fromZ = fromZ;
+        path.goalX = goalX;
+        path.goalY = goalY;
+        path.goalZ = goalZ;
+        path.requestTime = time;
+        path.requestId++;
+        path.status = NavPath.Status.PENDING;
+
+        if (async) {
+            worker.submit(new Job(path, path.requestId, fromX, fromY, fromZ, goalX, goalY, goalZ));
+        } else if (!path.queued) {
+            path.queued = true;
+            queue.add(path);
+        }
+    }
+
+    /**
+     * Drop a path's request (agent going away)
+     */
+    public void cancel(NavPath path) {
+        if (path.queued) {
+            queue.remove(path);
+            path.queued = false;
+        }
+        if (path == activePath) {
+            activePath = null;
+        }
+        path.requestId++;
+        path.status = NavPath.Status.NONE;
+        path.count = 0;
+        path.next = 0;
+    }
+
+    /**
+     * Once per frame on the render thread: publish worker results, or search within
+     * the frame budget
+     */
+    public void update(float tpf) {
+        update(tpf, System.nanoTime() + (long) (budgetMs * 1_000_000L));
+    }
+
+    /**
+     * Same as update(tpf), but search until a shared deadline (AIScheduler) instead of
+     * this service's own budget
+     */
+    public void update(float tpf, long deadline) {
+        time += tpf;
+        if (async) {
+            publishResults();
+            return;
+        }
+        if (search == null) return;
+
+        while (System.nanoTime() < deadline) {
+            if (activePath == null && !startNext()) return;
+
+            int status = search.step(EXPANSIONS_PER_SLICE);
+            if (status == NavMesh.Search.RUNNING) continue;
+
+            totalExpansions += search.getExpansions();
+            finishActive(status == NavMesh.Search.FOUND ? search.getCorridor() : null, false);
+        }
+        if (activePath != null) {
+            slicedFrames++;
+        }
+    }
+
+    /**
+     * Start the next queued request. Cache hits finish immediately.
+     * @return false if the queue is empty
+     */
+    private boolean startNext() {
+        while (!queue.isEmpty()) {
+            NavPath path = queue.poll();
+            path.queued = false;
+            activePath = path;
+            activeRequestId = path.requestId;
+
+            int startPoly = navMesh.findPolygon(path.fromX, path.fromY, path.fromZ);
+            int goalPoly = navMesh.findPolygon(path.goalX, path.goalY, path.goalZ);
+            int[] corridor = cachedCorridor(startPoly, goalPoly);
+            if (corridor != null) {
+                finishActive(corridor, true);
+                continue;
+            }
+            search.begin(startPoly, goalPoly, path.goalX, path.goalY, path.goalZ);
+            if (search.getStatus() == NavMesh.Search.FAILED) {
+                finishActive(null, false);
+                continue;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void finishActive(int[] corridor, boolean fromCache) {
+        NavPath path = activePath;
+        activePath = null;
+        if (corridor != null && !fromCache) {
+            cacheCorridor(search.getStartPoly(), search.getGoalPoly(), corridor);
+        }
+        if (fromCache) {
+            cacheHits++;
+        }
+        if (path.requestId == activeRequestId) {
+            publish(path, corridor, navMesh, smoothScratch);
+        }
+    }
+
+    /**
+     * Write a finished search into its path (render thread)
+     */
+    private void publish(NavPath path, int[] corridor, NavMesh mesh, float[] scratch) {
+        if (corridor == null) {
+            failed++;
+            path.status = NavPath.Status.FAILED;
+            path.count = 0;
+            path.next = 0;
+            return;
+        }
+        completed++;
+        int count = mesh.smoothPath(corridor, path.fromX, path.fromY, path.fromZ,
+                path.goalX, path.goalY, path.goalZ, scratch);
+        System.arraycopy(scratch, 0, path.points, 0, count * 3);
+        path.count = count;
+        path.next = 0;
+        path.status = NavPath.Status.READY;
+    }
+
+    private void publishResults() {
+        Result result;
+        while ((result = results.poll()) != null) {
+            NavPath path = result.job.path;
+            totalExpansions += result.expansions;
+            if (result.cacheHit) {
+                cacheHits++;
+            }
+            if (path.requestId != result.job.requestId || result.mesh != navMesh) continue; // Superseded
+
+            if (result.corridor == null) {
+                failed++;
+                path.status = NavPath.Status.FAILED;
+                path.count = 0;
+                path.next = 0;
+            } else {
+                completed++;
+                System.arraycopy(result.points, 0, path.points, 0, result.pointCount * 3);
+                path.count = result.pointCount;
+                path.next = 0;
+                path.status = NavPath.Status.READY;
+            }
+        }
+    }
+
+    private int[] cachedCorridor(int startPoly, int goalPoly) {
+        if (startPoly < 0 || goalPoly < 0) return null;
+        if (startPoly == goalPoly) {
+            return new int[] {startPoly};
+        }
+        synchronized (corridorCache) {
+            return corridorCache.get(corridorKey(startPoly, goalPoly));
+        }
+    }
+
+    private void cacheCorridor(int startPoly, int goalPoly, int[] corridor) {
+        synchronized (corridorCache) {
+            corridorCache.put(corridorKey(startPoly, goalPoly), corridor);
+        }
+    }
+
+    private static long corridorKey(int startPoly, int goalPoly) {
+        return ((long) startPoly << 32) | (goalPoly & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Drop every request and cached corridor
+     */
+    public void clear() {
+        for (NavPath path : queue) {
+            path.queued = false;
+            path.status = NavPath.Status.NONE;
+        }
+        queue.clear();
+        activePath = null;
+        results.clear();
+        if (worker != null) {
+            worker.jobs.clear();
+        }
+        synchronized (corridorCache) {
+            corridorCache.clear();
+        }
+    }
+
+    // ==== ASYNC ====
+
+    /**
+     * Run searches on a worker thread instead of in update()
+     */
+    public void setAsync(boolean async) {
+        if (this.async == async) return;
+        clear();
+        this.async = async;
+        if (async) {
+            worker = new Worker();
+            worker.setNavMesh(navMesh);
+            worker.start();
+        } else if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Requests waiting for a search or being searched
+     */
+    public int getPendingCount() {
+        if (async) {
+            return worker != null ? worker.jobs.size() : 0;
+        }
+        return queue.size() + (activePath != null ? 1 : 0);
+    }
+
+    public void shutdown() {
+        setAsync(false);
+        clear();
+    }
+
+    /**
+     * Snapshot of a request for the worker (NavPath itself stays on the render thread)
+     */
+    private static final class Job {
+        final NavPath path;
+        final int requestId;
+        final float fromX, fromY, fromZ, goalX, goalY, goalZ;
+
+        Job(NavPath path, int requestId, float fromX, float fromY, float fromZ,
+            float goalX, float goalY, float goalZ) {
+            this.path = path;
+            this.requestId = requestId;
+            this.fromX = fromX;
+            this.fromY = fromY;
+            this.fromZ = fromZ;
+            this.goalX = goalX;
+            this.goalY = goalY;
+            this.goalZ = goalZ;
+        }
+    }
+
+    private static final class Result {
+        Job job;
+        NavMesh mesh;
+        int[] corridor;
+        float[] points;
+        int pointCount;
+        int expansions;
+        boolean cacheHit;
+    }
+
+    private final class Worker extends Thread {
+        final LinkedBlockingQueue<Job> jobs = new LinkedBlockingQueue<>();
+        private volatile NavMesh workerMesh;
+
+        Worker() {
+            super("NavPathWorker");
+            setDaemon(true);
+        }
+
+        void setNavMesh(NavMesh mesh) {
+            workerMesh = mesh;
+        }
+
+        void submit(Job job) {
+            jobs.add(job);
+        }
+
+        @Override
+        public void run() {
+            NavMesh searchMesh = null;
+            NavMesh.Search workerSearch = null;
+            try {
+                while (!isInterrupted()) {
+                    Job job = jobs.take();
+                    NavMesh mesh = workerMesh;
+                    if (mesh == null) continue;
+                    if (mesh != searchMesh) {
+                        searchMesh = mesh;
+                        workerSearch = mesh.newSearch();
+                    }
+                    results.add(solve(job, mesh, workerSearch));
+                }
+            } catch (InterruptedException e) {
+                // Shutting down
+            }
+        }
+
+        private Result solve(Job job, NavMesh mesh, NavMesh.Search workerSearch) {
+            Result result = new Result();
+            result.job = job;
+            result.mesh = mesh;
+
+            int startPoly = mesh.findPolygon(job.fromX, job.fromY, job.fromZ);
+            int goalPoly = mesh.findPolygon(job.goalX, job.goalY, job.goalZ);
+            int[] corridor = cachedCorridor(startPoly, goalPoly);
+            if (corridor != null) {
+                result.cacheHit = true;
+            } else {
+                workerSearch.begin(startPoly, goalPoly, job.goalX, job.goalY, job.goalZ);
+                while (workerSearch.step(Integer.MAX_VALUE) == NavMesh.Search.RUNNING) {
+                    // Runs to completion - nothing else waits on this thread
+                }
+                result.expansions = workerSearch.getExpansions();
+                corridor = workerSearch.getCorridor();
+                if (corridor != null) {
+                    cacheCorridor(startPoly, goalPoly, corridor);
+                }
+            }
+
+            result.corridor = corridor;
+            if (corridor != null) {
+                result.points = new float[NavPath.MAX_WAYPOINTS * 3];
+                result.pointCount = mesh.smoothPath(corridor, job.fromX, job.fromY, job.fromZ,
+                        job.goalX, job.goalY, job.goalZ, result.points);
+            }
+            return result;
+        }
+    }
+
+    // ==== CONFIGURATION ====
+
+    /**
+     * Milliseconds of searching per frame on the render thread
+     */
+    public void setBudgetMs(float budgetMs) {
+        this.budgetMs = Math.max(0.05f, budgetMs);
+    }
+
+    public float getBudgetMs() {
+        return budgetMs;
+    }
+
+    /**
+     * Seconds of game time seen by update() (used for path age)
+     */
+    public float getTime() {
+        return time;
+    }
+
+    // ==== STATS ====
+
+    public int getRequests() { return requests; }
+    public int getCompleted() { return completed; }
+    public int getFailed() { return failed; }
+    public int getCacheHits() { return cacheHits; }
+    public int getQueuedCount() { return queue.size() + (activePath != null ? 1 : 0); }
+
+    public String getStatistics() {
+        int cacheSize;
+        synchronized (corridorCache) {
+            cacheSize = corridorCache.size();
+        }
+        return String.format("NavPathService (%s): %d requests, %d paths, %d failed, %d corridor cache hits (%d cached), " +
+                        "%d queued, %d sliced frames, %d expansions",
+                async ? "worker thread" : String.format("%.1f ms/frame", budgetMs), requests, completed, failed,
+                cacheHits, cacheSize, getQueuedCount(), slicedFrames, totalExpansions);
+    }
+}
@@ -0,0 +1,75 @@
+package horrorjme;
+
+import com.jme3.bullet.PhysicsSpace;
+import com.jme3.bullet.PhysicsTickListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures how long each Bullet physics step takes, grouped under a label so two
+ * configurations (e.g. casing modes) can be compared in one session.
+ *
+ * Time is taken between prePhysicsTick and physicsTick, which bracket the simulation
+ * step itself. With a parallel BulletAppState the ticks arrive on the physics thread,
+ * so the accumulators are synchronized.
+ */
+public class PhysicsStepTimer implements PhysicsTickListener {
+
+    private static class Sample {
+        long totalNanos;
+        long maxNanos;
+        int steps;
+    }
+
+    private final Map<String, Sample> samples = new LinkedHashMap<>();
+    private String label = "default";
+    private long stepStart;
+
+    /**
+     * Steps measured from now on are recorded under this label
+     */
+    public synchronized void setLabel(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public void prePhysicsTick(PhysicsSpace space, float timeStep) {
+        stepStart = System.nanoTime();
+    }
+
+    @Override
+    public void physicsTick(PhysicsSpace space, float timeStep) {
+        long elapsed = System.nanoTime() - stepStart;
+        synchronized (this) {
+            Sample sample = samples.computeIfAbsent(label, k -> new Sample());
+            sample.totalNanos += elapsed;
+            sample.maxNanos = Math.max(sample.maxNanos, elapsed);
+            sample.steps++;
+        }
+    }
+
+    public synchronized float getAverageStepMs(String label) {
+        Sample sample = samples.get(label);
+        return sample != null && sample.steps > 0 ? sample.totalNanos / (sample.steps * 1_000_000f) : 0f;
+    }
+
+    public synchronized void reset() {
+        samples.clear();
+    }
+
+    /**
+     * One line per label: average and worst step time
+     */
+    public synchronized String getReport() {
+        if (samples.isEmpty()) return "PhysicsStepTimer: no steps recorded";
+
+        StringBuilder report = new StringBuilder("PhysicsStepTimer:");
+        for (Map.Entry<String, Sample> entry : samples.entrySet()) {
+            Sample sample = entry.getValue();
+            report.append(String.format("%n  %-10s avg %.3f ms, max %.3f ms over %d steps",
+                    entry.getKey(), sample.totalNanos / (sample.steps * 1_000_000f),
+                    sample.maxNanos / 1_000_000f, sample.steps));
+        }
+        return report.toString();
+    }
+}
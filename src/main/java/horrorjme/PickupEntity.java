@@ -38,6 +38,10 @@ public abstract class PickupEntity extends Entity {
     protected float rotationSpeed = 1.5f; // Rotation speed in radians per second
     protected Vector3f rotationAxis = new Vector3f(0, 1, 0); // Rotate around Y axis
     protected float rotationTimer = 0f;
+    private final Quaternion rotation = new Quaternion(); // OPTIMIZATION: Reused every frame
+
+    // OPTIMIZATION: Pickups out of sight go to sleep (no bob/rotate/light pulse)
+    protected float sleepDistance = 40f;
 
     // Pickup mechanics
     protected float pickupRadius = 1.2f;
@@ -206,8 +210,7 @@ public abstract class PickupEntity extends Entity {
     protected void updateRotation(float tpf) {
         rotationTimer += tpf * rotationSpeed;
 
-        // Create rotation quaternion around the specified axis
-        Quaternion rotation = new Quaternion();
+        // Rotation around the specified axis
         rotation.fromAngleAxis(rotationTimer, rotationAxis);
 
         // Apply rotation to the model
@@ -248,8 +251,10 @@ public abstract class PickupEntity extends Entity {
                 }
             }
 
+            publishEvent(EntityEventBus.EventType.PICKED_UP, 0f);
+
             // Mark for destruction
-            destroy();
+            requestDestroy();
         }
 
         return success;
@@ -260,6 +265,18 @@ public abstract class PickupEntity extends Entity {
         // Pickups use range-based detection, not collision
     }
 
+    @Override
+    protected float getAutoSleepDistance() {
+        return sleepDistance;
+    }
+
+    /**
+     * Distance from the camera beyond which the pickup stops animating (0 = never sleep)
+     */
+    public void setSleepDistance(float distance) {
+        this.sleepDistance = Math.max(0f, distance);
+    }
+
     @Override
     public void onDestroy() {
         // Remove glow light when destroyed
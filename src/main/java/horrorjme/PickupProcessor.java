@@ -1,6 +1,7 @@
 package horrorjme;
 
 import com.jme3.math.ColorRGBA;
+import java.util.function.Consumer;
 
 /**
  * Updated PickupProcessor - Handles point-based pickup economy
@@ -13,6 +14,9 @@ public class PickupProcessor {
     private HUDManager hudManager;
     private ScoreSystem scoreSystem;
 
+    // OPTIMIZATION: Reused visitor - iterate pickups without copying the list
+    private final Consumer<Entity> pickupVisitor = this::processPickup;
+
     public PickupProcessor(EntityManager entityManager, Player player, HUDManager hudManager) {
         this.entityManager = entityManager;
         this.player = player;
@@ -34,31 +38,33 @@ public class PickupProcessor {
         if (player == null || entityManager == null) return;
 
         // Check all pickup entities for collision with player
-        for (Entity entity : entityManager.getEntitiesByType(Entity.EntityType.PICKUP)) {
-            if (entity instanceof PickupEntity) {
-                PickupEntity pickup = (PickupEntity) entity;
-
-                if (!pickup.isPickedUp() && pickup.isPlayerInRange(player)) {
-                    // Check if player can afford this pickup
-                    if (canAffordPickup(pickup)) {
-                        // Attempt pickup
-                        boolean success = pickup.attemptPickup(player);
-
-                        if (success) {
-                            // Deduct points after successful pickup
-                            deductPointsForPickup(pickup);
-
-                            // Show HUD notification
-                            if (hudManager != null) {
-                                showPickupNotification(pickup);
-                            }
-                        }
-                    } else {
-                        // Show "not enough points" message
+        entityManager.forEach(Entity.EntityType.PICKUP, pickupVisitor);
+    }
+
+    private void processPickup(Entity entity) {
+        if (entity instanceof PickupEntity) {
+            PickupEntity pickup = (PickupEntity) entity;
+
+            if (!pickup.isPickedUp() && pickup.isPlayerInRange(player)) {
+                // Check if player can afford this pickup
+                if (canAffordPickup(pickup)) {
+                    // Attempt pickup
+                    boolean success = pickup.attemptPickup(player);
+
+                    if (success) {
+                        // Deduct points after successful pickup
+                        deductPointsForPickup(pickup);
+
+                        // Show HUD notification
                         if (hudManager != null) {
-                            showInsufficientPointsMessage(pickup);
+                            showPickupNotification(pickup);
                         }
                     }
+                } else {
+                    // Show "not enough points" message
+                    if (hudManager != null) {
+                        showInsufficientPointsMessage(pickup);
+                    }
                 }
             }
         }
@@ -18,6 +18,7 @@ public class PickupSpawner {
     private AssetManager assetManager;
     private AudioManager audioManager;
     private BulletAppState bulletAppState;
+    private GroundHeightField groundHeightField; // OPTIMIZATION: Baked heights before ray tests
 
     // Spawn configuration
     private List<Vector3f> validSpawnPoints;
@@ -49,6 +50,13 @@ public class PickupSpawner {
         this.ammoSpawnPoints = new ArrayList<>();
     }
 
+    /**
+     * Use baked map heights for the spawn scan (null = ray test per point)
+     */
+    public void setGroundHeightField(GroundHeightField groundHeightField) {
+        this.groundHeightField = groundHeightField;
+    }
+
     /**
      * Scan the loaded map for valid pickup spawn points
      */
@@ -110,6 +118,13 @@ public class PickupSpawner {
      * Find ground level at specific X,Z coordinates using raycasting
      */
     private Vector3f findGroundLevel(float x, float z, float startY) {
+        if (groundHeightField != null) {
+            float groundY = groundHeightField.sample(x, z, startY);
+            if (!Float.isNaN(groundY)) {
+                return new Vector3f(x, groundY + 0.2f, z);
+            }
+        }
+
         if (bulletAppState == null) {
             return new Vector3f(x, 0, z);
         }
@@ -120,6 +135,8 @@ public class PickupSpawner {
         List<PhysicsRayTestResult> results = bulletAppState.getPhysicsSpace().rayTest(rayStart, rayEnd);
 
         for (PhysicsRayTestResult result : results) {
+            if (!CollisionGroups.matches(result.getCollisionObject(), CollisionGroups.GROUND)) continue;
+
             float hitFraction = result.getHitFraction();
             Vector3f rayDirection = rayEnd.subtract(rayStart);
             Vector3f hitPoint = rayStart.add(rayDirection.mult(hitFraction));
@@ -152,8 +169,10 @@ public class PickupSpawner {
             Vector3f checkEnd = position.add(0, 2f, 0);
 
             List<PhysicsRayTestResult> results = bulletAppState.getPhysicsSpace().rayTest(checkStart, checkEnd);
-            if (!results.isEmpty()) {
-                return false;
+            for (PhysicsRayTestResult result : results) {
+                if (CollisionGroups.isWorld(result.getCollisionObject())) {
+                    return false; // Blocked by map geometry overhead
+                }
             }
         }
 
@@ -4,7 +4,7 @@ package horrorjme;
  * Simple score and point management system
  * Tracks kills and manages point-based economy for pickups
  */
-public class ScoreSystem {
+public class ScoreSystem implements EntityEventBus.Listener {
 
     private int totalKills = 0;
     private int currentPoints = 0;
@@ -36,6 +36,16 @@ public class ScoreSystem {
         System.out.println("ScoreSystem: Kill! Total: " + totalKills + ", Round: " + roundKills + ", Points: " + currentPoints);
     }
 
+    /**
+     * Zombie deaths arrive from the entity event bus (subscribe to DIED)
+     */
+    @Override
+    public void onEntityEvent(EntityEventBus.EventType type, Entity entity, float value) {
+        if (type == EntityEventBus.EventType.DIED && entity instanceof ZombieEnemy) {
+            addKill();
+        }
+    }
+
     /**
      * Try to purchase a weapon pickup
      */
@@ -2,7 +2,6 @@ package horrorjme;
 
 import com.jme3.asset.AssetManager;
 import com.jme3.bullet.BulletAppState;
-import com.jme3.bullet.collision.PhysicsCollisionObject;
 import com.jme3.bullet.collision.shapes.BoxCollisionShape;
 import com.jme3.bullet.control.RigidBodyControl;
 import com.jme3.material.Material;
@@ -28,29 +27,64 @@ public class ShellCasing extends Entity {
     private float fadeOutTime = 2f; // How long it takes to fade out
     private Material shellMaterial;
     private float originalAlpha = 1f;
+    private boolean inPhysicsSpace = false;
 
     // Shell physics properties
     private static final float SHELL_MASS = 0.02f; // Very light
     private static final float SHELL_SIZE = 0.03f; // Small shell
 
+    // OPTIMIZATION: Reused scratch objects - no per-frame or per-shot allocation
+    private static final ColorRGBA FALLBACK_COLOR = new ColorRGBA(0.8f, 0.6f, 0.2f, 1f);
+    private final ColorRGBA fadeColor = new ColorRGBA();
+    private final Vector3f angularVelocity = new Vector3f();
+    private final Vector3f tempVelocity = new Vector3f();
+    private boolean usingFallbackColor = false;
+
     public ShellCasing(Vector3f startPosition, Vector3f ejectionVelocity,
                        AssetManager assetManager, BulletAppState bulletAppState) {
         super(EntityType.DECORATION, startPosition);
         this.assetManager = assetManager;
         this.bulletAppState = bulletAppState;
         this.boundingRadius = SHELL_SIZE;
+        launch(startPosition, ejectionVelocity);
+    }
+
+    /**
+     * Pool-friendly constructor - call launch() before spawning
+     */
+    public ShellCasing(AssetManager assetManager, BulletAppState bulletAppState) {
+        this(Vector3f.ZERO, Vector3f.ZERO, assetManager, bulletAppState);
+    }
+
+    /**
+     * (Re)eject this casing. Used by the constructor and by EntityPool reuse;
+     * mesh, material and physics body are kept.
+     */
+    public void launch(Vector3f startPosition, Vector3f ejectionVelocity) {
+        resetForReuse(startPosition);
+        currentLifeTime = 0f;
+        hasLanded = false;
 
         // Add some randomness to ejection
-        Vector3f randomizedVelocity = ejectionVelocity.clone();
-        randomizedVelocity.x += (FastMath.nextRandomFloat() - 0.5f) * 2f;
-        randomizedVelocity.y += FastMath.nextRandomFloat() * 1f;
-        randomizedVelocity.z += (FastMath.nextRandomFloat() - 0.5f) * 2f;
+        velocity.set(ejectionVelocity);
+        velocity.x += (FastMath.nextRandomFloat() - 0.5f) * 2f;
+        velocity.y += FastMath.nextRandomFloat() * 1f;
+        velocity.z += (FastMath.nextRandomFloat() - 0.5f) * 2f;
 
-        this.velocity = randomizedVelocity;
+        if (shellMaterial != null) {
+            shellMaterial.setColor("Color", usingFallbackColor ? FALLBACK_COLOR : ColorRGBA.White);
+        }
     }
 
     @Override
     public void initializeModel() {
+        // Pooled casing - mesh, material and body already built
+        if (model != null) {
+            model.setLocalTranslation(position);
+            launchBody();
+            return;
+        }
+
         // Create a small quad for the shell casing
         Quad shellQuad = new Quad(SHELL_SIZE, SHELL_SIZE * 1.5f); // Slightly elongated
         model = new Geometry("ShellCasing_" + entityId, shellQuad);
@@ -67,7 +101,8 @@ public class ShellCasing extends Entity {
         } catch (Exception e) {
 
             // Fallback to golden color
-            shellMaterial.setColor("Color", new ColorRGBA(0.8f, 0.6f, 0.2f, 1f));
+            shellMaterial.setColor("Color", FALLBACK_COLOR);
+            usingFallbackColor = true;
         }
 
         // Enable alpha blending for fade-out effect
@@ -88,24 +123,9 @@ public class ShellCasing extends Entity {
         // Create rigid body with mass (so it falls)
         rigidBody = new RigidBodyControl(shellShape, SHELL_MASS);
 
-        // CRITICAL: Prevent shell casings from affecting player
-        rigidBody.setCollisionGroup(PhysicsCollisionObject.COLLISION_GROUP_02);
-        rigidBody.setCollideWithGroups(
-                PhysicsCollisionObject.COLLISION_GROUP_01 |  // World/terrain
-                        PhysicsCollisionObject.COLLISION_GROUP_02    // Other shell casings
-                // NOT including player collision group
-        );
-
-        // Set initial velocity (ejection from gun)
-        rigidBody.setLinearVelocity(velocity);
-
-        // Add some random angular velocity for realistic tumbling
-        Vector3f angularVel = new Vector3f(
-                (FastMath.nextRandomFloat() - 0.5f) * 20f,
-                (FastMath.nextRandomFloat() - 0.5f) * 20f,
-                (FastMath.nextRandomFloat() - 0.5f) * 20f
-        );
-        rigidBody.setAngularVelocity(angularVel);
+        // Casings collide with the world, each other and zombies; the player still contacts them as
+        // before (the old group 02 mask left it out, but the player body was in group 01)
+        CollisionGroups.assign(rigidBody, CollisionGroups.DEBRIS);
 
         // Reduce bouncing
         rigidBody.setRestitution(0.3f);
@@ -113,10 +133,32 @@ public class ShellCasing extends Entity {
 
         model.addControl(rigidBody);
 
+        launchBody();
+    }
+
+    /**
+     * Put the body into the physics space at the current position with the ejection velocity
+     */
+    private void launchBody() {
+        if (rigidBody == null) return;
+
         // Add to physics space
-        if (bulletAppState != null) {
+        if (bulletAppState != null && !inPhysicsSpace) {
             bulletAppState.getPhysicsSpace().add(rigidBody);
+            inPhysicsSpace = true;
         }
+        rigidBody.setPhysicsLocation(position);
+
+        // Set initial velocity (ejection from gun)
+        rigidBody.setLinearVelocity(velocity);
+
+        // Add some random angular velocity for realistic tumbling
+        angularVelocity.set(
+                (FastMath.nextRandomFloat() - 0.5f) * 20f,
+                (FastMath.nextRandomFloat() - 0.5f) * 20f,
+                (FastMath.nextRandomFloat() - 0.5f) * 20f
+        );
+        rigidBody.setAngularVelocity(angularVelocity);
     }
 
     @Override
@@ -127,14 +169,16 @@ public class ShellCasing extends Entity {
 
         // Update position from physics
         if (rigidBody != null) {
-            Vector3f physicsPos = rigidBody.getPhysicsLocation();
-            position.set(physicsPos);
+            rigidBody.getPhysicsLocation(position);
 
             // Check if shell has landed (low velocity)
-            if (!hasLanded && rigidBody.getLinearVelocity().length() < 1f) {
+            if (!hasLanded && rigidBody.getLinearVelocity(tempVelocity).length() < 1f) {
                 hasLanded = true;
                 // Reduce physics activity when landed
                 rigidBody.setAngularVelocity(Vector3f.ZERO);
+
+                // OPTIMIZATION: Nothing to do until the fade starts - sleep until then
+                requestSleep(Math.max(0.01f, lifeTime - fadeOutTime - currentLifeTime), 0f);
             }
         }
 
@@ -146,12 +190,13 @@ public class ShellCasing extends Entity {
             // Update material alpha
             ColorRGBA currentColor = shellMaterial.getParam("Color") != null ?
                     (ColorRGBA) shellMaterial.getParam("Color").getValue() : ColorRGBA.White;
-            shellMaterial.setColor("Color", new ColorRGBA(currentColor.r, currentColor.g, currentColor.b, alpha));
+            fadeColor.set(currentColor.r, currentColor.g, currentColor.b, alpha);
+            shellMaterial.setColor("Color", fadeColor);
         }
 
         // Remove shell after lifetime
         if (currentLifeTime >= lifeTime) {
-            destroy();
+            requestDestroy();
         }
     }
 
@@ -160,26 +205,63 @@ public class ShellCasing extends Entity {
         // Shell casings don't interact with other entities
     }
 
+    @Override
+    protected void onSleep() {
+        // A landed shell doesn't need a physics body any more
+        removeFromPhysics();
+    }
+
+    @Override
+    protected void onWake(float sleptSeconds) {
+        currentLifeTime += sleptSeconds;
+    }
+
     @Override
     public void onDestroy() {
         // Remove from physics
-        if (rigidBody != null && bulletAppState != null) {
+        removeFromPhysics();
+
+    }
+
+    private void removeFromPhysics() {
+        if (rigidBody != null && bulletAppState != null && inPhysicsSpace) {
             bulletAppState.getPhysicsSpace().remove(rigidBody);
+            inPhysicsSpace = false;
         }
-
     }
 
     // Static factory method for easy creation
     public static ShellCasing createShellCasing(Vector3f weaponPosition, Vector3f cameraDirection,
                                                 AssetManager assetManager, BulletAppState bulletAppState) {
+        Vector3f ejectionPos = new Vector3f();
+        Vector3f ejectionVel = new Vector3f();
+        computeEjection(weaponPosition, cameraDirection, ejectionPos, ejectionVel);
+
+        return new ShellCasing(ejectionPos, ejectionVel, assetManager, bulletAppState);
+    }
+
+    /**
+     * Ejection position and velocity for a weapon position and aim direction,
+     * written into the given vectors (no allocation)
+     */
+    public static void computeEjection(Vector3f weaponPosition, Vector3f cameraDirection,
+                                       Vector3f ejectionPosOut, Vector3f ejectionVelOut) {
+        // Right of the aim direction: cameraDirection x UNIT_Y = (-z, 0, x)
+        float rightX = -cameraDirection.z;
+        float rightZ = cameraDirection.x;
+        float length = FastMath.sqrt(rightX * rightX + rightZ * rightZ);
+        if (length > 0f) {
+            rightX /= length;
+            rightZ /= length;
+        }
+
         // Calculate ejection position (slightly to the right and forward of weapon)
-        Vector3f rightDirection = cameraDirection.cross(Vector3f.UNIT_Y).normalizeLocal();
-        Vector3f ejectionPos = weaponPosition.add(rightDirection.mult(0.2f)).add(cameraDirection.mult(0.1f));
+        ejectionPosOut.set(weaponPosition)
+                .addLocal(rightX * 0.2f, 0f, rightZ * 0.2f)
+                .addLocal(cameraDirection.x * 0.1f, cameraDirection.y * 0.1f, cameraDirection.z * 0.1f);
 
         // Calculate ejection velocity (right and slightly up)
-        Vector3f ejectionVel = rightDirection.mult(3f).add(Vector3f.UNIT_Y.mult(2f)).add(cameraDirection.mult(1f));
-
-        return new ShellCasing(ejectionPos, ejectionVel, assetManager, bulletAppState);
+        ejectionVelOut.set(rightX * 3f, 2f, rightZ * 3f).addLocal(cameraDirection);
     }
 
     public boolean hasLanded() {
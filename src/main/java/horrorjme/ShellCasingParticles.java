@@ -0,0 +1,396 @@
+package horrorjme;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.bullet.BulletAppState;
+import com.jme3.bullet.collision.PhysicsRayTestResult;
+import com.jme3.material.Material;
+import com.jme3.material.RenderState;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.control.AbstractControl;
+import com.jme3.texture.Texture;
+import com.jme3.util.BufferUtils;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lightweight CPU particle simulation for shell casings - the default alternative to
+ * one Bullet rigid body per ShellCasing.
+ *
+ * Casings live in a ring of primitive arrays. They fall under gravity, tumble, and bounce
+ * on a ground plane whose height is ray-tested once per 1m cell and storey and cached,
+ * then lie still until they fade. Every casing has the same lifetime, so the ring's head is always
+ * the oldest: expiry pops the head and a full ring overwrites it. All casings render as
+ * one quad mesh in a single draw call.
+ */
+public class ShellCasingParticles {
+
+    private static final int DEFAULT_CAPACITY = 128;
+    private static final float GRAVITY = -9.81f;
+    private static final float RESTITUTION = 0.3f;   // Same feel as the rigid body casings
+    private static final float FRICTION = 0.7f;
+    private static final float SETTLE_SPEED = 0.4f;  // Vertical speed below which a bounce ends in rest
+    private static final float SHELL_WIDTH = 0.03f;  // Matches ShellCasing.SHELL_SIZE
+    private static final float SHELL_LENGTH = 0.045f;
+    private static final float GROUND_CELL_SIZE = 1f;
+    private static final float GROUND_BAND_HEIGHT = 4f; // Separate cache entries per storey
+    private static final float GROUND_RAY_LENGTH = 50f;
+    private static final int MAX_CACHED_CELLS = 4096;
+    private static final ColorRGBA FALLBACK_COLOR = new ColorRGBA(0.8f, 0.6f, 0.2f, 1f);
+
+    private final BulletAppState bulletAppState;
+    private final Node parentNode;
+    private final Geometry geometry;
+    private final Mesh mesh;
+    private final ColorRGBA baseColor = new ColorRGBA(ColorRGBA.White);
+
+    // Ring of particles, oldest at head
+    private final int capacity;
+    private final float[] posX, posY, posZ;
+    private final float[] velX, velY, velZ;
+    private final float[] age;
+    private final float[] yaw, spin, spinRate;
+    private final float[] groundY;
+    private final boolean[] landed;
+    private int head;
+    private int count;
+    private int uploadedCount;
+
+    private float lifeTime = 10f;
+    private float fadeOutTime = 2f;
+
+    // Ground height cache: cell key -> height of the first world surface below
+    private final Map<Long, Float> groundCache = new HashMap<>();
+    private final Vector3f rayStart = new Vector3f();
+    private final Vector3f rayEnd = new Vector3f();
+
+    private final FloatBuffer positionData;
+    private final FloatBuffer colorData;
+    private final BoundingBox bound = new BoundingBox();
+    private final Vector3f boundMin = new Vector3f();
+    private final Vector3f boundMax = new Vector3f();
+
+    // Stats
+    private int emitted;
+    private int overwritten;
+    private int groundRayTests;
+
+    public ShellCasingParticles(AssetManager assetManager, Node parentNode, BulletAppState bulletAppState) {
+        this(assetManager, parentNode, bulletAppState, DEFAULT_CAPACITY);
+    }
+
+    public ShellCasingParticles(AssetManager assetManager, Node parentNode, BulletAppState bulletAppState, int capacity) {
+        this.parentNode = parentNode;
+        this.bulletAppState = bulletAppState;
+        this.capacity = Math.max(1, capacity);
+
+        posX = new float[this.capacity];
+        posY = new float[this.capacity];
+        posZ = new float[this.capacity];
+        velX = new float[this.capacity];
+        velY = new float[this.capacity];
+        velZ = new float[this.capacity];
+        age = new float[this.capacity];
+        yaw = new float[this.capacity];
+        spin = new float[this.capacity];
+        spinRate = new float[this.capacity];
+        groundY = new float[this.capacity];
+        landed = new boolean[this.capacity];
+
+        // Four vertices per casing quad; index and texcoord data never change
+        positionData = BufferUtils.createFloatBuffer(this.capacity * 4 * 3);
+        colorData = BufferUtils.createFloatBuffer(this.capacity * 4 * 4);
+        FloatBuffer texCoordData = BufferUtils.createFloatBuffer(this.capacity * 4 * 2);
+        ShortBuffer indexData = BufferUtils.createShortBuffer(this.capacity * 6);
+        for (int i = 0; i < this.capacity; i++) {
+            texCoordData.put(0f).put(0f).put(1f).put(0f).put(1f).put(1f).put(0f).put(1f);
+            short v = (short) (i * 4);
+            indexData.put(v).put((short) (v + 1)).put((short) (v + 2));
+            indexData.put(v).put((short) (v + 2)).put((short) (v + 3));
+        }
+        texCoordData.flip();
+        indexData.flip();
+
+        mesh = new Mesh();
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, positionData);
+        mesh.setBuffer(VertexBuffer.Type.Color, 4, colorData);
+        mesh.setBuffer(VertexBuffer.Type.TexCoord, 2, texCoordData);
+        mesh.setBuffer(VertexBuffer.Type.Index, 3, indexData);
+        mesh.getBuffer(VertexBuffer.Type.Position).setUsage(VertexBuffer.Usage.Stream);
+        mesh.getBuffer(VertexBuffer.Type.Color).setUsage(VertexBuffer.Usage.Stream);
+        mesh.updateCounts();
+
+        Material material = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
+        material.setBoolean("VertexColor", true);
+        try {
+            Texture shellTexture = assetManager.loadTexture("Textures/Weapons/shell_casing.png");
+            shellTexture.setMagFilter(Texture.MagFilter.Nearest);
+            shellTexture.setMinFilter(Texture.MinFilter.NearestNoMipMaps);
+            material.setTexture("ColorMap", shellTexture);
+        } catch (Exception e) {
+            // Fallback to golden color
+            baseColor.set(FALLBACK_COLOR);
+        }
+        material.getAdditionalRenderState().setBlendMode(RenderState.BlendMode.Alpha);
+        material.getAdditionalRenderState().setFaceCullMode(RenderState.FaceCullMode.Off);
+        material.setTransparent(true);
+
+        geometry = new Geometry("ShellCasingParticles", mesh);
+        geometry.setMaterial(material);
+        geometry.setQueueBucket(RenderQueue.Bucket.Transparent);
+        geometry.setShadowMode(RenderQueue.ShadowMode.Off);
+        geometry.setCullHint(Spatial.CullHint.Always); // Nothing to draw yet
+        geometry.addControl(new UploadControl());
+
+        parentNode.attachChild(geometry);
+    }
+
+    /**
+     * Eject a casing. When full, the oldest casing is replaced.
+     */
+    public void emit(Vector3f position, Vector3f ejectionVelocity) {
+        int slot;
+        if (count == capacity) {
+            slot = head;
+            head = (head + 1) % capacity;
+            overwritten++;
+        } else {
+            slot = (head + count) % capacity;
+            count++;
+        }
+
+        posX[slot] = position.x;
+        posY[slot] = position.y;
+        posZ[slot] = position.z;
+
+        // Same ejection randomness as ShellCasing.launch()
+        velX[slot] = ejectionVelocity.x + (FastMath.nextRandomFloat() - 0.5f) * 2f;
+        velY[slot] = ejectionVelocity.y + FastMath.nextRandomFloat();
+        velZ[slot] = ejectionVelocity.z + (FastMath.nextRandomFloat() - 0.5f) * 2f;
+
+        age[slot] = 0f;
+        yaw[slot] = FastMath.nextRandomFloat() * FastMath.TWO_PI;
+        spin[slot] = 0f;
+        spinRate[slot] = (FastMath.nextRandomFloat() - 0.5f) * 40f;
+        groundY[slot] = Math.min(findGroundHeight(position), position.y);
+        landed[slot] = false;
+        emitted++;
+    }
+
+    /**
+     * Step all casings
+     */
+    public void update(float tpf) {
+        // Expire from the head - it is always the oldest
+        while (count > 0 && age[head] + tpf >= lifeTime) {
+            head = (head + 1) % capacity;
+            count--;
+        }
+
+        for (int n = 0; n < count; n++) {
+            int i = (head + n) % capacity;
+            age[i] += tpf;
+            if (landed[i]) continue;
+
+            velY[i] += GRAVITY * tpf;
+            posX[i] += velX[i] * tpf;
+            posY[i] += velY[i] * tpf;
+            posZ[i] += velZ[i] * tpf;
+            spin[i] += spinRate[i] * tpf;
+
+            // Ground-plane bounce
+            if (posY[i] <= groundY[i]) {
+                posY[i] = groundY[i];
+                if (-velY[i] * RESTITUTION < SETTLE_SPEED) {
+                    landed[i] = true;
+                    spin[i] = FastMath.HALF_PI; // Lie flat
+                } else {
+                    velY[i] = -velY[i] * RESTITUTION;
+                    velX[i] *= 1f - FRICTION * 0.5f;
+                    velZ[i] *= 1f - FRICTION * 0.5f;
+                    spinRate[i] *= 0.5f;
+                }
+            }
+        }
+    }
+
+    /**
+     * Height of the first world surface below a point, ray-tested once per cell and storey
+     */
+    private float findGroundHeight(Vector3f position) {
+        if (bulletAppState == null) {
+            return position.y - 1.5f; // No physics - assume standing eye height
+        }
+
+        int cellX = (int) FastMath.floor(position.x / GROUND_CELL_SIZE);
+        int cellZ = (int) FastMath.floor(position.z / GROUND_CELL_SIZE);
+        int band = (int) FastMath.floor(position.y / GROUND_BAND_HEIGHT);
+        long key = ((long) (cellX & 0xFFFFF) << 40) | ((long) (cellZ & 0xFFFFF) << 20) | (band & 0xFFFFF);
+
+        Float cached = groundCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Cast down through the cell centre from just above the casing
+        float top = position.y + 0.1f;
+        rayStart.set((cellX + 0.5f) * GROUND_CELL_SIZE, top, (cellZ + 0.5f) * GROUND_CELL_SIZE);
+        rayEnd.set(rayStart.x, top - GROUND_RAY_LENGTH, rayStart.z);
+        groundRayTests++;
+
+        float height = position.y - GROUND_RAY_LENGTH;
+        List<PhysicsRayTestResult> results = bulletAppState.getPhysicsSpace().rayTest(rayStart, rayEnd);
+        float nearest = Float.MAX_VALUE;
+        for (PhysicsRayTestResult result : results) {
+            if (CollisionGroups.isWorld(result.getCollisionObject()) && result.getHitFraction() < nearest) {
+                nearest = result.getHitFraction();
+            }
+        }
+        if (nearest != Float.MAX_VALUE) {
+            height = top - GROUND_RAY_LENGTH * nearest;
+        }
+
+        if (groundCache.size() >= MAX_CACHED_CELLS) {
+            groundCache.clear();
+        }
+        groundCache.put(key, height);
+        return height;
+    }
+
+    /**
+     * Refill the quad buffers from the particle arrays
+     */
+    private void upload() {
+        if (count == 0 && uploadedCount == 0) {
+            geometry.setCullHint(Spatial.CullHint.Always);
+            return;
+        }
+
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        float halfWidth = SHELL_WIDTH * 0.5f;
+        float halfLength = SHELL_LENGTH * 0.5f;
+        float fadeStart = lifeTime - fadeOutTime;
+
+        positionData.clear();
+        colorData.clear();
+        for (int n = 0; n < count; n++) {
+            int i = (head + n) % capacity;
+
+            // Width axis is horizontal (yaw); length axis is "up" tumbled about it
+            float cosYaw = FastMath.cos(yaw[i]), sinYaw = FastMath.sin(yaw[i]);
+            float cosSpin = FastMath.cos(spin[i]), sinSpin = FastMath.sin(spin[i]);
+            float ux = cosYaw * halfWidth, uz = sinYaw * halfWidth;
+            float vx = -sinYaw * sinSpin * halfLength;
+            float vy = cosSpin * halfLength;
+            float vz = cosYaw * sinSpin * halfLength;
+
+            float x = posX[i], y = posY[i] + 0.005f, z = posZ[i]; // Lift off the floor to avoid z-fighting
+            positionData.put(x - ux - vx).put(y - vy).put(z - uz - vz);
+            positionData.put(x + ux - vx).put(y - vy).put(z + uz - vz);
+            positionData.put(x + ux + vx).put(y + vy).put(z + uz + vz);
+            positionData.put(x - ux + vx).put(y + vy).put(z - uz + vz);
+
+            float alpha = age[i] > fadeStart ? Math.max(0f, 1f - (age[i] - fadeStart) / fadeOutTime) : 1f;
+            for (int v = 0; v < 4; v++) {
+                colorData.put(baseColor.r).put(baseColor.g).put(baseColor.b).put(alpha);
+            }
+
+            minX = Math.min(minX, x - SHELL_LENGTH);
+            minY = Math.min(minY, y - SHELL_LENGTH);
+            minZ = Math.min(minZ, z - SHELL_LENGTH);
+            maxX = Math.max(maxX, x + SHELL_LENGTH);
+            maxY = Math.max(maxY, y + SHELL_LENGTH);
+            maxZ = Math.max(maxZ, z + SHELL_LENGTH);
+        }
+
+        // Collapse quads freed since the last upload
+        for (int n = count; n < uploadedCount; n++) {
+            for (int v = 0; v < 4; v++) {
+                positionData.put(0f).put(0f).put(0f);
+                colorData.put(0f).put(0f).put(0f).put(0f);
+            }
+        }
+        uploadedCount = count;
+
+        positionData.clear();
+        colorData.clear();
+        mesh.getBuffer(VertexBuffer.Type.Position).updateData(positionData);
+        mesh.getBuffer(VertexBuffer.Type.Color).updateData(colorData);
+
+        if (count == 0) {
+            geometry.setCullHint(Spatial.CullHint.Always);
+            return;
+        }
+
+        bound.setMinMax(boundMin.set(minX, minY, minZ), boundMax.set(maxX, maxY, maxZ));
+        geometry.setModelBound(bound); // Not updateModelBound() - that would scan the whole buffer
+        geometry.setCullHint(Spatial.CullHint.Dynamic);
+    }
+
+    /**
+     * Uploads after all game logic for the frame has run
+     */
+    private class UploadControl extends AbstractControl {
+        @Override
+        protected void controlUpdate(float tpf) {
+            upload();
+        }
+
+        @Override
+        protected void controlRender(RenderManager rm, ViewPort vp) {
+        }
+    }
+
+    /**
+     * Forget cached ground heights (after a map change)
+     */
+    public void clearGroundCache() {
+        groundCache.clear();
+    }
+
+    /**
+     * Remove every casing
+     */
+    public void clear() {
+        head = 0;
+        count = 0;
+    }
+
+    public void setLifeTime(float lifeTime, float fadeOutTime) {
+        this.lifeTime = Math.max(0.1f, lifeTime);
+        this.fadeOutTime = Math.max(0.01f, Math.min(fadeOutTime, this.lifeTime));
+    }
+
+    public void cleanup() {
+        parentNode.detachChild(geometry);
+        clear();
+        groundCache.clear();
+    }
+
+    // ==== STATS ====
+
+    public int getCasingCount() { return count; }
+    public int getCapacity() { return capacity; }
+    public int getEmitted() { return emitted; }
+    public int getOverwritten() { return overwritten; }
+    public int getGroundRayTests() { return groundRayTests; }
+
+    public String getStatistics() {
+        return String.format("ShellCasingParticles: %d/%d casings, %d emitted, %d overwritten, %d ground rays (%d cells cached)",
+                count, capacity, emitted, overwritten, groundRayTests, groundCache.size());
+    }
+}
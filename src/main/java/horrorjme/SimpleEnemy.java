@@ -170,7 +170,12 @@ public class SimpleEnemy extends Entity {
      * Set the player's position for AI tracking
      */
     public void setPlayerPosition(Vector3f playerPos) {
-        this.playerPosition = playerPos.clone();
+        // OPTIMIZATION: Reuse the vector - this is called every frame
+        if (this.playerPosition == null) {
+            this.playerPosition = playerPos.clone();
+        } else {
+            this.playerPosition.set(playerPos);
+        }
     }
 
     /**
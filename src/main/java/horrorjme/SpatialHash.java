@@ -0,0 +1,677 @@
+package horrorjme;
+
+import com.jme3.math.Vector3f;
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Primitive spatial hash for entities on the XZ plane.
+ * Cells are keyed by packed long cell coordinates and stored with open addressing,
+ * each cell owning a reusable Entity array. Once the table and cell arrays have
+ * warmed up, insert/remove/move/query run without allocating.
+ */
+public class SpatialHash {
+
+    private static final int INITIAL_TABLE_CAPACITY = 64;   // Must be a power of two
+    private static final int INITIAL_CELL_CAPACITY = 8;
+    private static final float MAX_LOAD_FACTOR = 0.5f;
+
+    private final float cellSize;
+    private final float inverseCellSize;
+
+    // Open addressing table - slot i is in use when occupied[i] is true
+    private long[] keys;
+    private boolean[] occupied;
+    private Entity[][] cells;
+    private int[] cellCounts;
+    private int mask;
+    private int usedSlots;
+
+    private int entityCount;
+    private float maxBoundingRadius; // Largest radius ever inserted - pads segment queries
+
+    // Segment query scratch (single-threaded, reused per query)
+    private int segmentStamp;
+    private Entity segmentHit;
+    private float segmentHitT;
+    private Predicate<? super Entity> segmentFilter;
+    private Entity.EntityType segmentType;
+    private Entity segmentExclude;
+    private float segmentRadius;
+    private float segAX, segAY, segAZ, segDX, segDY, segDZ;
+
+    // Scratch for nearest-neighbour searches (single-threaded, reused per query)
+    private Entity[] nearestEntities = new Entity[8];
+    private float[] nearestDistances = new float[8];
+    private int nearestCount;
+    private int nearestLimit;
+
+    public SpatialHash(float cellSize) {
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+        allocateTable(INITIAL_TABLE_CAPACITY);
+    }
+
+    private void allocateTable(int capacity) {
+        keys = new long[capacity];
+        occupied = new boolean[capacity];
+        cells = new Entity[capacity][];
+        cellCounts = new int[capacity];
+        mask = capacity - 1;
+        usedSlots = 0;
+    }
+
+    // ==== KEYS ====
+
+    /**
+     * Pack two cell coordinates into a single long key
+     */
+    public static long packCell(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+
+    public static int unpackCellX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int unpackCellZ(long key) {
+        return (int) key;
+    }
+
+    /**
+     * World coordinate to cell coordinate. Uses floor so cells either side of
+     * the origin don't collapse into one double-width cell.
+     */
+    public int toCell(float worldCoordinate) {
+        return (int) Math.floor(worldCoordinate * inverseCellSize);
+    }
+
+    /**
+     * Cell coordinate clamped by the float-to-int conversion - the cell loops can't reach it
+     */
+    private static boolean isSaturated(int cell) {
+        return cell == Integer.MIN_VALUE || cell == Integer.MAX_VALUE;
+    }
+
+    public long cellKey(float x, float z) {
+        return packCell(toCell(x), toCell(z));
+    }
+
+    private int hashSlot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Find the table slot for a key, or -1 if the cell has never been created
+     */
+    private int findSlot(long key) {
+        int slot = hashSlot(key);
+        while (occupied[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Find or create the table slot for a key
+     */
+    private int obtainSlot(long key) {
+        int slot = hashSlot(key);
+        while (occupied[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (usedSlots + 1 > keys.length * MAX_LOAD_FACTOR) {
+            rehash();
+            return obtainSlot(key);
+        }
+
+        occupied[slot] = true;
+        keys[slot] = key;
+        if (cells[slot] == null) {
+            cells[slot] = new Entity[INITIAL_CELL_CAPACITY];
+        }
+        cellCounts[slot] = 0;
+        usedSlots++;
+        return slot;
+    }
+
+    /**
+     * Grow the table. Empty cells are dropped here so cells the horde has
+     * walked through don't accumulate forever.
+     */
+    private void rehash() {
+        long[] oldKeys = keys;
+        boolean[] oldOccupied = occupied;
+        Entity[][] oldCells = cells;
+        int[] oldCounts = cellCounts;
+
+        int liveCells = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldOccupied[i] && oldCounts[i] > 0) {
+                liveCells++;
+            }
+        }
+
+        int capacity = INITIAL_TABLE_CAPACITY;
+        while ((liveCells + 1) > capacity * MAX_LOAD_FACTOR * 0.5f) {
+            capacity <<= 1;
+        }
+        allocateTable(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldOccupied[i] && oldCounts[i] > 0) {
+                int slot = hashSlot(oldKeys[i]);
+                while (occupied[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                occupied[slot] = true;
+                keys[slot] = oldKeys[i];
+                cells[slot] = oldCells[i];
+                cellCounts[slot] = oldCounts[i];
+                usedSlots++;
+            }
+        }
+    }
+
+    // ==== MEMBERSHIP ====
+
+    /**
+     * Insert entity into the cell containing its current position
+     */
+    public void insert(Entity entity) {
+        if (entity.inSpatialHash) {
+            update(entity);
+            return;
+        }
+        insertAt(entity, cellKey(entity.position.x, entity.position.z));
+        entityCount++;
+        maxBoundingRadius = Math.max(maxBoundingRadius, entity.boundingRadius);
+    }
+
+    private void insertAt(Entity entity, long key) {
+        int slot = obtainSlot(key);
+        Entity[] cell = cells[slot];
+        int count = cellCounts[slot];
+
+        if (count == cell.length) {
+            cell = Arrays.copyOf(cell, count * 2);
+            cells[slot] = cell;
+        }
+
+        cell[count] = entity;
+        cellCounts[slot] = count + 1;
+
+        entity.inSpatialHash = true;
+        entity.spatialCellKey = key;
+        entity.spatialCellIndex = count;
+    }
+
+    /**
+     * Remove entity from the cell it was last inserted into (not its current position)
+     */
+    public void remove(Entity entity) {
+        if (!entity.inSpatialHash) return;
+        removeFromCell(entity);
+        entity.inSpatialHash = false;
+        entityCount--;
+    }
+
+    private void removeFromCell(Entity entity) {
+        int slot = findSlot(entity.spatialCellKey);
+        if (slot < 0) return;
+
+        Entity[] cell = cells[slot];
+        int last = cellCounts[slot] - 1;
+        int index = entity.spatialCellIndex;
+
+        // OPTIMIZATION: Swap-remove keeps removal O(1)
+        if (index != last) {
+            Entity moved = cell[last];
+            cell[index] = moved;
+            moved.spatialCellIndex = index;
+        }
+        cell[last] = null;
+        cellCounts[slot] = last;
+    }
+
+    /**
+     * Move entity to the cell matching its current position.
+     * @return true if the entity changed cells
+     */
+    public boolean update(Entity entity) {
+        if (!entity.inSpatialHash) {
+            insert(entity);
+            return true;
+        }
+
+        // Radius can grow after insertion (e.g. a zombie made large)
+        maxBoundingRadius = Math.max(maxBoundingRadius, entity.boundingRadius);
+
+        long key = cellKey(entity.position.x, entity.position.z);
+        if (key == entity.spatialCellKey) {
+            return false;
+        }
+
+        removeFromCell(entity);
+        insertAt(entity, key);
+        return true;
+    }
+
+    // ==== QUERIES ====
+
+    /**
+     * Append all entities in a single cell to the buffer
+     */
+    public void queryCell(int cellX, int cellZ, EntityQueryBuffer out) {
+        int slot = findSlot(packCell(cellX, cellZ));
+        if (slot < 0) return;
+
+        Entity[] cell = cells[slot];
+        int count = cellCounts[slot];
+        for (int i = 0; i < count; i++) {
+            out.add(cell[i]);
+        }
+    }
+
+    /**
+     * Append all entities within radiusCells cells of the given position.
+     * Each entity lives in exactly one cell, so results contain no duplicates.
+     */
+    public void queryNeighbourhood(float x, float z, int radiusCells, EntityQueryBuffer out) {
+        int centerX = toCell(x);
+        int centerZ = toCell(z);
+
+        for (int dx = -radiusCells; dx <= radiusCells; dx++) {
+            for (int dz = -radiusCells; dz <= radiusCells; dz++) {
+                queryCell(centerX + dx, centerZ + dz, out);
+            }
+        }
+    }
+
+    /**
+     * Append live entities within range (3D distance) of a point, optionally of one type.
+     * Only the cells overlapping the query square are visited; if that square spans more
+     * cells than the table holds, or the range is too large to address in cells (infinite,
+     * or past the int cell coordinates), the table is walked instead.
+     * Cell membership is refreshed as entities update, so it can lag by one frame of movement.
+     * @return number of entities appended
+     */
+    public int queryRange(float x, float y, float z, float range, Entity.EntityType type, EntityQueryBuffer out) {
+        if (entityCount == 0 || range < 0) return 0;
+
+        int minCellX = toCell(x - range);
+        int maxCellX = toCell(x + range);
+        int minCellZ = toCell(z - range);
+        int maxCellZ = toCell(z + range);
+        float rangeSquared = range * range;
+        int added = 0;
+
+        long cellsSpanned = ((long) maxCellX - minCellX + 1) * ((long) maxCellZ - minCellZ + 1);
+        if (cellsSpanned > usedSlots || !Float.isFinite(range)
+                || isSaturated(minCellX) || isSaturated(maxCellX) || isSaturated(minCellZ) || isSaturated(maxCellZ)) {
+            for (int slot = 0; slot < keys.length; slot++) {
+                if (occupied[slot] && cellCounts[slot] > 0) {
+                    added += collectInRange(slot, x, y, z, rangeSquared, type, out);
+                }
+            }
+            return added;
+        }
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                int slot = findSlot(packCell(cellX, cellZ));
+                if (slot >= 0) {
+                    added += collectInRange(slot, x, y, z, rangeSquared, type, out);
+                }
+            }
+        }
+        return added;
+    }
+
+    private int collectInRange(int slot, float x, float y, float z, float rangeSquared,
+                               Entity.EntityType type, EntityQueryBuffer out) {
+        Entity[] cell = cells[slot];
+        int count = cellCounts[slot];
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            Entity entity = cell[i];
+            if (matches(entity, type, null) && distanceSquared(entity, x, y, z) <= rangeSquared) {
+                out.add(entity);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Closest live entity to a point within maxRange, optionally of one type, or null
+     */
+    public Entity findNearest(float x, float y, float z, float maxRange, Entity.EntityType type, Entity exclude) {
+        searchNearest(x, y, z, 1, maxRange, type, exclude);
+        Entity nearest = nearestCount > 0 ? nearestEntities[0] : null;
+        releaseNearest();
+        return nearest;
+    }
+
+    /**
+     * Append up to k closest live entities within maxRange, nearest first
+     * @return number of entities appended
+     */
+    public int findKNearest(float x, float y, float z, int k, float maxRange,
+                            Entity.EntityType type, Entity exclude, EntityQueryBuffer out) {
+        searchNearest(x, y, z, k, maxRange, type, exclude);
+        int found = nearestCount;
+        for (int i = 0; i < found; i++) {
+            out.add(nearestEntities[i]);
+        }
+        releaseNearest();
+        return found;
+    }
+
+    /**
+     * Ring-by-ring search outward from the query cell. After each ring, anything not yet
+     * visited is at least (distance to the edge of the visited block) away, so the search
+     * stops once the k best are all closer than that, or once every entity has been seen.
+     */
+    private void searchNearest(float x, float y, float z, int k, float maxRange,
+                               Entity.EntityType type, Entity exclude) {
+        nearestCount = 0;
+        nearestLimit = k;
+        if (k <= 0 || entityCount == 0 || maxRange < 0) return;
+        if (nearestEntities.length < k) {
+            nearestEntities = new Entity[k];
+            nearestDistances = new float[k];
+        }
+
+        float maxRangeSquared = maxRange * maxRange;
+        int centerX = toCell(x);
+        int centerZ = toCell(z);
+
+        // Distance from the query point to the nearest edge of its own cell
+        float insideX = x - centerX * cellSize;
+        float insideZ = z - centerZ * cellSize;
+        float edgeDistance = Math.min(Math.min(insideX, cellSize - insideX), Math.min(insideZ, cellSize - insideZ));
+
+        int seen = 0;
+        for (int ring = 0; ; ring++) {
+            // A ring costs 8 * ring lookups - past the table size a flat walk is cheaper
+            if (ring > 0 && 8 * ring > usedSlots) {
+                nearestCount = 0;
+                for (int slot = 0; slot < keys.length; slot++) {
+                    if (occupied[slot] && cellCounts[slot] > 0) {
+                        offerCell(slot, x, y, z, maxRangeSquared, type, exclude);
+                    }
+                }
+                return;
+            }
+
+            if (ring == 0) {
+                seen += offerCell(centerX, centerZ, x, y, z, maxRangeSquared, type, exclude);
+            } else {
+                for (int d = -ring; d <= ring; d++) {
+                    seen += offerCell(centerX + d, centerZ - ring, x, y, z, maxRangeSquared, type, exclude);
+                    seen += offerCell(centerX + d, centerZ + ring, x, y, z, maxRangeSquared, type, exclude);
+                }
+                for (int d = -ring + 1; d <= ring - 1; d++) {
+                    seen += offerCell(centerX - ring, centerZ + d, x, y, z, maxRangeSquared, type, exclude);
+                    seen += offerCell(centerX + ring, centerZ + d, x, y, z, maxRangeSquared, type, exclude);
+                }
+            }
+
+            if (seen >= entityCount) return;
+
+            float unvisitedDistance = edgeDistance + ring * cellSize;
+            if (unvisitedDistance > maxRange) return;
+            if (nearestCount == k && nearestDistances[k - 1] <= unvisitedDistance * unvisitedDistance) return;
+        }
+    }
+
+    /**
+     * Offer a cell's entities to the nearest set
+     * @return the cell's population (filtered or not), for the seen-everything check
+     */
+    private int offerCell(int cellX, int cellZ, float x, float y, float z, float maxRangeSquared,
+                          Entity.EntityType type, Entity exclude) {
+        int slot = findSlot(packCell(cellX, cellZ));
+        return slot < 0 ? 0 : offerCell(slot, x, y, z, maxRangeSquared, type, exclude);
+    }
+
+    private int offerCell(int slot, float x, float y, float z, float maxRangeSquared,
+                          Entity.EntityType type, Entity exclude) {
+        Entity[] cell = cells[slot];
+        int count = cellCounts[slot];
+        for (int i = 0; i < count; i++) {
+            Entity entity = cell[i];
+            if (!matches(entity, type, exclude)) continue;
+
+            float distanceSquared = distanceSquared(entity, x, y, z);
+            if (distanceSquared <= maxRangeSquared) {
+                offerNearest(entity, distanceSquared);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Insert into the sorted k-best arrays, dropping the farthest when full
+     */
+    private void offerNearest(Entity entity, float distanceSquared) {
+        if (nearestCount == nearestLimit && distanceSquared >= nearestDistances[nearestCount - 1]) return;
+
+        int i = nearestCount < nearestLimit ? nearestCount++ : nearestCount - 1;
+        while (i > 0 && nearestDistances[i - 1] > distanceSquared) {
+            nearestEntities[i] = nearestEntities[i - 1];
+            nearestDistances[i] = nearestDistances[i - 1];
+            i--;
+        }
+        nearestEntities[i] = entity;
+        nearestDistances[i] = distanceSquared;
+    }
+
+    private void releaseNearest() {
+        Arrays.fill(nearestEntities, 0, nearestCount, null);
+        nearestCount = 0;
+    }
+
+    private static boolean matches(Entity entity, Entity.EntityType type, Entity exclude) {
+        return entity != exclude && entity.active && !entity.destroyed && (type == null || entity.type == type);
+    }
+
+    private static float distanceSquared(Entity entity, float x, float y, float z) {
+        float dx = entity.position.x - x;
+        float dy = entity.position.y - y;
+        float dz = entity.position.z - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * First live entity (by distance along the segment) whose bounding sphere, grown by
+     * radius, the segment a-b passes through. radius 0 is a ray; a positive radius makes
+     * it a capsule sweep (melee swings, thick shots).
+     *
+     * 2D DDA over the XZ grid: only the cells the segment crosses are walked, each widened
+     * by the padding (radius + the largest entity radius) so entities centred in a
+     * neighbouring cell still count. The walk stops once no unvisited cell can hold a
+     * nearer hit. Call getSegmentHitDistance() for the distance to the hit.
+     */
+    public Entity querySegment(float ax, float ay, float az, float bx, float by, float bz, float radius,
+                               Entity.EntityType type, Entity exclude, Predicate<? super Entity> filter) {
+        segmentHit = null;
+        segmentHitT = Float.POSITIVE_INFINITY;
+        if (entityCount == 0) return null;
+
+        segAX = ax; segAY = ay; segAZ = az;
+        segDX = bx - ax; segDY = by - ay; segDZ = bz - az;
+        segmentType = type;
+        segmentExclude = exclude;
+        segmentFilter = filter;
+        segmentRadius = Math.max(0f, radius);
+        segmentStamp++;
+
+        float length = (float) Math.sqrt(segDX * segDX + segDY * segDY + segDZ * segDZ);
+        float pad = segmentRadius + maxBoundingRadius;
+        float padT = length > 0f ? pad / length : Float.POSITIVE_INFINITY;
+
+        int cellX = toCell(ax);
+        int cellZ = toCell(az);
+        int endCellX = toCell(bx);
+        int endCellZ = toCell(bz);
+
+        int stepX = segDX > 0 ? 1 : -1;
+        int stepZ = segDZ > 0 ? 1 : -1;
+        float deltaX = segDX != 0 ? cellSize / Math.abs(segDX) : Float.POSITIVE_INFINITY;
+        float deltaZ = segDZ != 0 ? cellSize / Math.abs(segDZ) : Float.POSITIVE_INFINITY;
+        float nextX = segDX > 0 ? ((cellX + 1) * cellSize - ax) / segDX
+                : segDX < 0 ? (cellX * cellSize - ax) / segDX : Float.POSITIVE_INFINITY;
+        float nextZ = segDZ > 0 ? ((cellZ + 1) * cellSize - az) / segDZ
+                : segDZ < 0 ? (cellZ * cellSize - az) / segDZ : Float.POSITIVE_INFINITY;
+
+        float enterT = 0f;
+        int maxSteps = Math.abs(endCellX - cellX) + Math.abs(endCellZ - cellZ) + 1;
+        for (int step = 0; step < maxSteps; step++) {
+            float exitT = Math.min(1f, Math.min(nextX, nextZ));
+            testSubSegment(enterT, exitT, pad);
+
+            // Anything not yet tested enters the segment after exitT - padT
+            if (segmentHitT <= exitT - padT || exitT >= 1f) break;
+
+            if (nextX < nextZ) {
+                cellX += stepX;
+                enterT = nextX;
+                nextX += deltaX;
+            } else {
+                cellZ += stepZ;
+                enterT = nextZ;
+                nextZ += deltaZ;
+            }
+        }
+
+        segmentFilter = null;
+        segmentExclude = null;
+        return segmentHit;
+    }
+
+    /**
+     * Test every cell within pad of the segment part [enterT, exitT]
+     */
+    private void testSubSegment(float enterT, float exitT, float pad) {
+        float x0 = segAX + segDX * enterT, x1 = segAX + segDX * exitT;
+        float z0 = segAZ + segDZ * enterT, z1 = segAZ + segDZ * exitT;
+        int minCellX = toCell(Math.min(x0, x1) - pad);
+        int maxCellX = toCell(Math.max(x0, x1) + pad);
+        int minCellZ = toCell(Math.min(z0, z1) - pad);
+        int maxCellZ = toCell(Math.max(z0, z1) + pad);
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                int slot = findSlot(packCell(cellX, cellZ));
+                if (slot < 0) continue;
+
+                Entity[] cell = cells[slot];
+                int count = cellCounts[slot];
+                for (int i = 0; i < count; i++) {
+                    Entity entity = cell[i];
+                    if (entity.segmentQueryStamp == segmentStamp) continue; // Seen from another cell
+                    entity.segmentQueryStamp = segmentStamp;
+
+                    if (!matches(entity, segmentType, segmentExclude)) continue;
+                    if (segmentFilter != null && !segmentFilter.test(entity)) continue;
+
+                    float t = segmentSphereEntry(entity.position, entity.boundingRadius + segmentRadius);
+                    if (t < segmentHitT) {
+                        segmentHitT = t;
+                        segmentHit = entity;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Segment parameter (0..1) where the segment enters the sphere, or +infinity if it misses
+     */
+    private float segmentSphereEntry(Vector3f center, float sphereRadius) {
+        float fx = segAX - center.x, fy = segAY - center.y, fz = segAZ - center.z;
+        float c = fx * fx + fy * fy + fz * fz - sphereRadius * sphereRadius;
+        if (c <= 0f) return 0f; // Starts inside
+
+        float a = segDX * segDX + segDY * segDY + segDZ * segDZ;
+        if (a == 0f) return Float.POSITIVE_INFINITY;
+
+        float b = fx * segDX + fy * segDY + fz * segDZ;
+        if (b >= 0f) return Float.POSITIVE_INFINITY; // Moving away
+        float discriminant = b * b - a * c;
+        if (discriminant < 0f) return Float.POSITIVE_INFINITY;
+
+        float t = (-b - (float) Math.sqrt(discriminant)) / a;
+        return t <= 1f ? t : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Distance from the segment start to the last querySegment() hit (+infinity if none)
+     */
+    public float getSegmentHitDistance() {
+        if (segmentHit == null) return Float.POSITIVE_INFINITY;
+        float length = (float) Math.sqrt(segDX * segDX + segDY * segDY + segDZ * segDZ);
+        return segmentHitT * length;
+    }
+
+    /**
+     * Number of entities stored in a cell (0 if the cell doesn't exist)
+     */
+    public int getCellPopulation(int cellX, int cellZ) {
+        int slot = findSlot(packCell(cellX, cellZ));
+        return slot < 0 ? 0 : cellCounts[slot];
+    }
+
+    public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            if (occupied[i]) {
+                Entity[] cell = cells[i];
+                for (int j = 0; j < cellCounts[i]; j++) {
+                    cell[j].inSpatialHash = false;
+                    cell[j] = null;
+                }
+            }
+        }
+        allocateTable(INITIAL_TABLE_CAPACITY);
+        entityCount = 0;
+        maxBoundingRadius = 0f;
+    }
+
+    // ==== STATISTICS ====
+
+    public float getCellSize() { return cellSize; }
+    public int getEntityCount() { return entityCount; }
+    public int getTableCapacity() { return keys.length; }
+
+    public int getAllocatedCellCount() { return usedSlots; }
+
+    public int getOccupiedCellCount() {
+        int occupiedCells = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (occupied[i] && cellCounts[i] > 0) {
+                occupiedCells++;
+            }
+        }
+        return occupiedCells;
+    }
+
+    public int getLargestCellPopulation() {
+        int largest = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (occupied[i]) {
+                largest = Math.max(largest, cellCounts[i]);
+            }
+        }
+        return largest;
+    }
+}
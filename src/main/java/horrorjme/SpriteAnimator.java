@@ -133,8 +133,9 @@ public class SpriteAnimator {
         );
         animations.put(animationName, sequence);
 
-        // Auto-size quad based on first frame if no manual override
-        if (!manualSizeOverride && frames.length > 0) {
+        // Track the texture-derived size even under a manual override (the geometry
+        // keeps the manual size) so callers can always scale from the real base size
+        if (frames.length > 0) {
             updateQuadSizeFromTexture(frames[0]);
         }
 
@@ -276,6 +277,13 @@ public class SpriteAnimator {
         return manualSizeOverride ? manualSize : currentQuadSize;
     }
 
+    /**
+     * Quad size derived from the loaded texture, ignoring any manual override
+     */
+    public Vector2f getTextureQuadSize() {
+        return currentQuadSize;
+    }
+
     /**
      * FIXED: Set animation speed
      */
@@ -316,7 +324,7 @@ public class SpriteAnimator {
         );
         animations.put(animationName, sequence);
 
-        if (!manualSizeOverride && frames.length > 0) {
+        if (frames.length > 0) {
             updateQuadSizeFromTexture(frames[0]);
         }
     }
@@ -26,6 +26,11 @@ public abstract class SpriteEntity extends Entity {
     // Physics - Simple kinematic RigidBodyControl
     private RigidBodyControl rigidBody;
     private CapsuleCollisionShape collisionShape;
+    private boolean bodyInPhysicsSpace = false;
+
+    // OPTIMIZATION: Pooled entities keep animator, material, quad and physics body
+    // across destroy() so initializeModel() only has to re-enable them
+    private boolean keepResourcesOnDestroy = false;
 
     // Sprite positioning
     private boolean billboardingEnabled = true;
@@ -35,6 +40,9 @@ public abstract class SpriteEntity extends Entity {
     private float collisionRadius = 0.4f;
     private float collisionHeight = 1.8f;
 
+    // OPTIMIZATION: Baked map heights - ground snapping without a ray test per frame
+    private GroundHeightField groundHeightField;
+
     public SpriteEntity(EntityType type, Vector3f position, AssetManager assetManager,
                         Camera camera, BulletAppState bulletAppState) {
         super(type, position);
@@ -45,6 +53,12 @@ public abstract class SpriteEntity extends Entity {
 
     @Override
     public void initializeModel() {
+        // Pooled entity coming back - everything is still built
+        if (keepResourcesOnDestroy && spriteAnimator != null && model != null) {
+            reinitializeModel();
+            return;
+        }
+
         // 1. Create sprite animator for visuals
         spriteAnimator = new SpriteAnimator(assetManager);
         loadAnimations(); // Implemented by subclasses
@@ -64,6 +78,29 @@ public abstract class SpriteEntity extends Entity {
 
     }
 
+    /**
+     * Re-enable a kept model and physics body at the current position. Subclasses that
+     * override this call super first.
+     */
+    protected void reinitializeModel() {
+        model.setName("SpriteEntity_" + entityId);
+        model.setLocalTranslation(position);
+
+        if (rigidBody != null && bulletAppState != null) {
+            // Collision size may have changed since the body was built
+            if (collisionShape == null || collisionShape.getRadius() != collisionRadius ||
+                    collisionShape.getHeight() != collisionHeight) {
+                collisionShape = new CapsuleCollisionShape(collisionRadius, collisionHeight);
+                rigidBody.setCollisionShape(collisionShape);
+            }
+            if (!bodyInPhysicsSpace) {
+                bulletAppState.getPhysicsSpace().add(rigidBody);
+                bodyInPhysicsSpace = true;
+            }
+            rigidBody.setPhysicsLocation(position);
+        }
+    }
+
     /**
      * SIMPLE: Create kinematic RigidBodyControl (can't be pushed, no complex collision)
      */
@@ -82,12 +119,15 @@ public abstract class SpriteEntity extends Entity {
             // Create RigidBodyControl with mass=0 (kinematic)
             rigidBody = new RigidBodyControl(collisionShape, 0f);
             rigidBody.setKinematic(true);
+            rigidBody.setApplicationData(this); // Lets ray tests map the body back to its entity
+            CollisionGroups.assign(rigidBody, CollisionGroups.ENEMY);
 
             // Add to model FIRST
             model.addControl(rigidBody);
 
             // Add to physics space SECOND
             bulletAppState.getPhysicsSpace().add(rigidBody);
+            bodyInPhysicsSpace = true;
 
             // CRITICAL FIX: Set physics location AFTER adding to physics space
             rigidBody.setPhysicsLocation(position);
@@ -125,6 +165,7 @@ public abstract class SpriteEntity extends Entity {
 
         // 3. Get position from physics
         updatePositionFromPhysics();
+        onPositionUpdated();
 
         // 4. Update sprite animation
         if (spriteAnimator != null) {
@@ -137,6 +178,34 @@ public abstract class SpriteEntity extends Entity {
         }
     }
 
+    /**
+     * Sprite entities are throttled by distance from the camera
+     */
+    @Override
+    protected boolean usesUpdateLod() {
+        return true;
+    }
+
+    /**
+     * OPTIMIZATION: Far update - AI and movement only. Animation and billboarding are
+     * skipped since the sprite is too far away (or behind the camera) to notice.
+     */
+    @Override
+    protected void updateReduced(float tpf) {
+        if (!active || destroyed) return;
+
+        updateBehavior(tpf);
+        applyMovement(tpf);
+        updatePositionFromPhysics();
+        onPositionUpdated();
+    }
+
+    /**
+     * Hook called after the position has been read back from physics
+     */
+    protected void onPositionUpdated() {
+    }
+
     /**
      * SIMPLE: Move kinematic body with ground detection (unlimited step up/down)
      */
@@ -172,7 +241,7 @@ public abstract class SpriteEntity extends Entity {
         for (var result : results) {
             var hitObject = result.getCollisionObject();
 
-            if (hitObject != rigidBody && !isEntity(hitObject)) {
+            if (CollisionGroups.isWorld(hitObject)) {
                 return true; // Hit a wall
             }
         }
@@ -184,6 +253,13 @@ public abstract class SpriteEntity extends Entity {
      * ADDED: Simple ground detection using raycasting
      */
     private float findGroundLevel(Vector3f position) {
+        if (groundHeightField != null) {
+            float groundY = groundHeightField.sample(position.x, position.z, position.y + 1.5f);
+            if (!Float.isNaN(groundY)) {
+                return groundY; // Ray below is only for cells the field can't answer
+            }
+        }
+
         if (bulletAppState == null) {
             return position.y; // No physics, keep current height
         }
@@ -198,7 +274,7 @@ public abstract class SpriteEntity extends Entity {
             var hitObject = result.getCollisionObject();
 
             // Skip self and other entities - only hit world geometry
-            if (hitObject != rigidBody && !isEntity(hitObject)) {
+            if (CollisionGroups.isWorld(hitObject)) {
                 // Calculate hit point
                 float hitFraction = result.getHitFraction();
                 Vector3f rayDirection = rayEnd.subtract(rayStart);
@@ -211,19 +287,6 @@ public abstract class SpriteEntity extends Entity {
         return position.y; // No ground found, keep current height
     }
 
-    /**
-     * ADDED: Check if collision object is an entity (not world geometry)
-     */
-    private boolean isEntity(com.jme3.bullet.collision.PhysicsCollisionObject obj) {
-        Object userObject = obj.getUserObject();
-        if (userObject instanceof Node) {
-            Node spatial = (Node) userObject;
-            String name = spatial.getName();
-            return name != null && (name.contains("SpriteEntity") || name.contains("Player"));
-        }
-        return false;
-    }
-
     /**
      * Get position from physics body
      */
@@ -288,6 +351,13 @@ public abstract class SpriteEntity extends Entity {
         this.collisionRadius = Math.max(0.1f, radius);
         this.collisionHeight = Math.max(0.5f, height);}
 
+    /**
+     * Use baked map heights for ground snapping (null = ray test every move)
+     */
+    public void setGroundHeightField(GroundHeightField groundHeightField) {
+        this.groundHeightField = groundHeightField;
+    }
+
     /**
      * Enable/disable billboarding
      */
@@ -372,11 +442,16 @@ public abstract class SpriteEntity extends Entity {
     @Override
     public void onDestroy() {
         // Remove physics body
-        if (rigidBody != null && bulletAppState != null) {
+        if (rigidBody != null && bulletAppState != null && bodyInPhysicsSpace) {
             bulletAppState.getPhysicsSpace().remove(rigidBody);
-            rigidBody = null;
+            bodyInPhysicsSpace = false;
         }
 
+        // Pooled - keep the body and animator for the next spawn
+        if (keepResourcesOnDestroy) return;
+
+        rigidBody = null;
+
         // Cleanup sprite animator
         if (spriteAnimator != null) {
             spriteAnimator.cleanup();
@@ -384,6 +459,15 @@ public abstract class SpriteEntity extends Entity {
 
     }
 
+    /**
+     * Keep animator, material and physics body when destroyed so a pool can reuse them
+     */
+    public void setKeepResourcesOnDestroy(boolean keep) {
+        this.keepResourcesOnDestroy = keep;
+    }
+
+    public boolean isKeepResourcesOnDestroy() { return keepResourcesOnDestroy; }
+
     // ==== GETTERS ====
     public SpriteAnimator getSpriteAnimator() { return spriteAnimator; }
     public boolean isBillboardingEnabled() { return billboardingEnabled; }
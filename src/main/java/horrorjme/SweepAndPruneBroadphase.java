@@ -0,0 +1,217 @@
+package horrorjme;
+
+import java.util.Arrays;
+
+/**
+ * Sweep-and-prune broadphase over one horizontal axis.
+ *
+ * Entities are kept sorted by the minimum of their bounding interval on the sweep
+ * axis. Positions change little between frames, so the array stays nearly sorted and
+ * an incremental insertion sort is close to O(n). The sweep then only compares each
+ * entity against neighbours whose interval starts before its own ends, which stays
+ * cheap when entities bunch into a corridor or around the player - the case where a
+ * fixed grid cell fills up and degrades to all-pairs.
+ *
+ * The sweep axis (X or Z) follows the larger spread of entity positions, re-chosen
+ * every pass, so a corridor running along either axis still prunes well.
+ */
+public class SweepAndPruneBroadphase implements Broadphase {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private Entity[] sorted = new Entity[INITIAL_CAPACITY];
+    private float[] minKey = new float[INITIAL_CAPACITY];
+    private float[] maxKey = new float[INITIAL_CAPACITY];
+    private int size;
+
+    // Removals leave null holes that are compacted before the next sort
+    private int pendingRemovals;
+
+    private boolean sweepAlongX = true;
+
+    // Stats
+    private int lastSortSwaps;
+    private int axisSwitches;
+
+    @Override
+    public void add(Entity entity) {
+        if (entity.broadphaseIndex >= 0) return;
+
+        ensureCapacity(size + 1);
+        entity.broadphaseIndex = size;
+        sorted[size] = entity;
+        size++;
+        // Key is filled in at the start of the next pass; the insertion sort places it
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        int index = entity.broadphaseIndex;
+        if (index < 0 || index >= size || sorted[index] != entity) return;
+
+        sorted[index] = null;
+        entity.broadphaseIndex = -1;
+        pendingRemovals++;
+    }
+
+    @Override
+    public void update(Entity entity) {
+        // Keys are refreshed from entity positions every pass
+    }
+
+    @Override
+    public int collectPairs(PairVisitor visitor) {
+        if (pendingRemovals > 0) {
+            compact();
+        }
+
+        chooseAxis();
+        refreshKeys();
+        insertionSort();
+
+        int candidates = 0;
+        for (int i = 0; i < size; i++) {
+            Entity a = sorted[i];
+            if (!a.isActive() || a.isDestroyed()) continue;
+
+            float aMax = maxKey[i];
+            float aCross = crossAxis(a);
+            float aRadius = a.boundingRadius;
+
+            for (int j = i + 1; j < size; j++) {
+                // Sorted by min: once b starts after a ends, nothing further overlaps a
+                if (minKey[j] > aMax) break;
+
+                Entity b = sorted[j];
+                if (!b.isActive() || b.isDestroyed()) continue;
+
+                // Prune on the other horizontal axis before handing off to the narrow phase
+                float crossDelta = crossAxis(b) - aCross;
+                float reach = aRadius + b.boundingRadius;
+                if (crossDelta >= reach || crossDelta <= -reach) continue;
+
+                candidates++;
+                visitor.visit(a, b);
+            }
+        }
+
+        return candidates;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            if (sorted[i] != null) {
+                sorted[i].broadphaseIndex = -1;
+                sorted[i] = null;
+            }
+        }
+        size = 0;
+        pendingRemovals = 0;
+    }
+
+    @Override
+    public String getName() {
+        return "SweepAndPrune(" + (sweepAlongX ? "X" : "Z") + ")";
+    }
+
+    // ==== INTERNALS ====
+
+    private void compact() {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            Entity entity = sorted[read];
+            if (entity == null) continue;
+            sorted[write] = entity;
+            minKey[write] = minKey[read];
+            maxKey[write] = maxKey[read];
+            entity.broadphaseIndex = write;
+            write++;
+        }
+        Arrays.fill(sorted, write, size, null);
+        size = write;
+        pendingRemovals = 0;
+    }
+
+    /**
+     * Sweep along whichever horizontal axis has the larger positional variance
+     */
+    private void chooseAxis() {
+        if (size < 2) return;
+
+        double sumX = 0, sumZ = 0, sumXX = 0, sumZZ = 0;
+        for (int i = 0; i < size; i++) {
+            float x = sorted[i].position.x;
+            float z = sorted[i].position.z;
+            sumX += x;
+            sumZ += z;
+            sumXX += x * x;
+            sumZZ += z * z;
+        }
+        double varianceX = sumXX - sumX * sumX / size;
+        double varianceZ = sumZZ - sumZ * sumZ / size;
+
+        boolean alongX = varianceX >= varianceZ;
+        if (alongX != sweepAlongX) {
+            // The old order is useless on the new axis; the next sort pays for it once
+            sweepAlongX = alongX;
+            axisSwitches++;
+        }
+    }
+
+    private void refreshKeys() {
+        for (int i = 0; i < size; i++) {
+            Entity entity = sorted[i];
+            float center = sweepAlongX ? entity.position.x : entity.position.z;
+            minKey[i] = center - entity.boundingRadius;
+            maxKey[i] = center + entity.boundingRadius;
+        }
+    }
+
+    /**
+     * OPTIMIZATION: Insertion sort on nearly-sorted data is ~O(n) per frame
+     */
+    private void insertionSort() {
+        int swaps = 0;
+        for (int i = 1; i < size; i++) {
+            float key = minKey[i];
+            if (minKey[i - 1] <= key) continue;
+
+            Entity entity = sorted[i];
+            float max = maxKey[i];
+            int j = i - 1;
+            while (j >= 0 && minKey[j] > key) {
+                sorted[j + 1] = sorted[j];
+                minKey[j + 1] = minKey[j];
+                maxKey[j + 1] = maxKey[j];
+                sorted[j + 1].broadphaseIndex = j + 1;
+                j--;
+                swaps++;
+            }
+            sorted[j + 1] = entity;
+            minKey[j + 1] = key;
+            maxKey[j + 1] = max;
+            entity.broadphaseIndex = j + 1;
+        }
+        lastSortSwaps = swaps;
+    }
+
+    private float crossAxis(Entity entity) {
+        return sweepAlongX ? entity.position.z : entity.position.x;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= sorted.length) return;
+        int capacity = Math.max(required, sorted.length * 2);
+        sorted = Arrays.copyOf(sorted, capacity);
+        minKey = Arrays.copyOf(minKey, capacity);
+        maxKey = Arrays.copyOf(maxKey, capacity);
+    }
+
+    // ==== STATS ====
+
+    public int getSize() { return size - pendingRemovals; }
+    public int getLastSortSwaps() { return lastSortSwaps; }
+    public int getAxisSwitches() { return axisSwitches; }
+    public boolean isSweepAlongX() { return sweepAlongX; }
+}
@@ -0,0 +1,378 @@
+package horrorjme;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.bounding.BoundingBox;
+import com.jme3.material.Material;
+import com.jme3.material.RenderState;
+import com.jme3.math.ColorRGBA;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.RenderManager;
+import com.jme3.renderer.ViewPort;
+import com.jme3.renderer.queue.RenderQueue;
+import com.jme3.scene.Geometry;
+import com.jme3.scene.Mesh;
+import com.jme3.scene.Node;
+import com.jme3.scene.Spatial;
+import com.jme3.scene.VertexBuffer;
+import com.jme3.scene.control.AbstractControl;
+import com.jme3.util.BufferUtils;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Draws every live bullet tracer as one line-list mesh - one draw call and one material
+ * for all tracers instead of a Geometry and Material per bullet.
+ *
+ * Each tracer owns a slot in dense primitive arrays (head position, direction, streak
+ * length, colour). Tracers write their slot while updating; the vertex buffers are
+ * refilled once per frame from the arrays (during the scene's logical update, after the
+ * game update). Streaks fade from the tracer colour at the head to transparent at the tail.
+ *
+ * Hitscan tracers are purely visual, so they skip the entity system: fireCosmetic()
+ * claims a slot with no owner and the batch moves, fades and frees it itself, in the
+ * same frame the shot is fired.
+ */
+public class TracerBatchRenderer {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    private static final float DEFAULT_STREAK_LENGTH = 1.5f;
+    private static final float COSMETIC_FADE_TIME = 0.5f; // Same fade as BulletTracer
+
+    private final Node parentNode;
+    private final Geometry geometry;
+    private final Mesh mesh;
+    private final BoundingBox bound = new BoundingBox();
+    private final Vector3f boundMin = new Vector3f();
+    private final Vector3f boundMax = new Vector3f();
+
+    // Per-streak state, dense: slots [0, count) are live
+    private BulletTracer[] owners;
+    private float[] headX, headY, headZ;
+    private float[] dirX, dirY, dirZ;
+    private float[] length;
+    private float[] colorR, colorG, colorB, colorA;
+    // Motion of owner-less (hitscan) streaks
+    private float[] speed, travelled, impactDistance, age, lifeTime;
+    private ColorRGBA[] impactColor;
+    private int count;
+    private int uploadedCount; // Streaks written to the buffers last frame
+
+    private FloatBuffer positionData;
+    private FloatBuffer colorData;
+    private float streakLength = DEFAULT_STREAK_LENGTH;
+
+    // Stats
+    private int peakCount;
+    private long cosmeticFired;
+
+    public TracerBatchRenderer(AssetManager assetManager, Node parentNode) {
+        this.parentNode = parentNode;
+
+        mesh = new Mesh();
+        mesh.setMode(Mesh.Mode.Lines);
+        allocate(DEFAULT_CAPACITY);
+
+        Material material = new Material(assetManager, "Common/MatDefs/Misc/Unshaded.j3md");
+        material.setBoolean("VertexColor", true);
+        material.getAdditionalRenderState().setBlendMode(RenderState.BlendMode.Alpha);
+        material.getAdditionalRenderState().setDepthWrite(false);
+        material.setTransparent(true);
+
+        geometry = new Geometry("TracerBatch", mesh);
+        geometry.setMaterial(material);
+        geometry.setQueueBucket(RenderQueue.Bucket.Transparent);
+        geometry.setShadowMode(RenderQueue.ShadowMode.Off);
+        geometry.setCullHint(Spatial.CullHint.Always); // Nothing to draw yet
+        geometry.addControl(new UploadControl());
+
+        parentNode.attachChild(geometry);
+    }
+
+    /**
+     * Claim a streak slot for a tracer
+     */
+    public int acquire(BulletTracer tracer) {
+        if (count == owners.length) {
+            grow();
+        }
+        int slot = count++;
+        owners[slot] = tracer;
+        colorA[slot] = 0f; // Invisible until the tracer writes it
+        length[slot] = 0f;
+        peakCount = Math.max(peakCount, count);
+        return slot;
+    }
+
+    /**
+     * Free a slot. The last streak moves into it, so its owner is told its new slot.
+     */
+    public void release(int slot) {
+        if (slot < 0 || slot >= count) return;
+
+        int last = --count;
+        if (slot != last) {
+            owners[slot] = owners[last];
+            headX[slot] = headX[last];
+            headY[slot] = headY[last];
+            headZ[slot] = headZ[last];
+            dirX[slot] = dirX[last];
+            dirY[slot] = dirY[last];
+            dirZ[slot] = dirZ[last];
+            length[slot] = length[last];
+            colorR[slot] = colorR[last];
+            colorG[slot] = colorG[last];
+            colorB[slot] = colorB[last];
+            colorA[slot] = colorA[last];
+            speed[slot] = speed[last];
+            travelled[slot] = travelled[last];
+            impactDistance[slot] = impactDistance[last];
+            age[slot] = age[last];
+            lifeTime[slot] = lifeTime[last];
+            impactColor[slot] = impactColor[last];
+            if (owners[slot] != null) {
+                owners[slot].setBatchSlot(slot);
+            }
+        }
+        owners[last] = null;
+        impactColor[last] = null;
+    }
+
+    /**
+     * Write a streak: head at position, trailing back along the (unit) direction
+     */
+    public void setStreak(int slot, Vector3f head, Vector3f direction, float maxLength, ColorRGBA color, float alpha) {
+        headX[slot] = head.x;
+        headY[slot] = head.y;
+        headZ[slot] = head.z;
+        dirX[slot] = direction.x;
+        dirY[slot] = direction.y;
+        dirZ[slot] = direction.z;
+        length[slot] = Math.min(streakLength, maxLength);
+        colorR[slot] = color.r;
+        colorG[slot] = color.g;
+        colorB[slot] = color.b;
+        colorA[slot] = alpha;
+    }
+
+    /**
+     * Fire a visual-only tracer owned by the batch: it flies from start along the (unit)
+     * direction, stops at the impact distance and fades out by the end of its lifetime.
+     * @param hitColor colour to switch to on reaching the impact (null = keep colour)
+     */
+    public void fireCosmetic(Vector3f start, Vector3f direction, float flySpeed, float impact,
+                             float life, ColorRGBA color, ColorRGBA hitColor) {
+        int slot = acquire(null);
+        headX[slot] = start.x;
+        headY[slot] = start.y;
+        headZ[slot] = start.z;
+        dirX[slot] = direction.x;
+        dirY[slot] = direction.y;
+        dirZ[slot] = direction.z;
+        colorR[slot] = color.r;
+        colorG[slot] = color.g;
+        colorB[slot] = color.b;
+        colorA[slot] = 1f;
+        speed[slot] = flySpeed;
+        travelled[slot] = 0f;
+        impactDistance[slot] = Math.max(0.05f, impact);
+        age[slot] = 0f;
+        lifeTime[slot] = life;
+        impactColor[slot] = hitColor;
+        cosmeticFired++;
+    }
+
+    /**
+     * Move and fade owner-less streaks, freeing finished ones. Walks backwards so the
+     * swap-with-last in release() only moves streaks already advanced this frame.
+     */
+    private void advanceCosmetic(float tpf) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (owners[i] != null) continue;
+
+            age[i] += tpf;
+            if (age[i] >= lifeTime[i]) {
+                release(i);
+                continue;
+            }
+
+            if (travelled[i] < impactDistance[i]) {
+                float step = Math.min(speed[i] * tpf, impactDistance[i] - travelled[i]);
+                headX[i] += dirX[i] * step;
+                headY[i] += dirY[i] * step;
+                headZ[i] += dirZ[i] * step;
+                travelled[i] += step;
+
+                if (travelled[i] >= impactDistance[i]) {
+                    // Reached the impact point - start fading right away
+                    ColorRGBA hitColor = impactColor[i];
+                    if (hitColor != null) {
+                        colorR[i] = hitColor.r;
+                        colorG[i] = hitColor.g;
+                        colorB[i] = hitColor.b;
+                    }
+                    age[i] = Math.max(age[i], lifeTime[i] - COSMETIC_FADE_TIME);
+                }
+            }
+
+            length[i] = Math.min(streakLength, travelled[i]);
+            float fadeStart = lifeTime[i] - COSMETIC_FADE_TIME;
+            colorA[i] = age[i] > fadeStart ? Math.max(0f, (lifeTime[i] - age[i]) / COSMETIC_FADE_TIME) : 1f;
+        }
+    }
+
+    /**
+     * Refill the vertex buffers from the slot arrays
+     */
+    private void upload() {
+        if (count == 0 && uploadedCount == 0) {
+            geometry.setCullHint(Spatial.CullHint.Always);
+            return;
+        }
+
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+
+        positionData.clear();
+        colorData.clear();
+        for (int i = 0; i < count; i++) {
+            float hx = headX[i], hy = headY[i], hz = headZ[i];
+            float tx = hx - dirX[i] * length[i];
+            float ty = hy - dirY[i] * length[i];
+            float tz = hz - dirZ[i] * length[i];
+
+            positionData.put(hx).put(hy).put(hz).put(tx).put(ty).put(tz);
+            colorData.put(colorR[i]).put(colorG[i]).put(colorB[i]).put(colorA[i]);
+            colorData.put(colorR[i]).put(colorG[i]).put(colorB[i]).put(0f);
+
+            minX = Math.min(minX, Math.min(hx, tx));
+            minY = Math.min(minY, Math.min(hy, ty));
+            minZ = Math.min(minZ, Math.min(hz, tz));
+            maxX = Math.max(maxX, Math.max(hx, tx));
+            maxY = Math.max(maxY, Math.max(hy, ty));
+            maxZ = Math.max(maxZ, Math.max(hz, tz));
+        }
+
+        // Collapse streaks freed since the last upload into invisible points
+        for (int i = count; i < uploadedCount; i++) {
+            positionData.put(0f).put(0f).put(0f).put(0f).put(0f).put(0f);
+            colorData.put(0f).put(0f).put(0f).put(0f).put(0f).put(0f).put(0f).put(0f);
+        }
+        uploadedCount = count;
+
+        positionData.clear();
+        colorData.clear();
+        mesh.getBuffer(VertexBuffer.Type.Position).updateData(positionData);
+        mesh.getBuffer(VertexBuffer.Type.Color).updateData(colorData);
+
+        if (count == 0) {
+            geometry.setCullHint(Spatial.CullHint.Always);
+            return;
+        }
+
+        bound.setMinMax(boundMin.set(minX, minY, minZ), boundMax.set(maxX, maxY, maxZ));
+        geometry.setModelBound(bound); // Not updateModelBound() - that would scan the whole buffer
+        geometry.setCullHint(Spatial.CullHint.Dynamic);
+    }
+
+    private void allocate(int capacity) {
+        owners = new BulletTracer[capacity];
+        headX = new float[capacity];
+        headY = new float[capacity];
+        headZ = new float[capacity];
+        dirX = new float[capacity];
+        dirY = new float[capacity];
+        dirZ = new float[capacity];
+        length = new float[capacity];
+        colorR = new float[capacity];
+        colorG = new float[capacity];
+        colorB = new float[capacity];
+        colorA = new float[capacity];
+        speed = new float[capacity];
+        travelled = new float[capacity];
+        impactDistance = new float[capacity];
+        age = new float[capacity];
+        lifeTime = new float[capacity];
+        impactColor = new ColorRGBA[capacity];
+        createBuffers(capacity);
+    }
+
+    private void grow() {
+        int capacity = owners.length * 2;
+        owners = Arrays.copyOf(owners, capacity);
+        headX = Arrays.copyOf(headX, capacity);
+        headY = Arrays.copyOf(headY, capacity);
+        headZ = Arrays.copyOf(headZ, capacity);
+        dirX = Arrays.copyOf(dirX, capacity);
+        dirY = Arrays.copyOf(dirY, capacity);
+        dirZ = Arrays.copyOf(dirZ, capacity);
+        length = Arrays.copyOf(length, capacity);
+        colorR = Arrays.copyOf(colorR, capacity);
+        colorG = Arrays.copyOf(colorG, capacity);
+        colorB = Arrays.copyOf(colorB, capacity);
+        colorA = Arrays.copyOf(colorA, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        travelled = Arrays.copyOf(travelled, capacity);
+        impactDistance = Arrays.copyOf(impactDistance, capacity);
+        age = Arrays.copyOf(age, capacity);
+        lifeTime = Arrays.copyOf(lifeTime, capacity);
+        impactColor = Arrays.copyOf(impactColor, capacity);
+        createBuffers(capacity);
+        uploadedCount = 0; // New buffers start zeroed
+
+        System.out.println("TracerBatchRenderer: grown to " + capacity + " streaks");
+    }
+
+    private void createBuffers(int capacity) {
+        // Two vertices (head, tail) per streak
+        positionData = BufferUtils.createFloatBuffer(capacity * 2 * 3);
+        colorData = BufferUtils.createFloatBuffer(capacity * 2 * 4);
+
+        mesh.clearBuffer(VertexBuffer.Type.Position);
+        mesh.clearBuffer(VertexBuffer.Type.Color);
+        mesh.setBuffer(VertexBuffer.Type.Position, 3, positionData);
+        mesh.setBuffer(VertexBuffer.Type.Color, 4, colorData);
+        mesh.getBuffer(VertexBuffer.Type.Position).setUsage(VertexBuffer.Usage.Stream);
+        mesh.getBuffer(VertexBuffer.Type.Color).setUsage(VertexBuffer.Usage.Stream);
+        mesh.updateCounts();
+    }
+
+    /**
+     * Uploads after all game logic for the frame has run
+     */
+    private class UploadControl extends AbstractControl {
+        @Override
+        protected void controlUpdate(float tpf) {
+            advanceCosmetic(tpf);
+            upload();
+        }
+
+        @Override
+        protected void controlRender(RenderManager rm, ViewPort vp) {
+        }
+    }
+
+    /**
+     * Maximum streak length behind each tracer (units)
+     */
+    public void setStreakLength(float streakLength) {
+        this.streakLength = Math.max(0.05f, streakLength);
+    }
+
+    public void cleanup() {
+        parentNode.detachChild(geometry);
+        Arrays.fill(owners, null);
+        Arrays.fill(impactColor, null);
+        count = 0;
+    }
+
+    // ==== STATS ====
+
+    public int getStreakCount() { return count; }
+    public int getCapacity() { return owners.length; }
+    public int getPeakCount() { return peakCount; }
+
+    public String getStatistics() {
+        return String.format("TracerBatchRenderer: %d streaks (peak %d, capacity %d) in 1 draw call, %d hitscan tracers fired",
+                count, peakCount, owners.length, cosmeticFired);
+    }
+}
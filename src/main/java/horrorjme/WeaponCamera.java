@@ -128,6 +128,17 @@ public class WeaponCamera {
         return weaponCamera.getDirection().clone();
     }
 
+    /**
+     * OPTIMIZATION: Allocation-free variants for the per-shot path
+     */
+    public Vector3f getFiringPosition(Vector3f store) {
+        return store.set(weaponCamera.getLocation());
+    }
+
+    public Vector3f getFiringDirection(Vector3f store) {
+        return store.set(weaponCamera.getDirection());
+    }
+
     // ==== CONFIGURATION METHODS ====
 
     /**
@@ -3,6 +3,7 @@ package horrorjme;
 import com.jme3.asset.AssetManager;
 import com.jme3.bullet.BulletAppState;
 import com.jme3.math.ColorRGBA;
+import com.jme3.math.FastMath;
 import com.jme3.math.Vector3f;
 import com.jme3.renderer.Camera;
 import com.jme3.scene.Node;
@@ -36,6 +37,22 @@ public class WeaponEffectsManager {
         }
     }
 
+    /**
+     * How spent casings are simulated
+     */
+    public enum CasingMode {
+        PARTICLES,  // CPU ballistic particles, one batched mesh (default)
+        PHYSICS     // One Bullet rigid body per casing
+    }
+
+    /**
+     * How shots find their targets
+     */
+    public enum FireMode {
+        HITSCAN,    // Resolved at trigger time by ray test; tracers are cosmetic (default)
+        PROJECTILE  // Tracers fly and deal damage on collision
+    }
+
     public void setCurrentHorrorWeapon(horrorjme.WeaponType horrorWeapon) {
         switch (horrorWeapon) {
             case STEN_GUN:
@@ -58,6 +75,32 @@ public class WeaponEffectsManager {
     private boolean shellCasingsEnabled = true;
     private boolean bulletTracersEnabled = true;
 
+    // OPTIMIZATION: Pooled tracers and casings - zero allocations per shot after warm-up
+    private static final int TRACER_POOL_CAPACITY = 64;  // Overflow tracers are allocated, never evicted mid-flight
+    private static final int CASING_POOL_CAPACITY = 48;  // Oldest casing is recycled when full
+    private static final int POOL_PREWARM = 16;
+    private EntityPool<BulletTracer> tracerPool;
+    private EntityPool<ShellCasing> casingPool;
+    private TracerBatchRenderer tracerBatch; // OPTIMIZATION: All tracers in one draw call
+
+    // OPTIMIZATION: Casings as CPU particles by default - no rigid bodies in the physics step
+    private CasingMode casingMode = CasingMode.PARTICLES;
+    private ShellCasingParticles casingParticles;
+    private PhysicsStepTimer physicsStepTimer; // Compares step time between casing modes
+
+    // OPTIMIZATION: Hitscan - one ray test per pellet at trigger time, no per-frame tracer scans
+    private static final int SHOTGUN_PELLETS = 8;
+    private static final float SHOTGUN_SPREAD = 0.06f;
+    private static final float REVOLVER_SPEED = 75f;   // Pistol round, slower and harder hitting
+    private static final float REVOLVER_DAMAGE = 30f;
+    private FireMode fireMode = FireMode.HITSCAN;
+    private HitscanResolver hitscanResolver;
+    private final Vector3f pelletDirection = new Vector3f();
+    private final Vector3f firingPosition = new Vector3f();
+    private final Vector3f firingDirection = new Vector3f();
+    private final Vector3f spawnPosition = new Vector3f();
+    private final Vector3f ejectionVelocity = new Vector3f();
+
     public WeaponEffectsManager(AssetManager assetManager, Node rootNode, Node guiNode,
                                 Camera camera, BulletAppState bulletAppState, EntityManager entityManager) {
         this.assetManager = assetManager;
@@ -68,88 +111,145 @@ public class WeaponEffectsManager {
         this.weaponCamera = new WeaponCamera(camera);
         this.weaponCrosshair = new WeaponCrosshair(assetManager, guiNode, camera, weaponCamera);
 
+        if (entityManager != null) {
+            tracerBatch = new TracerBatchRenderer(assetManager, rootNode);
+            tracerPool = new EntityPool<>("Tracer", BulletTracer.class,
+                    this::createBatchedTracer, TRACER_POOL_CAPACITY, false, entityManager);
+            casingPool = new EntityPool<>("Casing", ShellCasing.class,
+                    () -> new ShellCasing(assetManager, bulletAppState), CASING_POOL_CAPACITY, true, entityManager);
+            tracerPool.prewarm(POOL_PREWARM);
+            casingPool.prewarm(POOL_PREWARM);
+
+            hitscanResolver = new HitscanResolver(bulletAppState, entityManager);
+        }
+
+        casingParticles = new ShellCasingParticles(assetManager, rootNode, bulletAppState);
+
+        if (bulletAppState != null && bulletAppState.getPhysicsSpace() != null) {
+            physicsStepTimer = new PhysicsStepTimer();
+            physicsStepTimer.setLabel(casingMode.name());
+            bulletAppState.getPhysicsSpace().addTickListener(physicsStepTimer);
+        }
     }
 
     /**
      * Fire weapon using legacy camera-based direction.
      */
     public void fireWeapon() {
-        Vector3f weaponPosition = getWeaponWorldPosition();
-        Vector3f cameraDirection = camera.getDirection().clone();
+        // Both effects spawn from the weapon camera
+        weaponCamera.getFiringPosition(firingPosition);
+        weaponCamera.getFiringDirection(firingDirection);
 
         if (shellCasingsEnabled) {
-            ejectShellCasing(weaponPosition, cameraDirection);
+            ejectShellCasing(firingPosition, firingDirection);
+        }
+
+        if (fireMode == FireMode.HITSCAN && hitscanResolver != null) {
+            fireHitscan(firingPosition, firingDirection);
+        } else if (bulletTracersEnabled) {
+            fireBulletTracer(firingPosition, firingDirection);
         }
+    }
 
-        if (bulletTracersEnabled) {
-            fireBulletTracer(weaponPosition, cameraDirection);
+    /**
+     * Resolve the shot now - all pellets are traced, then damage is applied once per target
+     */
+    private void fireHitscan(Vector3f firingPos, Vector3f firingDir) {
+        BulletTracer.BulletPreset preset = presetForWeaponType();
+        float range = preset.range;
+        float damage = currentWeaponType == WeaponType.REVOLVER ? REVOLVER_DAMAGE : preset.damage;
+        float speed = currentWeaponType == WeaponType.REVOLVER ? REVOLVER_SPEED : preset.speed;
+
+        int pellets = currentWeaponType == WeaponType.SHOTGUN ? SHOTGUN_PELLETS : 1;
+        hitscanResolver.beginShot();
+        for (int i = 0; i < pellets; i++) {
+            pelletDirection.set(firingDir);
+            if (pellets > 1) {
+                pelletDirection.addLocal(
+                        (FastMath.nextRandomFloat() - 0.5f) * 2f * SHOTGUN_SPREAD,
+                        (FastMath.nextRandomFloat() - 0.5f) * 2f * SHOTGUN_SPREAD,
+                        (FastMath.nextRandomFloat() - 0.5f) * 2f * SHOTGUN_SPREAD).normalizeLocal();
+            }
+
+            float impactDistance = hitscanResolver.tracePellet(firingPos, pelletDirection, range, damage);
+
+            if (bulletTracersEnabled) {
+                // Tracer starts 0.5 ahead of the weapon (see fireBulletTracer)
+                // OPTIMIZATION: Drawn straight into the batch - no entity, no spawn queue, visible this frame
+                spawnPosition.set(pelletDirection).multLocal(0.5f).addLocal(firingPos);
+                boolean hitEnemy = hitscanResolver.getLastHitEntity() != null;
+                tracerBatch.fireCosmetic(spawnPosition, pelletDirection, speed, impactDistance - 0.5f,
+                        preset.lifeTime, preset.getColor(), hitEnemy ? BulletTracer.HIT_COLOR : null);
+            }
         }
+        hitscanResolver.applyShot();
     }
 
     /**
      * Fires a bullet tracer.
      */
-    private void fireBulletTracer(Vector3f weaponPosition, Vector3f direction) {
+    private void fireBulletTracer(Vector3f firingPos, Vector3f firingDir) {
         if (entityManager != null) {
-            // OLD CODE (comment out):
-            // BulletTracer tracer = BulletTracer.createBulletTracer(weaponPosition, direction, assetManager);
-
-            // NEW CODE (replace with):
-            Vector3f firingPos = weaponCamera.getFiringPosition();
-            Vector3f firingDir = weaponCamera.getFiringDirection();
-            BulletTracer tracer = BulletTracer.createBulletTracer(firingPos, firingDir, assetManager);
+            // Spawn slightly forward of the weapon (same as BulletTracer.createBulletTracer)
+            spawnPosition.set(firingDir).multLocal(0.5f).addLocal(firingPos);
+            BulletTracer tracer = tracerPool.acquire();
+            tracer.launch(spawnPosition, firingDir);
 
             configureBulletForWeaponType(tracer);
-            entityManager.addEntity(tracer);
+            entityManager.queueSpawn(tracer);
         } else {
             System.err.println("Cannot fire bullet tracer - entityManager is null");
         }
     }
 
+    private BulletTracer createBatchedTracer() {
+        BulletTracer tracer = new BulletTracer(assetManager);
+        tracer.setBatchRenderer(tracerBatch);
+        return tracer;
+    }
+
     /**
-     * Configure bullet properties based on current weapon type.
+     * Round fired by the current weapon type
      */
-    private void configureBulletForWeaponType(BulletTracer bullet) {
+    private BulletTracer.BulletPreset presetForWeaponType() {
         switch (currentWeaponType) {
             case RIFLE:
             case SMG:
-                bullet.setBulletPreset(BulletTracer.BulletPreset.FAST_RIFLE);
-                break;
-
+                return BulletTracer.BulletPreset.FAST_RIFLE;
+            case SHOTGUN:
+                return BulletTracer.BulletPreset.SHOTGUN_PELLET;
             case REVOLVER:
-                bullet.setBulletPreset(BulletTracer.BulletPreset.PISTOL_ROUND);
-                bullet.setBulletSpeed(75f); // Revolver speed
-                bullet.setBulletDamage(30f); // Higher damage than regular pistol
-                break;
-
             case PISTOL:
-                bullet.setBulletPreset(BulletTracer.BulletPreset.PISTOL_ROUND);
-                break;
-
-            case SHOTGUN:
-                bullet.setBulletPreset(BulletTracer.BulletPreset.SHOTGUN_PELLET);
-                break;
-
             default:
-                bullet.setBulletPreset(BulletTracer.BulletPreset.PISTOL_ROUND);
-                break;
+                return BulletTracer.BulletPreset.PISTOL_ROUND;
         }
     }
 
     /**
-     * Eject shell casing.
+     * Configure bullet properties based on current weapon type.
      */
-    private void ejectShellCasing(Vector3f weaponPosition, Vector3f direction) {
-        if (bulletAppState != null && entityManager != null) {
-            // OLD CODE (comment out):
-            // ShellCasing shell = ShellCasing.createShellCasing(weaponPosition, direction, assetManager, bulletAppState);
-
-            // NEW CODE (replace with):
-            Vector3f firingPos = weaponCamera.getFiringPosition();
-            Vector3f firingDir = weaponCamera.getFiringDirection();
-            ShellCasing shell = ShellCasing.createShellCasing(firingPos, firingDir, assetManager, bulletAppState);
+    private void configureBulletForWeaponType(BulletTracer bullet) {
+        bullet.setBulletPreset(presetForWeaponType());
+        if (currentWeaponType == WeaponType.REVOLVER) {
+            bullet.setBulletSpeed(REVOLVER_SPEED);
+            bullet.setBulletDamage(REVOLVER_DAMAGE); // Higher damage than regular pistol
+        }
+    }
 
-            entityManager.addEntity(shell);
+    /**
+     * Eject shell casing.
+     */
+    private void ejectShellCasing(Vector3f firingPos, Vector3f firingDir) {
+        if (casingMode == CasingMode.PARTICLES) {
+            ShellCasing.computeEjection(firingPos, firingDir, spawnPosition, ejectionVelocity);
+            casingParticles.emit(spawnPosition, ejectionVelocity);
+        } else if (bulletAppState != null && entityManager != null) {
+            ShellCasing.computeEjection(firingPos, firingDir, spawnPosition, ejectionVelocity);
+            ShellCasing shell = casingPool.acquire();
+            if (shell == null) return; // Oldest casing couldn't be recycled this frame
+
+            shell.launch(spawnPosition, ejectionVelocity);
+            entityManager.queueSpawn(shell);
         } else {
             System.err.println("Cannot eject shell casing - physics or entityManager is null");
         }
@@ -180,26 +280,13 @@ public class WeaponEffectsManager {
     }
 
 
-    /**
-     * Calculate weapon position in world space.
-     */
-    private Vector3f getWeaponWorldPosition() {
-        Vector3f cameraPos = camera.getLocation().clone();
-        Vector3f offset = currentWeaponType.defaultMuzzleOffset;
-
-        Vector3f forward = camera.getDirection().mult(offset.z);
-        Vector3f right = camera.getLeft().negate().mult(offset.x);
-        Vector3f vertical = Vector3f.UNIT_Y.mult(-offset.y);
-
-        return cameraPos.add(forward).add(right).add(vertical);
-    }
-
     /**
      * Update method
      */
     public void update(float tpf) {
         weaponCamera.update(tpf);
         weaponCrosshair.update(tpf);
+        casingParticles.update(tpf);
 
     }
 
@@ -212,6 +299,66 @@ public class WeaponEffectsManager {
         this.bulletTracersEnabled = enabled;
     }
 
+    public void setFireMode(FireMode mode) {
+        this.fireMode = mode;
+        System.out.println("WeaponEffectsManager: Fire mode " + mode);
+    }
+
+    public FireMode getFireMode() {
+        return fireMode;
+    }
+
+    public String getHitscanStatistics() {
+        return hitscanResolver != null ? hitscanResolver.getStatistics() : "HitscanResolver: not available";
+    }
+
+    /**
+     * Switch casing simulation. Casings already in the world finish in their old mode.
+     */
+    public void setCasingMode(CasingMode mode) {
+        this.casingMode = mode;
+        if (physicsStepTimer != null) {
+            physicsStepTimer.setLabel(mode.name());
+        }
+        System.out.println("WeaponEffectsManager: Casing mode " + mode);
+    }
+
+    public CasingMode getCasingMode() {
+        return casingMode;
+    }
+
+    /**
+     * Physics step time per casing mode, plus particle stats
+     */
+    public String getCasingModeReport() {
+        String steps = physicsStepTimer != null ? physicsStepTimer.getReport() : "PhysicsStepTimer: no physics";
+        return steps + "\n" + casingParticles.getStatistics();
+    }
+
+    /**
+     * Maximum rigid body shell casings in the world (PHYSICS mode) - the oldest is recycled beyond this
+     */
+    public void setShellCasingCap(int cap) {
+        if (casingPool != null) {
+            casingPool.setCapacity(cap);
+        }
+    }
+
+    /**
+     * Tracers kept for reuse (more may fly at once; the extras aren't pooled)
+     */
+    public void setTracerPoolCapacity(int capacity) {
+        if (tracerPool != null) {
+            tracerPool.setCapacity(capacity);
+        }
+    }
+
+    public String getPoolStatistics() {
+        if (tracerPool == null) return "Effect pools disabled (no EntityManager)\n" + casingParticles.getStatistics();
+        return tracerPool.getStatistics() + "\n" + casingPool.getStatistics() + "\n" + tracerBatch.getStatistics()
+                + "\n" + casingParticles.getStatistics();
+    }
+
     // ==== GETTERS ====
     public WeaponType getCurrentWeaponType() {
         return currentWeaponType;
@@ -254,6 +401,18 @@ public class WeaponEffectsManager {
         if (weaponCrosshair != null) {
             weaponCrosshair.cleanup();
         }
+        if (tracerPool != null) {
+            tracerPool.dispose();
+            casingPool.dispose();
+            tracerBatch.cleanup();
+        }
+        if (physicsStepTimer != null) {
+            System.out.println(getCasingModeReport());
+            if (bulletAppState.getPhysicsSpace() != null) {
+                bulletAppState.getPhysicsSpace().removeTickListener(physicsStepTimer);
+            }
+        }
+        casingParticles.cleanup();
 
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package horrorjme;
 
 import com.jme3.asset.AssetManager;
 import com.jme3.bullet.BulletAppState;
+import com.jme3.math.FastMath;
 import com.jme3.math.Vector2f;    // For quadSize
 import com.jme3.math.Vector3f;   // For spriteOffset
 import com.jme3.renderer.Camera;
@@ -101,6 +102,19 @@ public class ZombieEnemy extends SpriteEntity {
     // Movement
     private Vector3f desiredDirection = new Vector3f();
 
+    // Navigation (classic AI path - simulated zombies keep their path in the simulation)
+    private NavPathService navigation;
+    private final NavPath navPath = new NavPath();
+    private FlowField flowField;
+
+    // Crowd offset from CrowdSteering, blended into the path direction (XZ)
+    private float crowdX, crowdZ;
+
+    // OPTIMIZATION: When attached, AI state lives in the simulation's arrays and
+    // this object is a view over its slot (see ZombieSimulation)
+    ZombieSimulation simulation;
+    int simSlot = -1;
+
     public ZombieEnemy(Vector3f position, AssetManager assetManager, Camera camera, BulletAppState bulletAppState) {
         super(EntityType.ENEMY, position, assetManager, camera, bulletAppState);
 
@@ -170,12 +184,13 @@ public class ZombieEnemy extends SpriteEntity {
      */
     private void applySpriteScaling() {
         if (spriteAnimator != null) {
-            // Get current auto-sized dimensions
-            var currentSize = spriteAnimator.getQuadSize();
-            if (currentSize != null) {
+            // FIXED: Scale from the texture size, not the current (already scaled) size -
+            // repeated calls used to compound the scale
+            var baseSize = spriteAnimator.getTextureQuadSize();
+            if (baseSize != null) {
                 // Apply zombie scale factor
-                float newWidth = currentSize.x * spriteScale;
-                float newHeight = currentSize.y * spriteScale;
+                float newWidth = baseSize.x * spriteScale;
+                float newHeight = baseSize.y * spriteScale;
 
                 spriteAnimator.setQuadSize(newWidth, newHeight);}
 
@@ -188,8 +203,21 @@ public class ZombieEnemy extends SpriteEntity {
         }
     }
 
+    @Override
+    protected void onPositionUpdated() {
+        // Mirror the physics position into the simulation for the next think step
+        if (simulation != null) {
+            simulation.setPosition(simSlot, position.x, position.y, position.z);
+        }
+    }
+
     @Override
     protected void updateBehavior(float tpf) {
+        if (simulation != null) {
+            applySimulation();
+            return;
+        }
+
         // Handle death state specially
         if (currentState == ZombieState.DEAD) {
             deathTimer += tpf;
@@ -200,8 +228,10 @@ public class ZombieEnemy extends SpriteEntity {
             if (deathTimer >= DEATH_ANIMATION_TIME) {
                 if (!destroyed) {
                     System.out.println("Zombie " + entityId + " death animation complete - destroying");
-                    destroy();
+                    requestDestroy();
                 }
+            } else {
+                sleepCorpseIfDistant();
             }
             return; // Don't do normal AI when dead
         }
@@ -210,7 +240,70 @@ public class ZombieEnemy extends SpriteEntity {
         lastAttackTime += tpf;
         updateAI(tpf);
         updateAnimation();
-        velocity.set(desiredDirection.mult(speed));
+        applyMovement(desiredDirection.x, desiredDirection.z);
+    }
+
+    /**
+     * Apply phase for a simulated zombie - the think step already ran the state
+     * machine, so only act on its results here
+     */
+    private void applySimulation() {
+        if (simulation.getState(simSlot) == ZombieState.DEAD) {
+            velocity.set(0, 0, 0);
+
+            if (simulation.getDeathTimer(simSlot) >= DEATH_ANIMATION_TIME && !destroyed) {
+                System.out.println("Zombie " + entityId + " death animation complete - destroying");
+                requestDestroy();
+            } else {
+                sleepCorpseIfDistant();
+            }
+            return;
+        }
+
+        if (simulation.consumeAttackIntent(simSlot)) {
+            performAttack();
+        }
+        updateAnimation();
+        applyMovement(simulation.getDirectionX(simSlot), simulation.getDirectionZ(simSlot));
+    }
+
+    /**
+     * Set velocity from the AI direction plus the crowd offset. Walking zombies bend
+     * around each other at full speed; standing ones (attacking) only get nudged
+     * apart at half speed when crowded.
+     */
+    private void applyMovement(float directionX, float directionZ) {
+        boolean walking = directionX * directionX + directionZ * directionZ > 1e-6f;
+        float x = directionX + crowdX;
+        float z = directionZ + crowdZ;
+        float lengthSquared = x * x + z * z;
+
+        if (lengthSquared < 1e-4f) {
+            velocity.set(0, 0, 0); // Boxed in - wait for the crowd to move
+        } else if (walking) {
+            float scale = speed / (float) Math.sqrt(lengthSquared);
+            velocity.set(x * scale, 0, z * scale);
+        } else {
+            velocity.set(x * speed * 0.5f, 0, z * speed * 0.5f);
+        }
+    }
+
+    /**
+     * OPTIMIZATION: A corpse outside the near update band has nothing visible left to
+     * do - sleep until the death animation would have finished, then get destroyed
+     */
+    private void sleepCorpseIfDistant() {
+        if (lodBand != EntityManager.LOD_NEAR) {
+            requestSleep(DEATH_ANIMATION_TIME - getDeathTimer(), 0f);
+        }
+    }
+
+    @Override
+    protected void onWake(float sleptSeconds) {
+        // Simulated zombies keep advancing their death timer in the think step
+        if (simulation == null && currentState == ZombieState.DEAD) {
+            deathTimer += sleptSeconds;
+        }
     }
 
     /**
@@ -240,7 +333,7 @@ public class ZombieEnemy extends SpriteEntity {
                 if (distanceToPlayer <= attackRange) {
                     currentState = ZombieState.ATTACKING;
                     desiredDirection.set(0, 0, 0);
-                } else {
+                } else if (!followFlowField(distanceToPlayer) && !followNavPath(distanceToPlayer)) {
                     // CHANGED: Always move towards player, never lose track
                     Vector3f direction = playerPosition.subtract(position).normalizeLocal();
                     direction.y = 0; // Keep movement on ground plane
@@ -264,19 +357,57 @@ public class ZombieEnemy extends SpriteEntity {
         }
     }
 
+    /**
+     * Steer by the shared flow field toward the player
+     * @return false if the field has no direction here (not ready, close by, off the grid)
+     */
+    private boolean followFlowField(float distanceToPlayer) {
+        if (flowField == null || !flowField.isReady() || distanceToPlayer <= NavPath.DIRECT_CHASE_DISTANCE) {
+            return false;
+        }
+
+        int direction = flowField.directionAt(position.x, position.y, position.z);
+        if (direction == FlowField.NO_DIRECTION) {
+            return false;
+        }
+        desiredDirection.set(FlowField.getDirectionX(direction), 0, FlowField.getDirectionZ(direction));
+        return true;
+    }
+
+    /**
+     * Steer along a navmesh path to the player (re-planned when stale)
+     * @return false to walk straight instead (no navmesh, close by, or no path yet)
+     */
+    private boolean followNavPath(float distanceToPlayer) {
+        if (navigation == null || !navigation.hasNavMesh() || distanceToPlayer <= NavPath.DIRECT_CHASE_DISTANCE) {
+            return false;
+        }
+
+        if (navPath.needsReplan(playerPosition.x, playerPosition.z, navigation.getTime())) {
+            navigation.requestPath(navPath, position.x, position.y, position.z,
+                    playerPosition.x, playerPosition.y, playerPosition.z);
+        }
+        if (!navPath.steer(position.x, position.z)) {
+            return false;
+        }
+        desiredDirection.set(navPath.getSteerX(), 0, navPath.getSteerZ());
+        return true;
+    }
+
     /**
      * Update animation based on current state
      */
     private void updateAnimation() {
-        if (currentState != previousState) {
-            String newAnimation = getAnimationForState(currentState);
+        ZombieState state = getCurrentState();
+        if (state != previousState) {
+            String newAnimation = getAnimationForState(state);
 
             if (!newAnimation.equals(getCurrentAnimation())) {
                 playAnimation(newAnimation);
 
             }
 
-            previousState = currentState;
+            previousState = state;
         }
     }
 
@@ -308,8 +439,8 @@ public class ZombieEnemy extends SpriteEntity {
         }
 
         // Deal damage to player if in range
-        if (player != null && playerPosition != null) {
-            float distanceToPlayer = position.distance(playerPosition);
+        float distanceToPlayer = distanceToPlayer();
+        if (player != null && distanceToPlayer >= 0) {
             if (distanceToPlayer <= attackRange) {
                 // NEW: Randomize damage between 10 and 15
                 float randomDamage = 10f + (float)(Math.random() * 5f); // 10 to 15 damage
@@ -325,14 +456,14 @@ public class ZombieEnemy extends SpriteEntity {
         // We don't need complex collision logic here
 
         if (other.getType() == EntityType.ENEMY) {
-            // Other zombies - physics handles this
+            // Other zombies - spacing is resolved by CrowdSteering before anyone moves
 
         }
     }
 
     @Override
     public void takeDamage(float damage) {
-        if (currentState == ZombieState.DEAD) return;
+        if (getCurrentState() == ZombieState.DEAD) return;
 
         // Check if this damage would kill the zombie BEFORE calling super.takeDamage
         boolean willDie = (health - damage) <= 0;
@@ -343,11 +474,14 @@ public class ZombieEnemy extends SpriteEntity {
                 audioManager.playSoundEffect("zombie_death");
             }
 
-            // Handle death without calling super.takeDamage (which would call destroy())
+            // Handle death without calling super.takeDamage (which would queue the destroy)
             health = 0;
-            currentState = ZombieState.DEAD;
+            setCurrentState(ZombieState.DEAD);
             playAnimation("Dead");
 
+            publishEvent(EntityEventBus.EventType.DAMAGED, damage);
+            publishEvent(EntityEventBus.EventType.DIED, 0f);
+
             // Stop movement
             desiredDirection.set(0, 0, 0);
             velocity.set(0, 0, 0);
@@ -360,10 +494,55 @@ public class ZombieEnemy extends SpriteEntity {
     }
     @Override
     public void onDestroy() {
+        detachSimulation();
+        if (navigation != null) {
+            navigation.cancel(navPath);
+        }
         super.onDestroy();
 
     }
 
+    /**
+     * Pool hook: restore constructor defaults. Zombie type, animations, material and
+     * physics body are kept; the spawner re-customizes and re-attaches the simulation.
+     */
+    @Override
+    protected void resetForReuse(Vector3f newPosition) {
+        detachSimulation();
+        if (navigation != null) {
+            navigation.cancel(navPath);
+        }
+
+        this.maxHealth = 50f;
+        super.resetForReuse(newPosition);
+        this.boundingRadius = 1.8f;
+        setBoundingHeight(3.0f);
+        setCollisionSize(1.0f, 4.5f);
+
+        speed = 1.5f;
+        detectionRange = 1000f;
+        attackRange = 2f;
+        attackDamage = 10f;
+        lastAttackTime = 0f;
+        attackCooldown = 2f;
+        dropProcessed = false;
+        deathTimer = 0f;
+
+        currentState = ZombieState.IDLE;
+        previousState = ZombieState.IDLE;
+        desiredDirection.set(0, 0, 0);
+        crowdX = 0f;
+        crowdZ = 0f;
+
+        spriteScale = 0.5f;
+        spriteOffset.set(0, 0, 0);
+        if (spriteAnimator != null) {
+            applySpriteScaling();
+            adjustSpritePosition();
+            playAnimation("Idle");
+        }
+    }
+
     // ==== SPRITE APPEARANCE METHODS ====
 
     /**
@@ -380,10 +559,11 @@ public class ZombieEnemy extends SpriteEntity {
     }
     public void destroy() {
         // Only allow destruction if we're already in death state and timer has elapsed
-        if (currentState == ZombieState.DEAD && deathTimer >= DEATH_ANIMATION_TIME) {
+        ZombieState state = getCurrentState();
+        if (state == ZombieState.DEAD && getDeathTimer() >= DEATH_ANIMATION_TIME) {
             System.out.println("Zombie " + entityId + " final destruction");
             super.destroy();
-        } else if (currentState != ZombieState.DEAD) {
+        } else if (state != ZombieState.DEAD) {
             // Allow immediate destruction if not dying (e.g., game cleanup)
             super.destroy();
         }
@@ -472,7 +652,12 @@ public class ZombieEnemy extends SpriteEntity {
      */
     public void setPlayerPosition(Vector3f playerPos) {
         if (playerPos != null) {
-            this.playerPosition = playerPos.clone();
+            // OPTIMIZATION: Reuse the vector - this is called for every zombie every frame
+            if (this.playerPosition == null) {
+                this.playerPosition = playerPos.clone();
+            } else {
+                this.playerPosition.set(playerPos);
+            }
         }
     }
 
@@ -483,6 +668,28 @@ public class ZombieEnemy extends SpriteEntity {
         this.player = player;
     }
 
+    /**
+     * Set path service for walking around walls (null = straight at the player)
+     */
+    public void setNavigation(NavPathService navigation) {
+        this.navigation = navigation;
+    }
+
+    /**
+     * Set the crowd offset (from CrowdSteering) blended into movement until replaced
+     */
+    public void setCrowdSteering(float x, float z) {
+        this.crowdX = x;
+        this.crowdZ = z;
+    }
+
+    /**
+     * Set shared flow field toward the player (null = navmesh path or straight line)
+     */
+    public void setFlowField(FlowField flowField) {
+        this.flowField = flowField;
+    }
+
     /**
      * Set audio manager reference for sound effects
      */
@@ -494,8 +701,10 @@ public class ZombieEnemy extends SpriteEntity {
      * Set zombie type and reload animations
      */
     public void setZombieType(ZombieType type) {
+        // Same type already loaded (e.g. a pooled zombie) - nothing to reload
+        if (type == zombieType && spriteAnimator != null) return;
         this.zombieType = type;
-        
+
         // Reload animations with new type if sprite animator is already initialized
         if (spriteAnimator != null) {
             loadAnimations();
@@ -514,18 +723,23 @@ public class ZombieEnemy extends SpriteEntity {
      */
     public String getDebugStatus() {
         String baseStatus = String.format("Zombie %s: Type=%s, State=%s, Anim=%s, Health=%.1f, Scale=%.2f",
-                entityId, zombieType, currentState, getCurrentAnimation(), health, spriteScale);
+                entityId, zombieType, getCurrentState(), getCurrentAnimation(), health, spriteScale);
 
         String distanceStatus = "";
-        if (playerPosition != null) {
-            float distance = position.distance(playerPosition);
+        float distance = distanceToPlayer();
+        if (distance >= 0) {
             distanceStatus = String.format(", PlayerDist=%.1f", distance);
         }
 
-        String movementStatus = String.format(", Speed=%.1f", desiredDirection.length() * speed);
+        float directionLength = simulation != null
+                ? FastMath.sqrt(simulation.getDirectionX(simSlot) * simulation.getDirectionX(simSlot)
+                        + simulation.getDirectionZ(simSlot) * simulation.getDirectionZ(simSlot))
+                : desiredDirection.length();
+        String movementStatus = String.format(", Speed=%.1f", directionLength * speed);
+        String simulationStatus = simulation != null ? " [SIM " + simSlot + "]" : "";
         String physicsStatus = isMovementBlocked() ? " [BLOCKED]" : "";
 
-        return baseStatus + distanceStatus + movementStatus + physicsStatus;
+        return baseStatus + distanceStatus + movementStatus + physicsStatus + simulationStatus;
     }
 
     // Check if movement is blocked (method needs to be implemented in SpriteEntity if not exists)
@@ -548,6 +762,9 @@ public class ZombieEnemy extends SpriteEntity {
 
     public void setAttackRange(float range) {
         this.attackRange = Math.max(0.5f, range);
+        if (simulation != null) {
+            simulation.setAttackRange(simSlot, this.attackRange);
+        }
 
     }
 
@@ -569,7 +786,9 @@ public class ZombieEnemy extends SpriteEntity {
     }
     // ==== GETTERS ====
 
-    public ZombieState getCurrentState() { return currentState; }
+    public ZombieState getCurrentState() {
+        return simulation != null ? simulation.getState(simSlot) : currentState;
+    }
     public float getSpeed() { return speed; }
     public float getDetectionRange() { return detectionRange; }
     public float getAttackRange() { return attackRange; }
@@ -583,16 +802,84 @@ public class ZombieEnemy extends SpriteEntity {
      */
     public boolean canSeePlayer() {
         // CHANGED: Always return true since zombies always know where player is
-        return playerPosition != null;
+        return distanceToPlayer() >= 0;
     }
 
     /**
      * Check if zombie is in attack range
      */
     public boolean isInAttackRange() {
-        if (playerPosition == null) return false;
+        float distance = distanceToPlayer();
+        return distance >= 0 && distance <= attackRange;
+    }
+
+    // ==== SIMULATION VIEW ====
+
+    /**
+     * Move this zombie's AI data into a simulation. While attached the simulation's
+     * think step drives the state machine and this object only applies the results.
+     */
+    public void attachSimulation(ZombieSimulation newSimulation) {
+        if (newSimulation == null || newSimulation == simulation) return;
+        detachSimulation();
+
+        simSlot = newSimulation.allocateSlot(this);
+        simulation = newSimulation;
+        simulation.setPosition(simSlot, position.x, position.y, position.z);
+        simulation.setAttackRange(simSlot, attackRange);
+        simulation.setAttackCooldown(simSlot, attackCooldown);
+        simulation.setAttackTimer(simSlot, lastAttackTime);
+        simulation.setDeathTimer(simSlot, deathTimer);
+        simulation.setState(simSlot, currentState);
+    }
+
+    /**
+     * Copy AI data back into this object and release the simulation slot
+     */
+    public void detachSimulation() {
+        if (simulation == null) return;
+
+        currentState = simulation.getState(simSlot);
+        lastAttackTime = simulation.getAttackTimer(simSlot);
+        deathTimer = simulation.getDeathTimer(simSlot);
+        desiredDirection.set(simulation.getDirectionX(simSlot), 0, simulation.getDirectionZ(simSlot));
+
+        simulation.releaseSlot(simSlot);
+        simulation = null;
+        simSlot = -1;
+    }
+
+    @Override
+    public void setPosition(Vector3f newPosition) {
+        super.setPosition(newPosition);
+        if (simulation != null) {
+            simulation.setPosition(simSlot, position.x, position.y, position.z);
+        }
+    }
+
+    public boolean isSimulated() {
+        return simulation != null;
+    }
+
+    private void setCurrentState(ZombieState state) {
+        if (simulation != null) {
+            simulation.setState(simSlot, state);
+        } else {
+            currentState = state;
+        }
+    }
+
+    private float getDeathTimer() {
+        return simulation != null ? simulation.getDeathTimer(simSlot) : deathTimer;
+    }
 
-        float distance = position.distance(playerPosition);
-        return distance <= attackRange;
+    /**
+     * Distance to the tracked player position, or -1 if unknown
+     */
+    private float distanceToPlayer() {
+        if (simulation != null && simulation.hasPlayerPosition()) {
+            return simulation.distanceToPlayer(simSlot);
+        }
+        return playerPosition != null ? position.distance(playerPosition) : -1f;
     }
 }
\ No newline at end of file
@@ -0,0 +1,183 @@
+package horrorjme;
+
+import com.jme3.asset.AssetManager;
+import com.jme3.bullet.BulletAppState;
+import com.jme3.math.Vector3f;
+import com.jme3.renderer.Camera;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Pre-warmed zombie pool, one free list per ZombieType.
+ *
+ * Building a zombie costs a SpriteAnimator (material, quad, geometry), four animation
+ * arrays, a capsule shape and a RigidBodyControl added to Bullet - enough to hitch when
+ * zombies spawn continuously in later rounds. Pooled zombies keep all of that across
+ * destroy(): the pool takes them back when EntityManager reports them DESTROYED and
+ * hands them out again through ZombieEnemy.resetForReuse(), so a pool hit only
+ * re-enables the physics body.
+ */
+public class ZombiePool implements EntityEventBus.Listener {
+
+    private static final int DEFAULT_MAX_PER_TYPE = 24;
+    private static final Vector3f PARK_POSITION = new Vector3f(0, -1000f, 0);
+
+    private final AssetManager assetManager;
+    private final Camera camera;
+    private final BulletAppState bulletAppState;
+    private AudioManager audioManager;
+    private GroundHeightField groundHeightField;
+
+    private final Map<ZombieEnemy.ZombieType, ArrayDeque<ZombieEnemy>> freeLists =
+            new EnumMap<>(ZombieEnemy.ZombieType.class);
+    private int maxPerType = DEFAULT_MAX_PER_TYPE;
+
+    // Stats
+    private int hits;
+    private int misses;
+    private int returned;
+    private int discarded;
+
+    public ZombiePool(AssetManager assetManager, Camera camera, BulletAppState bulletAppState,
+                      EntityManager entityManager) {
+        this.assetManager = assetManager;
+        this.camera = camera;
+        this.bulletAppState = bulletAppState;
+
+        for (ZombieEnemy.ZombieType type : ZombieEnemy.ZombieType.values()) {
+            freeLists.put(type, new ArrayDeque<>());
+        }
+
+        if (entityManager != null) {
+            entityManager.getEventBus().subscribe(EntityEventBus.EventType.DESTROYED, this);
+        }
+    }
+
+    public void setAudioManager(AudioManager audioManager) {
+        this.audioManager = audioManager;
+    }
+
+    /**
+     * Baked ground heights for zombies built from now on (the field is re-baked in place per map)
+     */
+    public void setGroundHeightField(GroundHeightField groundHeightField) {
+        this.groundHeightField = groundHeightField;
+        for (ArrayDeque<ZombieEnemy> freeList : freeLists.values()) {
+            for (ZombieEnemy zombie : freeList) {
+                zombie.setGroundHeightField(groundHeightField);
+            }
+        }
+    }
+
+    /**
+     * Build zombies up front (textures, material, physics body) so the first rounds
+     * spawn from the pool
+     */
+    public void prewarm(int perType) {
+        int count = Math.min(perType, maxPerType);
+        for (ZombieEnemy.ZombieType type : ZombieEnemy.ZombieType.values()) {
+            ArrayDeque<ZombieEnemy> freeList = freeLists.get(type);
+            while (freeList.size() < count) {
+                ZombieEnemy zombie = create(type, PARK_POSITION);
+                zombie.initializeModel();
+                zombie.destroy(); // Takes the body out of the physics space, keeps it built
+                freeList.push(zombie);
+            }
+        }
+        System.out.println("ZombiePool: prewarmed " + getPooledCount() + " zombies");
+    }
+
+    /**
+     * Get a zombie of the given type at a position - reused if one is free
+     */
+    public ZombieEnemy acquire(ZombieEnemy.ZombieType type, Vector3f position) {
+        ZombieEnemy zombie = freeLists.get(type).poll();
+        if (zombie != null) {
+            hits++;
+            zombie.resetForReuse(position);
+            zombie.setAudioManager(audioManager);
+            return zombie;
+        }
+
+        misses++;
+        return create(type, position);
+    }
+
+    /**
+     * Take back destroyed pooled zombies
+     */
+    @Override
+    public void onEntityEvent(EntityEventBus.EventType type, Entity entity, float value) {
+        if (type != EntityEventBus.EventType.DESTROYED || !(entity instanceof ZombieEnemy)) return;
+
+        ZombieEnemy zombie = (ZombieEnemy) entity;
+        // Only zombies this pool built, and only if really destroyed (not just unregistered)
+        if (!zombie.isKeepResourcesOnDestroy() || !zombie.isDestroyed()) return;
+
+        ArrayDeque<ZombieEnemy> freeList = freeLists.get(zombie.getZombieType());
+        if (freeList.size() < maxPerType) {
+            freeList.push(zombie);
+            returned++;
+        } else {
+            // Pool is full - let this one go for real
+            zombie.setKeepResourcesOnDestroy(false);
+            zombie.onDestroy();
+            discarded++;
+        }
+    }
+
+    private ZombieEnemy create(ZombieEnemy.ZombieType type, Vector3f position) {
+        ZombieEnemy zombie = new ZombieEnemy(position, assetManager, camera, bulletAppState, audioManager);
+        zombie.setZombieType(type);
+        zombie.setGroundHeightField(groundHeightField);
+        zombie.setKeepResourcesOnDestroy(true);
+        return zombie;
+    }
+
+    /**
+     * Drop every pooled zombie
+     */
+    public void clear() {
+        for (ArrayDeque<ZombieEnemy> freeList : freeLists.values()) {
+            for (ZombieEnemy zombie : freeList) {
+                zombie.setKeepResourcesOnDestroy(false);
+                zombie.onDestroy();
+            }
+            freeList.clear();
+        }
+    }
+
+    public void setMaxPerType(int maxPerType) {
+        this.maxPerType = Math.max(0, maxPerType);
+    }
+
+    // ==== STATS ====
+
+    public int getHits() { return hits; }
+    public int getMisses() { return misses; }
+    public int getReturned() { return returned; }
+    public int getDiscarded() { return discarded; }
+
+    public float getHitRate() {
+        int total = hits + misses;
+        return total > 0 ? (float) hits / total : 0f;
+    }
+
+    public int getPooledCount(ZombieEnemy.ZombieType type) {
+        return freeLists.get(type).size();
+    }
+
+    public int getPooledCount() {
+        int total = 0;
+        for (ArrayDeque<ZombieEnemy> freeList : freeLists.values()) {
+            total += freeList.size();
+        }
+        return total;
+    }
+
+    public String getStatistics() {
+        return String.format("ZombiePool: %d hits, %d misses (%.0f%% hit rate), %d returned, %d discarded, %d pooled",
+                hits, misses, getHitRate() * 100f, returned, discarded, getPooledCount());
+    }
+}
@@ -0,0 +1,577 @@
+package horrorjme;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Data-oriented zombie AI storage.
+ *
+ * The fields the AI state machine touches every frame live in parallel primitive
+ * arrays indexed by slot, so the think step is one tight loop over contiguous memory
+ * instead of a walk through scattered ZombieEnemy objects. Attached ZombieEnemy
+ * instances become thin views: they read their state from here, apply the results
+ * (animation, attack, movement) during their own update, and mirror their physics
+ * position back after moving.
+ *
+ * Frame order: setPlayerPosition -> think -> EntityManager.update (views apply).
+ *
+ * The think step can run in parallel on a ForkJoinPool: each slot's result depends
+ * only on its own data and the shared player position, so splitting the slot range
+ * is deterministic and gives the same arrays as the serial loop. Everything that
+ * touches the scene graph, Bullet or audio stays in the serial apply phase.
+ *
+ * With a NavPathService set, walking zombies follow navmesh paths to the player. Path
+ * requests are queued in a serial pass before the think step; during it each slot
+ * only reads and advances its own NavPath. A FlowField, when set and ready, takes
+ * priority: one shared lookup per zombie and no path requests at all.
+ *
+ * With an AIScheduler set, the serial pass runs within the frame's AI budget instead:
+ * zombies near the player are served first, then the rest round-robin, and each may
+ * get a path request and a line-of-sight check (SightTest). A zombie that recently
+ * saw the player close by walks straight at them instead of following the field or
+ * path. Work that doesn't fit waits for a later frame.
+ */
+public class ZombieSimulation {
+
+    public static final byte STATE_IDLE = 0;
+    public static final byte STATE_WALKING = 1;
+    public static final byte STATE_ATTACKING = 2;
+    public static final byte STATE_DEAD = 3;
+
+    private static final ZombieEnemy.ZombieState[] STATES = ZombieEnemy.ZombieState.values();
+    private static final int INITIAL_CAPACITY = 128;
+
+    // Scheduled sight checks
+    private static final float SIGHT_CHASE_DISTANCE = 12f;  // Straight chase if seen within this range
+    private static final float SIGHT_MAX_HEIGHT = 2f;       // Same floor only (drops, stairs use the field)
+    private static final float SIGHT_INTERVAL = 0.5f;       // Seconds between checks per zombie
+    private static final float SIGHT_MAX_AGE = 1.5f;        // Older (deferred) results are ignored
+    private static final int MAX_PENDING_PATHS = 16;        // Keep the search queue short so near zombies don't wait
+
+    /**
+     * Line-of-sight test against level geometry (render thread only)
+     */
+    public interface SightTest {
+        boolean isClear(float fromX, float fromY, float fromZ, float toX, float toY, float toZ);
+    }
+
+    // Hot data (indexed by slot, packed at [0, size))
+    private float[] posX;
+    private float[] posY;
+    private float[] posZ;
+    private float[] dirX;
+    private float[] dirZ;
+    private float[] attackRange;
+    private float[] attackCooldown;
+    private float[] attackTimer;
+    private float[] deathTimer;
+    private byte[] state;
+    private boolean[] attackIntent;
+    private boolean[] seesPlayer;
+    private float[] sightTime;     // Clock time of the last sight check
+
+    // Cold data
+    private ZombieEnemy[] views;
+    private NavPath[] paths;      // Per-slot path toward the player (navigation only)
+    private int size;
+
+    // Navigation (null = walk straight at the player)
+    private NavPathService navigation;
+    private FlowField flowField;
+
+    // Scheduling (null = plan every stale path before each think step)
+    private AIScheduler scheduler;
+    private SightTest sightTest;
+    private int scheduleCursor;    // Round-robin start for zombies away from the player
+    private float clock;
+
+    // Shared input
+    private float playerX;
+    private float playerY;
+    private float playerZ;
+    private boolean hasPlayer;
+
+    // OPTIMIZATION: Parallel think phase
+    private boolean parallelThink = true;
+    private int parallelThreshold = 1024;  // ~10 ns per zombie vs ~5 us to fork and join - break-even is several hundred
+    private int splitSize = 256;           // Slots per leaf task (~2.5 us of work, well above task overhead)
+    private ForkJoinPool thinkPool;
+
+    // Stats
+    private long lastThinkNanos;
+    private boolean lastThinkParallel;
+
+    public ZombieSimulation() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        posX = new float[capacity];
+        posY = new float[capacity];
+        posZ = new float[capacity];
+        dirX = new float[capacity];
+        dirZ = new float[capacity];
+        attackRange = new float[capacity];
+        attackCooldown = new float[capacity];
+        attackTimer = new float[capacity];
+        deathTimer = new float[capacity];
+        state = new byte[capacity];
+        attackIntent = new boolean[capacity];
+        seesPlayer = new boolean[capacity];
+        sightTime = new float[capacity];
+        views = new ZombieEnemy[capacity];
+        paths = new NavPath[capacity];
+    }
+
+    // ==== MEMBERSHIP ====
+
+    /**
+     * Reserve a slot for a view. The view fills in its data through the setters.
+     */
+    int allocateSlot(ZombieEnemy view) {
+        if (size == views.length) {
+            grow(size * 2);
+        }
+        int slot = size++;
+        views[slot] = view;
+        if (paths[slot] == null) {
+            paths[slot] = new NavPath();
+        }
+        dirX[slot] = 0f;
+        dirZ[slot] = 0f;
+        attackIntent[slot] = false;
+        seesPlayer[slot] = false;
+        sightTime[slot] = Float.NEGATIVE_INFINITY;
+        return slot;
+    }
+
+    /**
+     * Release a slot. The last slot is swapped into the hole and its view re-pointed.
+     */
+    void releaseSlot(int slot) {
+        int last = --size;
+        NavPath released = paths[slot];
+        if (navigation != null) {
+            navigation.cancel(released);
+        }
+        if (slot != last) {
+            posX[slot] = posX[last];
+            posY[slot] = posY[last];
+            posZ[slot] = posZ[last];
+            dirX[slot] = dirX[last];
+            dirZ[slot] = dirZ[last];
+            attackRange[slot] = attackRange[last];
+            attackCooldown[slot] = attackCooldown[last];
+            attackTimer[slot] = attackTimer[last];
+            deathTimer[slot] = deathTimer[last];
+            state[slot] = state[last];
+            attackIntent[slot] = attackIntent[last];
+            seesPlayer[slot] = seesPlayer[last];
+            sightTime[slot] = sightTime[last];
+            views[slot] = views[last];
+            views[slot].simSlot = slot;
+            paths[slot] = paths[last];
+            paths[last] = released;
+        }
+        views[last] = null;
+    }
+
+    private void grow(int capacity) {
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        posZ = Arrays.copyOf(posZ, capacity);
+        dirX = Arrays.copyOf(dirX, capacity);
+        dirZ = Arrays.copyOf(dirZ, capacity);
+        attackRange = Arrays.copyOf(attackRange, capacity);
+        attackCooldown = Arrays.copyOf(attackCooldown, capacity);
+        attackTimer = Arrays.copyOf(attackTimer, capacity);
+        deathTimer = Arrays.copyOf(deathTimer, capacity);
+        state = Arrays.copyOf(state, capacity);
+        attackIntent = Arrays.copyOf(attackIntent, capacity);
+        seesPlayer = Arrays.copyOf(seesPlayer, capacity);
+        sightTime = Arrays.copyOf(sightTime, capacity);
+        views = Arrays.copyOf(views, capacity);
+        paths = Arrays.copyOf(paths, capacity);
+    }
+
+    /**
+     * Detach every view (they fall back to their own fields)
+     */
+    public void clear() {
+        while (size > 0) {
+            views[size - 1].detachSimulation();
+        }
+    }
+
+    // ==== FRAME ====
+
+    public void setPlayerPosition(float x, float y, float z) {
+        playerX = x;
+        playerY = y;
+        playerZ = z;
+        hasPlayer = true;
+    }
+
+    public void clearPlayerPosition() {
+        hasPlayer = false;
+    }
+
+    /**
+     * Follow navmesh paths toward the player instead of walking straight at them
+     * (null = straight line)
+     */
+    public void setNavigation(NavPathService navigation) {
+        this.navigation = navigation;
+    }
+
+    public NavPathService getNavigation() {
+        return navigation;
+    }
+
+    /**
+     * Steer by a shared flow field toward the player where it has a direction
+     * (null = navmesh paths or straight line)
+     */
+    public void setFlowField(FlowField flowField) {
+        this.flowField = flowField;
+    }
+
+    /**
+     * Spread path requests and sight checks over frames within the scheduler's budget
+     * (null = request every stale path each think step, no sight checks)
+     */
+    public void setScheduler(AIScheduler scheduler, SightTest sightTest) {
+        this.scheduler = scheduler;
+        this.sightTest = sightTest;
+    }
+
+    /**
+     * Run the AI state machine for every zombie
+     */
+    public void think(float tpf) {
+        long start = System.nanoTime();
+        clock += tpf;
+        if (scheduler != null) {
+            runScheduledWork();
+        } else {
+            planPaths();
+        }
+        lastThinkParallel = parallelThink && size >= parallelThreshold;
+        if (lastThinkParallel) {
+            thinkParallel(tpf);
+        } else {
+            thinkRange(tpf, 0, size);
+        }
+        lastThinkNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Serial pass before the think step: queue path requests for walking zombies whose
+     * path is missing or stale. The think step itself only reads paths.
+     */
+    private void planPaths() {
+        if (navigation == null || !hasPlayer || !navigation.hasNavMesh()) return;
+
+        float now = navigation.getTime();
+        boolean flowing = flowField != null && flowField.isReady();
+        for (int i = 0; i < size; i++) {
+            if (state[i] != STATE_WALKING) continue;
+
+            float dx = playerX - posX[i];
+            float dz = playerZ - posZ[i];
+            if (dx * dx + dz * dz <= NavPath.DIRECT_CHASE_DISTANCE * NavPath.DIRECT_CHASE_DISTANCE) continue;
+            if (flowing && flowField.directionAt(posX[i], posY[i], posZ[i]) != FlowField.NO_DIRECTION) continue;
+
+            NavPath path = paths[i];
+            if (path.needsReplan(playerX, playerZ, now)) {
+                navigation.requestPath(path, posX[i], posY[i], posZ[i], playerX, playerY, playerZ);
+            }
+        }
+    }
+
+    /**
+     * Budgeted serial pass before the think step: zombies near the player first, then
+     * the rest round-robin from where the last frame ran out of time
+     */
+    private void runScheduledWork() {
+        if (!hasPlayer || size == 0) return;
+
+        // Near the player - every frame, as long as the budget lasts
+        for (int i = 0; i < size; i++) {
+            if (isNearPlayer(i)) {
+                scheduleSlot(i);
+            }
+        }
+
+        // The rest - resume at the cursor, and leave it at the first zombie that missed out
+        if (scheduleCursor >= size) {
+            scheduleCursor = 0;
+        }
+        int start = scheduleCursor;
+        boolean cursorSet = false;
+        for (int n = 0; n < size; n++) {
+            int i = (start + n) % size;
+            if (isNearPlayer(i)) continue;
+            if (!scheduleSlot(i) && !cursorSet) {
+                scheduleCursor = i;
+                cursorSet = true;
+            }
+        }
+        if (!cursorSet) {
+            scheduleCursor = start;
+        }
+    }
+
+    private boolean isNearPlayer(int i) {
+        float dx = playerX - posX[i];
+        float dz = playerZ - posZ[i];
+        return scheduler.isNear(dx * dx + dz * dz);
+    }
+
+    /**
+     * Run one zombie's due work if the budget allows
+     * @return false if something was due but deferred
+     */
+    private boolean scheduleSlot(int i) {
+        if (state[i] != STATE_WALKING) return true;
+
+        float dx = playerX - posX[i];
+        float dy = playerY - posY[i];
+        float dz = playerZ - posZ[i];
+        float horizontalSquared = dx * dx + dz * dz;
+        boolean allDone = true;
+
+        // Sight check - can this zombie skip the field and walk straight at the player?
+        if (sightTest != null && horizontalSquared <= SIGHT_CHASE_DISTANCE * SIGHT_CHASE_DISTANCE
+                && Math.abs(dy) <= SIGHT_MAX_HEIGHT && clock - sightTime[i] >= SIGHT_INTERVAL) {
+            if (scheduler.hasTime()) {
+                seesPlayer[i] = sightTest.isClear(posX[i], posY[i], posZ[i], playerX, playerY, playerZ);
+                sightTime[i] = clock;
+                scheduler.recordCompleted(AIScheduler.WorkType.LINE_OF_SIGHT);
+            } else {
+                scheduler.recordDeferred(AIScheduler.WorkType.LINE_OF_SIGHT, 1);
+                allDone = false;
+            }
+        }
+
+        // Path request - only where neither a direct chase nor the flow field applies
+        if (navigation == null || !navigation.hasNavMesh()) return allDone;
+        if (horizontalSquared <= NavPath.DIRECT_CHASE_DISTANCE * NavPath.DIRECT_CHASE_DISTANCE) return allDone;
+        if (chasesBySight(i, horizontalSquared, dy)) return allDone;
+        if (flowField != null && flowField.isReady()
+                && flowField.directionAt(posX[i], posY[i], posZ[i]) != FlowField.NO_DIRECTION) return allDone;
+
+        NavPath path = paths[i];
+        if (path.needsReplan(playerX, playerZ, navigation.getTime())) {
+            if (scheduler.hasTime() && navigation.getPendingCount() < MAX_PENDING_PATHS) {
+                navigation.requestPath(path, posX[i], posY[i], posZ[i], playerX, playerY, playerZ);
+                scheduler.recordCompleted(AIScheduler.WorkType.REPLAN);
+            } else {
+                scheduler.recordDeferred(AIScheduler.WorkType.REPLAN, 1);
+                allDone = false;
+            }
+        }
+        return allDone;
+    }
+
+    /**
+     * Recently saw the player close by on the same floor
+     */
+    private boolean chasesBySight(int i, float horizontalSquared, float dy) {
+        return seesPlayer[i] && clock - sightTime[i] <= SIGHT_MAX_AGE
+                && horizontalSquared <= SIGHT_CHASE_DISTANCE * SIGHT_CHASE_DISTANCE
+                && Math.abs(dy) <= SIGHT_MAX_HEIGHT;
+    }
+
+    private void thinkParallel(float tpf) {
+        if (thinkPool == null) {
+            thinkPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        thinkPool.invoke(new ThinkTask(this, tpf, 0, size));
+    }
+
+    /**
+     * Splits the slot range in halves until it's small enough to run directly
+     */
+    private static final class ThinkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ZombieSimulation simulation; // Tasks are never serialized
+        private final float tpf;
+        private final int from;
+        private final int to;
+
+        ThinkTask(ZombieSimulation simulation, float tpf, int from, int to) {
+            this.simulation = simulation;
+            this.tpf = tpf;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= simulation.splitSize) {
+                simulation.thinkRange(tpf, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ThinkTask(simulation, tpf, from, middle), new ThinkTask(simulation, tpf, middle, to));
+        }
+    }
+
+    // ==== PARALLEL CONFIGURATION ====
+
+    public void setParallelThink(boolean enabled) { this.parallelThink = enabled; }
+    public boolean isParallelThink() { return parallelThink; }
+
+    public void setParallelThreshold(int threshold) { this.parallelThreshold = Math.max(1, threshold); }
+    public void setSplitSize(int splitSize) { this.splitSize = Math.max(16, splitSize); }
+
+    /**
+     * Stop the worker threads (they are daemon threads, so this is only for tidiness)
+     */
+    public void shutdown() {
+        if (thinkPool != null) {
+            thinkPool.shutdown();
+            thinkPool = null;
+        }
+    }
+
+    /**
+     * State machine over slots [from, to). Reads shared input and writes only
+     * its own slots, so disjoint ranges are independent.
+     */
+    void thinkRange(float tpf, int from, int to) {
+        final float px = playerX, py = playerY, pz = playerZ;
+        final boolean player = hasPlayer;
+        final boolean navigating = navigation != null && navigation.hasNavMesh();
+        final FlowField flow = flowField != null && flowField.isReady() ? flowField : null;
+        final float directChaseSquared = NavPath.DIRECT_CHASE_DISTANCE * NavPath.DIRECT_CHASE_DISTANCE;
+        int flowDirection;
+
+        for (int i = from; i < to; i++) {
+            byte s = state[i];
+
+            if (s == STATE_DEAD) {
+                deathTimer[i] += tpf;
+                dirX[i] = 0f;
+                dirZ[i] = 0f;
+                continue;
+            }
+
+            attackTimer[i] += tpf;
+
+            if (!player) {
+                state[i] = STATE_IDLE;
+                dirX[i] = 0f;
+                dirZ[i] = 0f;
+                continue;
+            }
+
+            float dx = px - posX[i];
+            float dy = py - posY[i];
+            float dz = pz - posZ[i];
+            float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+
+            switch (s) {
+                case STATE_IDLE:
+                    // Always transition to walking if player position is known
+                    state[i] = STATE_WALKING;
+                    break;
+
+                case STATE_WALKING:
+                    if (distance <= attackRange[i]) {
+                        state[i] = STATE_ATTACKING;
+                        dirX[i] = 0f;
+                        dirZ[i] = 0f;
+                    } else if (chasesBySight(i, dx * dx + dz * dz, dy)) {
+                        // Clear line to the player - no need for the field or a path
+                        float inverse = 1f / distance;
+                        dirX[i] = dx * inverse;
+                        dirZ[i] = dz * inverse;
+                    } else if (flow != null && dx * dx + dz * dz > directChaseSquared
+                            && (flowDirection = flow.directionAt(posX[i], posY[i], posZ[i])) != FlowField.NO_DIRECTION) {
+                        // Shared field toward the player - one lookup, read-only
+                        dirX[i] = FlowField.getDirectionX(flowDirection);
+                        dirZ[i] = FlowField.getDirectionZ(flowDirection);
+                    } else if (navigating && dx * dx + dz * dz > directChaseSquared && paths[i].steer(posX[i], posZ[i])) {
+                        // Around walls along the navmesh path (each slot owns its path)
+                        dirX[i] = paths[i].getSteerX();
+                        dirZ[i] = paths[i].getSteerZ();
+                    } else if (distance > 0f) {
+                        // Normalized in 3D, then flattened to the ground plane
+                        float inverse = 1f / distance;
+                        dirX[i] = dx * inverse;
+                        dirZ[i] = dz * inverse;
+                    }
+                    break;
+
+                case STATE_ATTACKING:
+                    dirX[i] = 0f;
+                    dirZ[i] = 0f;
+
+                    if (distance > attackRange[i]) {
+                        state[i] = STATE_WALKING;
+                    } else if (attackTimer[i] >= attackCooldown[i]) {
+                        attackIntent[i] = true;
+                        attackTimer[i] = 0f;
+                    }
+                    break;
+            }
+        }
+    }
+
+    // ==== SLOT ACCESS (used by ZombieEnemy views) ====
+
+    void setPosition(int slot, float x, float y, float z) {
+        posX[slot] = x;
+        posY[slot] = y;
+        posZ[slot] = z;
+    }
+
+    void setAttackRange(int slot, float value) { attackRange[slot] = value; }
+    void setAttackCooldown(int slot, float value) { attackCooldown[slot] = value; }
+    void setAttackTimer(int slot, float value) { attackTimer[slot] = value; }
+    void setDeathTimer(int slot, float value) { deathTimer[slot] = value; }
+
+    void setState(int slot, ZombieEnemy.ZombieState value) {
+        state[slot] = (byte) value.ordinal();
+        if (value == ZombieEnemy.ZombieState.DEAD || value == ZombieEnemy.ZombieState.IDLE) {
+            dirX[slot] = 0f;
+            dirZ[slot] = 0f;
+        }
+    }
+
+    ZombieEnemy.ZombieState getState(int slot) { return STATES[state[slot]]; }
+    float getDirectionX(int slot) { return dirX[slot]; }
+    float getDirectionZ(int slot) { return dirZ[slot]; }
+    float getAttackTimer(int slot) { return attackTimer[slot]; }
+    float getDeathTimer(int slot) { return deathTimer[slot]; }
+    NavPath getPath(int slot) { return paths[slot]; }
+
+    /**
+     * True once per attack the think step decided on
+     */
+    boolean consumeAttackIntent(int slot) {
+        if (!attackIntent[slot]) return false;
+        attackIntent[slot] = false;
+        return true;
+    }
+
+    boolean hasPlayerPosition() { return hasPlayer; }
+
+    float distanceToPlayer(int slot) {
+        float dx = playerX - posX[slot];
+        float dy = playerY - posY[slot];
+        float dz = playerZ - posZ[slot];
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    // ==== STATS ====
+
+    public int size() { return size; }
+    public ZombieEnemy getView(int slot) { return views[slot]; }
+    public long getLastThinkNanos() { return lastThinkNanos; }
+    public boolean wasLastThinkParallel() { return lastThinkParallel; }
+}
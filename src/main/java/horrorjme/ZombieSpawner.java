@@ -11,7 +11,7 @@ import java.util.List;
  * Dedicated zombie spawning system
  * Handles all zombie creation and placement logic
  */
-public class ZombieSpawner {
+public class ZombieSpawner implements EntityEventBus.Listener {
 
     private AssetManager assetManager;
     private Camera camera;
@@ -19,6 +19,15 @@ public class ZombieSpawner {
     private EntityManager entityManager;
     private Player player;
     private AudioManager audioManager;
+    private ZombieSimulation zombieSimulation; // OPTIMIZATION: Optional data-oriented AI storage
+    private GroundHeightField groundHeightField;
+    private AIScheduler scheduler; // OPTIMIZATION: Gameplay spawn searches spread over frames
+
+    // OPTIMIZATION: Massive enemy tracked from spawn/destroy events instead of scanning enemies
+    private Entity massiveEnemy;
+
+    // OPTIMIZATION: Regular zombies come from a per-type pool (the massive enemy is one-off)
+    private final ZombiePool zombiePool;
 
     // Spawn configuration
     private int zombieCount = 15;
@@ -39,6 +48,42 @@ public class ZombieSpawner {
         this.camera = camera;
         this.bulletAppState = bulletAppState;
         this.entityManager = entityManager;
+        this.zombiePool = new ZombiePool(assetManager, camera, bulletAppState, entityManager);
+
+        if (entityManager != null) {
+            entityManager.getEventBus().subscribe(EntityEventBus.EventType.SPAWNED, this);
+            entityManager.getEventBus().subscribe(EntityEventBus.EventType.DESTROYED, this);
+        }
+    }
+
+    @Override
+    public void onEntityEvent(EntityEventBus.EventType type, Entity entity, float value) {
+        if (type == EntityEventBus.EventType.SPAWNED) {
+            if (isMassiveEnemy(entity)) {
+                massiveEnemy = entity;
+            }
+            // Only registered zombies are simulated - queued spawns dropped by
+            // EntityManager.clear() never take a slot
+            if (zombieSimulation != null && entity instanceof ZombieEnemy && !entity.isDestroyed()) {
+                ((ZombieEnemy) entity).attachSimulation(zombieSimulation);
+            }
+        } else if (type == EntityEventBus.EventType.DESTROYED) {
+            if (entity == massiveEnemy) {
+                massiveEnemy = null;
+            }
+            if (entity instanceof ZombieEnemy) {
+                ((ZombieEnemy) entity).detachSimulation();
+            }
+        }
+    }
+
+    /**
+     * Whether the massive enemy is queued or still registered (dying counts as existing)
+     */
+    private boolean massiveEnemyExists() {
+        // EntityManager.clear() drops entities without events - the handle check covers that
+        return massiveEnemy != null &&
+                (massiveEnemy.spawnQueued || entityManager.isAlive(massiveEnemy.getHandle()));
     }
 
     /**
@@ -53,6 +98,41 @@ public class ZombieSpawner {
      */
     public void setAudioManager(AudioManager audioManager) {
         this.audioManager = audioManager;
+        zombiePool.setAudioManager(audioManager);
+    }
+
+    /**
+     * Baked ground heights for spawned zombies (replaces their per-frame ground ray)
+     */
+    public void setGroundHeightField(GroundHeightField groundHeightField) {
+        this.groundHeightField = groundHeightField;
+        zombiePool.setGroundHeightField(groundHeightField);
+    }
+
+    /**
+     * Build pooled zombies ahead of time so spawning doesn't hitch
+     */
+    public void prewarmPool(int perType) {
+        zombiePool.prewarm(perType);
+    }
+
+    public ZombiePool getZombiePool() {
+        return zombiePool;
+    }
+
+    /**
+     * Attach spawned zombies to a data-oriented simulation (null = classic per-object AI)
+     */
+    public void setZombieSimulation(ZombieSimulation zombieSimulation) {
+        this.zombieSimulation = zombieSimulation;
+    }
+
+    /**
+     * Run gameplay spawn searches as scheduled tasks within the AI frame budget
+     * (null = place every zombie immediately)
+     */
+    public void setScheduler(AIScheduler scheduler) {
+        this.scheduler = scheduler;
     }
 
     public void spawnInitialZombies(Vector3f playerStartPosition) {
@@ -76,7 +156,8 @@ public class ZombieSpawner {
         Vector3f massiveSpawnPos = generateRandomSpawnPosition(playerStartPosition, spawnedPositions);
         ZombieEnemy massiveEnemy = createMassiveEnemy(massiveSpawnPos);
         spawnedPositions.add(massiveSpawnPos.clone());
-        entityManager.addEntity(massiveEnemy);
+        entityManager.queueSpawn(massiveEnemy);
+        this.massiveEnemy = massiveEnemy;
         System.out.println("Spawned MASSIVE ENEMY at: " + massiveSpawnPos);
 
         for (int i = 0; i < zombieCount; i++) {
@@ -92,11 +173,10 @@ public class ZombieSpawner {
             // Add to spawned positions list
             spawnedPositions.add(spawnPos.clone());
 
-            entityManager.addEntity(zombie);
+            // Model and physics body are created when the spawn is applied next frame
+            entityManager.queueSpawn(zombie);
 
-            System.out.println("After addEntity, position: " + zombie.getPosition());
-            System.out.println("Zombie physics body location: " +
-                    (zombie.getRigidBody() != null ? zombie.getRigidBody().getPhysicsLocation() : "NO PHYSICS"));
+            System.out.println("Queued for spawn, pending: " + entityManager.getCommandBuffer().getPendingSpawnCount());
             System.out.println("==============================");
         }
     }
@@ -114,22 +194,18 @@ public class ZombieSpawner {
         // Get existing zombie positions to avoid overlap
         List<Vector3f> existingPositions = getExistingZombiePositions();
 
-        // === SPAWN MASSIVE ENEMY (only if none exists) ===
-        boolean massiveExists = false;
-        for (Entity entity : entityManager.getEntitiesByType(Entity.EntityType.ENEMY)) {
-            if (entity instanceof ZombieEnemy) {
-                ZombieEnemy z = (ZombieEnemy) entity;
-                if (z.getSpriteScale() >= 2.0f && z.getMaxHealth() >= 500f) {
-                    massiveExists = true;
-                    break;
-                }
-            }
+        if (scheduler != null) {
+            queueSpawnSearches(playerPosition.clone(), existingPositions, count);
+            return;
         }
-        if (!massiveExists) {
+
+        // === SPAWN MASSIVE ENEMY (only if none exists) ===
+        if (!massiveEnemyExists()) {
             Vector3f massiveSpawnPos = generateRandomSpawnPosition(playerPosition, existingPositions);
             ZombieEnemy massiveEnemy = createMassiveEnemy(massiveSpawnPos);
             existingPositions.add(massiveSpawnPos.clone());
-            entityManager.addEntity(massiveEnemy);
+            entityManager.queueSpawn(massiveEnemy);
+            this.massiveEnemy = massiveEnemy;
             System.out.println("Spawned MASSIVE ENEMY at: " + massiveSpawnPos);
         }
 
@@ -140,16 +216,50 @@ public class ZombieSpawner {
             // Add to existing positions list
             existingPositions.add(spawnPos.clone());
 
-            entityManager.addEntity(zombie);
+            entityManager.queueSpawn(zombie);
             System.out.println("Additional zombie spawned at: " + spawnPos);
         }
     }
 
+    /**
+     * One scheduled task per zombie. The batch shares its position list, so later
+     * searches still keep their distance from earlier ones.
+     */
+    private void queueSpawnSearches(Vector3f center, List<Vector3f> existingPositions, int count) {
+        if (!massiveEnemyExists()) {
+            scheduler.submit(AIScheduler.WorkType.SPAWN_SEARCH, () -> {
+                if (massiveEnemyExists()) return; // Another batch got there first
+                Vector3f massiveSpawnPos = generateRandomSpawnPosition(center, existingPositions);
+                ZombieEnemy massiveEnemy = createMassiveEnemy(massiveSpawnPos);
+                existingPositions.add(massiveSpawnPos.clone());
+                entityManager.queueSpawn(massiveEnemy);
+                this.massiveEnemy = massiveEnemy;
+                System.out.println("Spawned MASSIVE ENEMY at: " + massiveSpawnPos);
+            });
+        }
+
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            scheduler.submit(AIScheduler.WorkType.SPAWN_SEARCH, () -> {
+                Vector3f spawnPos = generateRandomSpawnPosition(center, existingPositions);
+                ZombieEnemy zombie = createZombie(spawnPos, index);
+                existingPositions.add(spawnPos.clone());
+                entityManager.queueSpawn(zombie);
+                System.out.println("Additional zombie spawned at: " + spawnPos);
+            });
+        }
+    }
+
     /**
      * Create a single zombie with random properties
      */
     private ZombieEnemy createZombie(Vector3f position, int index) {
-        ZombieEnemy zombie = new ZombieEnemy(position, assetManager, camera, bulletAppState, audioManager);
+        // NEW: Randomly select zombie type (equal chance for each type)
+        ZombieEnemy.ZombieType[] zombieTypes = ZombieEnemy.ZombieType.values();
+        ZombieEnemy.ZombieType randomType = zombieTypes[(int)(Math.random() * zombieTypes.length)];
+        ZombieEnemy zombie = zombiePool.acquire(randomType, position);
+
+        System.out.println("Created " + randomType + " zombie #" + (index+1));
 
         // Set player reference for damage dealing
         if (player != null) {
@@ -159,6 +269,7 @@ public class ZombieSpawner {
         // Apply random customization
         customizeZombie(zombie, index);
 
+        // Joins the simulation once registered (SPAWNED), not while it waits in the queue
         return zombie;
     }
 
@@ -234,11 +345,11 @@ public class ZombieSpawner {
         List<Vector3f> positions = new ArrayList<>();
 
         if (entityManager != null) {
-            for (Entity entity : entityManager.getEntitiesByType(Entity.EntityType.ENEMY)) {
-                if (entity instanceof ZombieEnemy && !entity.isDestroyed()) {
+            entityManager.forEach(Entity.EntityType.ENEMY, entity -> {
+                if (entity instanceof ZombieEnemy) {
                     positions.add(entity.getPosition());
                 }
-            }
+            });
         }
 
         System.out.println("Found " + positions.size() + " existing zombie positions");
@@ -249,13 +360,7 @@ public class ZombieSpawner {
      * Apply random customization to a zombie
      */
     private void customizeZombie(ZombieEnemy zombie, int index) {
-        // NEW: Randomly select zombie type (equal chance for each type)
-        ZombieEnemy.ZombieType[] zombieTypes = ZombieEnemy.ZombieType.values();
-        ZombieEnemy.ZombieType randomType = zombieTypes[(int)(Math.random() * zombieTypes.length)];
-        zombie.setZombieType(randomType);
-        
-        System.out.println("Created " + randomType + " zombie #" + (index+1));
-
+        // Zombie type is chosen in createZombie - the pool is keyed by it
         // Random basic properties
         float randomSpeed = 8.0f + (float)(Math.random() * 2.0f);        // 1.0 to 3.0
         float randomDetection = 1000f; // CHANGED: Always maximum detection range
@@ -306,7 +411,7 @@ public class ZombieSpawner {
             ZombieEnemy zombie = createZombie(spawnPos, i);
 
             spawnedPositions.add(spawnPos.clone());
-            entityManager.addEntity(zombie);
+            entityManager.queueSpawn(zombie);
         }
 
         System.out.println("Spawned " + count + " zombies in circle around " + centerPosition + " with radius " + radius);
@@ -392,29 +497,10 @@ public class ZombieSpawner {
             return "No entity manager available";
         }
 
-        int totalZombies = 0;
-        int classicCount = 0;
-        int modernCount = 0;
-        int horrorCount = 0;
-
-        for (Entity entity : entityManager.getEntitiesByType(Entity.EntityType.ENEMY)) {
-            if (entity instanceof ZombieEnemy && !entity.isDestroyed()) {
-                ZombieEnemy zombie = (ZombieEnemy) entity;
-                totalZombies++;
-                
-                switch (zombie.getZombieType()) {
-                    case CLASSIC:
-                        classicCount++;
-                        break;
-                    case MODERN:
-                        modernCount++;
-                        break;
-                    case HORROR:
-                        horrorCount++;
-                        break;
-                }
-            }
-        }
+        int classicCount = countZombies(ZombieEnemy.ZombieType.CLASSIC);
+        int modernCount = countZombies(ZombieEnemy.ZombieType.MODERN);
+        int horrorCount = countZombies(ZombieEnemy.ZombieType.HORROR);
+        int totalZombies = classicCount + modernCount + horrorCount;
 
         StringBuilder stats = new StringBuilder();
         stats.append("=== Zombie Type Statistics ===\n");
@@ -422,16 +508,31 @@ public class ZombieSpawner {
         stats.append("Classic Zombies: ").append(classicCount).append(" (").append(totalZombies > 0 ? (classicCount * 100 / totalZombies) : 0).append("%)\n");
         stats.append("Modern Zombies: ").append(modernCount).append(" (").append(totalZombies > 0 ? (modernCount * 100 / totalZombies) : 0).append("%)\n");
         stats.append("Horror Zombies: ").append(horrorCount).append(" (").append(totalZombies > 0 ? (horrorCount * 100 / totalZombies) : 0).append("%)\n");
+        stats.append(zombiePool.getStatistics()).append("\n");
         stats.append("=============================");
         return stats.toString();
     }
 
+    private int countZombies(ZombieEnemy.ZombieType zombieType) {
+        return entityManager.count(Entity.EntityType.ENEMY,
+                entity -> entity instanceof ZombieEnemy && ((ZombieEnemy) entity).getZombieType() == zombieType);
+    }
+
+    private static boolean isMassiveEnemy(Entity entity) {
+        if (entity instanceof ZombieEnemy) {
+            ZombieEnemy z = (ZombieEnemy) entity;
+            return z.getSpriteScale() >= 2.0f && z.getMaxHealth() >= 500f;
+        }
+        return false;
+    }
+
     // === Helper to create a massive enemy ===
     private ZombieEnemy createMassiveEnemy(Vector3f position) {
         ZombieEnemy.ZombieType[] zombieTypes = ZombieEnemy.ZombieType.values();
         ZombieEnemy.ZombieType randomType = zombieTypes[(int)(Math.random() * zombieTypes.length)];
         ZombieEnemy massive = new ZombieEnemy(position, assetManager, camera, bulletAppState, audioManager);
         massive.setZombieType(randomType);
+        massive.setGroundHeightField(groundHeightField);
         massive.setSpriteScale(2.5f); // Visually massive
         massive.setCollisionSize(1.2f, 5.0f); // Big collision
         massive.setMaxHealth(800f); // Very high health
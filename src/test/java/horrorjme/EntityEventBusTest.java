@@ -0,0 +1,128 @@
+package horrorjme;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EntityEventBusTest {
+
+    private final EntityEventBus bus = new EntityEventBus(16);
+    private final List<Float> received = new ArrayList<>();
+
+    private void listenToDamage() {
+        bus.subscribe(EntityEventBus.EventType.DAMAGED, (type, entity, value) -> received.add(value));
+    }
+
+    private void publishDamage(TestEntity entity, int from, int to) {
+        for (int i = from; i < to; i++) {
+            bus.publish(EntityEventBus.EventType.DAMAGED, entity, i);
+        }
+    }
+
+    private static List<Float> range(int from, int to) {
+        List<Float> values = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            values.add((float) i);
+        }
+        return values;
+    }
+
+    @Test
+    void eventsWithoutListenersAreNotQueued() {
+        bus.publish(EntityEventBus.EventType.SPAWNED, new TestEntity(0f, 0f), 0f);
+        assertEquals(0, bus.getPendingCount());
+    }
+
+    @Test
+    void deliveryKeepsPublishOrderAcrossTheWrap() {
+        listenToDamage();
+        TestEntity entity = new TestEntity(0f, 0f);
+
+        publishDamage(entity, 0, 10);
+        assertEquals(10, bus.dispatch());
+
+        // Head now sits at slot 10 - these 12 wrap around the end of the 16 slot ring
+        publishDamage(entity, 10, 22);
+        assertEquals(16, bus.getCapacity());
+        assertEquals(12, bus.dispatch());
+
+        assertEquals(range(0, 22), received);
+        assertEquals(0, bus.getRingGrowths());
+    }
+
+    @Test
+    void growingAWrappedRingUnwrapsInOrder() {
+        listenToDamage();
+        TestEntity entity = new TestEntity(0f, 0f);
+
+        publishDamage(entity, 0, 10);
+        bus.dispatch();
+        received.clear();
+
+        // Fill past capacity while the ring is wrapped
+        publishDamage(entity, 0, 20);
+        assertEquals(1, bus.getRingGrowths());
+        assertEquals(32, bus.getCapacity());
+        assertEquals(20, bus.dispatch());
+        assertEquals(range(0, 20), received);
+    }
+
+    @Test
+    void eventTypesShareOneOrder() {
+        List<EntityEventBus.EventType> order = new ArrayList<>();
+        EntityEventBus.Listener recorder = (type, entity, value) -> order.add(type);
+        bus.subscribe(EntityEventBus.EventType.DIED, recorder);
+        bus.subscribe(EntityEventBus.EventType.DESTROYED, recorder);
+
+        TestEntity entity = new TestEntity(0f, 0f);
+        bus.publish(EntityEventBus.EventType.DIED, entity, 0f);
+        bus.publish(EntityEventBus.EventType.DESTROYED, entity, 0f);
+        bus.dispatch();
+
+        assertEquals(List.of(EntityEventBus.EventType.DIED, EntityEventBus.EventType.DESTROYED), order);
+    }
+
+    @Test
+    void eventsPublishedDuringDispatchAreDeliveredInTheSameCall() {
+        List<EntityEventBus.EventType> order = new ArrayList<>();
+        bus.subscribe(EntityEventBus.EventType.DIED, (type, entity, value) -> {
+            order.add(type);
+            bus.publish(EntityEventBus.EventType.DESTROYED, entity, 0f);
+        });
+        bus.subscribe(EntityEventBus.EventType.DESTROYED, (type, entity, value) -> order.add(type));
+
+        bus.publish(EntityEventBus.EventType.DIED, new TestEntity(0f, 0f), 0f);
+        assertEquals(2, bus.dispatch());
+        assertEquals(List.of(EntityEventBus.EventType.DIED, EntityEventBus.EventType.DESTROYED), order);
+        assertEquals(0, bus.getPendingCount());
+    }
+
+    @Test
+    void failingListenerDoesNotStopTheOthers() {
+        bus.subscribe(EntityEventBus.EventType.DAMAGED, (type, entity, value) -> {
+            throw new IllegalStateException("listener bug");
+        });
+        listenToDamage();
+
+        publishDamage(new TestEntity(0f, 0f), 0, 3);
+        assertEquals(3, bus.dispatch());
+        assertEquals(range(0, 3), received);
+    }
+
+    @Test
+    void clearDropsQueuedEventsButKeepsSubscriptions() {
+        listenToDamage();
+        TestEntity entity = new TestEntity(0f, 0f);
+
+        publishDamage(entity, 0, 5);
+        bus.clear();
+        assertEquals(0, bus.dispatch());
+
+        publishDamage(entity, 5, 6);
+        bus.dispatch();
+        assertEquals(range(5, 6), received);
+        assertEquals(1, bus.getListenerCount(EntityEventBus.EventType.DAMAGED));
+    }
+}
@@ -0,0 +1,62 @@
+package horrorjme;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jme3.scene.Node;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EntityManagerTest {
+
+    private final EntityManager manager = new EntityManager(new Node());
+
+    @Test
+    void entityAddedDuringAQueryIsNotVisitedAndHidesNoSleeper() {
+        TestEntity awake = new TestEntity(0f, 0f);
+        TestEntity sleeper = new TestEntity(1f, 0f);
+        TestEntity other = new TestEntity(2f, 0f);
+        manager.addEntity(awake);
+        manager.addEntity(sleeper);
+        manager.addEntity(other);
+        manager.sleepEntity(sleeper, 100f, 0f);
+        assertEquals(1, manager.getSleepingEntityCount());
+
+        TestEntity added = new TestEntity(3f, 0f);
+        List<Entity> visited = new ArrayList<>();
+        manager.forEach(entity -> {
+            if (visited.isEmpty()) {
+                manager.addEntity(added);
+                assertFalse(manager.isAlive(added.getHandle()), "add applied under the query");
+            }
+            visited.add(entity);
+        });
+
+        assertEquals(3, visited.size());
+        assertTrue(visited.contains(sleeper));
+        assertFalse(visited.contains(added));
+
+        // Applied once the query returned
+        assertTrue(manager.isAlive(added.getHandle()));
+        assertEquals(4, manager.getEntityCount());
+        assertEquals(1, manager.getSleepingEntityCount());
+    }
+
+    @Test
+    void removingADeferredAddCancelsIt() {
+        manager.addEntity(new TestEntity(0f, 0f));
+
+        TestEntity added = new TestEntity(1f, 0f);
+        manager.forEach(entity -> {
+            manager.addEntity(added);
+            manager.removeEntity(added);
+        });
+
+        assertFalse(manager.isAlive(added.getHandle()));
+        assertEquals(1, manager.getEntityCount());
+
+        // Still addable afterwards
+        manager.addEntity(added);
+        assertTrue(manager.isAlive(added.getHandle()));
+    }
+}
@@ -0,0 +1,111 @@
+package horrorjme;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class EntityTableTest {
+
+    private final EntityTable table = new EntityTable();
+
+    @Test
+    void reusedSlotGetsANewGeneration() {
+        TestEntity first = new TestEntity(0f, 0f);
+        int oldHandle = table.add(first);
+        assertTrue(table.remove(oldHandle));
+
+        TestEntity second = new TestEntity(1f, 1f);
+        int newHandle = table.add(second);
+
+        assertEquals(EntityHandle.indexOf(oldHandle), EntityHandle.indexOf(newHandle));
+        assertNotEquals(oldHandle, newHandle);
+        assertFalse(table.isValid(oldHandle));
+        assertNull(table.get(oldHandle));
+        assertSame(second, table.get(newHandle));
+        assertFalse(table.remove(oldHandle)); // Stale handle must not remove the new occupant
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void generationWrapNeverProducesNone() {
+        int handle = table.add(new TestEntity(0f, 0f));
+        int firstGeneration = EntityHandle.generationOf(handle);
+
+        // Cycle one slot through every generation and past the wrap
+        for (int i = 0; i <= EntityHandle.GENERATION_MASK; i++) {
+            table.remove(handle);
+            handle = table.add(new TestEntity(0f, 0f));
+            assertNotEquals(EntityHandle.NONE, handle);
+            assertNotEquals(0, EntityHandle.generationOf(handle));
+            assertTrue(table.isValid(handle));
+        }
+        // GENERATION_MASK usable generations, so a full cycle plus one lands one past the start
+        assertEquals(firstGeneration % EntityHandle.GENERATION_MASK + 1, EntityHandle.generationOf(handle));
+    }
+
+    @Test
+    void handlesFromBeforeClearStayStale() {
+        int a = table.add(new TestEntity(0f, 0f));
+        int b = table.add(new TestEntity(1f, 0f));
+        table.clear();
+
+        assertEquals(0, table.size());
+        assertFalse(table.isValid(a));
+        assertFalse(table.isValid(b));
+
+        int c = table.add(new TestEntity(2f, 0f));
+        assertNotEquals(a, c);
+        assertNotEquals(b, c);
+    }
+
+    @Test
+    void removalKeepsDenseArraysPacked() {
+        TestEntity[] entities = new TestEntity[5];
+        int[] handles = new int[5];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = new TestEntity(i, 0f);
+            handles[i] = table.add(entities[i]);
+        }
+
+        table.remove(handles[1]);
+        table.remove(handles[3]);
+
+        assertEquals(3, table.size());
+        for (int i : new int[] {0, 2, 4}) {
+            int denseIndex = table.denseIndexOf(handles[i]);
+            assertSame(entities[i], table.getDense(denseIndex));
+            assertEquals(handles[i], table.getDenseHandle(denseIndex));
+            assertEquals(i, table.getTrackedX(denseIndex), 0f);
+        }
+    }
+
+    @Test
+    void sleepingEntitiesLeaveTheAwakeRange() {
+        int a = table.add(new TestEntity(0f, 0f));
+        int b = table.add(new TestEntity(1f, 0f));
+        int c = table.add(new TestEntity(2f, 0f));
+
+        assertTrue(table.setSleeping(a, true));
+        assertFalse(table.setSleeping(a, true));
+        assertEquals(2, table.awakeCount());
+        assertTrue(table.denseIndexOf(a) >= table.awakeCount());
+
+        // Removing an awake entity must not pull a sleeper into the awake range
+        table.remove(b);
+        assertEquals(1, table.awakeCount());
+        assertEquals(0, table.denseIndexOf(c));
+        assertTrue(table.denseIndexOf(a) >= table.awakeCount());
+
+        assertTrue(table.setSleeping(a, false));
+        assertEquals(2, table.awakeCount());
+    }
+
+    @Test
+    void debugStringRoundTrips() {
+        int handle = EntityHandle.pack(42, 3);
+        assertEquals("42v3", EntityHandle.toDebugString(handle));
+        assertEquals(handle, EntityHandle.parseDebugString("42v3"));
+        assertEquals(handle, EntityHandle.parseDebugString("ENEMY_42v3"));
+        assertEquals(EntityHandle.NONE, EntityHandle.parseDebugString("not a handle"));
+    }
+}
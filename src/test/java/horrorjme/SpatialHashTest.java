@@ -0,0 +1,183 @@
+package horrorjme;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class SpatialHashTest {
+
+    private final SpatialHash hash = new SpatialHash(4f);
+
+    @Test
+    void cellsEitherSideOfOriginStaySeparate() {
+        assertEquals(0, hash.toCell(0.5f));
+        assertEquals(-1, hash.toCell(-0.5f));
+        assertEquals(-2, hash.toCell(-4.5f));
+        assertNotEquals(hash.cellKey(0.5f, 0.5f), hash.cellKey(-0.5f, 0.5f));
+
+        long key = SpatialHash.packCell(-3, 7);
+        assertEquals(-3, SpatialHash.unpackCellX(key));
+        assertEquals(7, SpatialHash.unpackCellZ(key));
+    }
+
+    @Test
+    void updateMovesEntityOnlyWhenItChangesCell() {
+        TestEntity entity = new TestEntity(1f, 1f);
+        hash.insert(entity);
+        assertEquals(1, hash.getCellPopulation(0, 0));
+
+        entity.moveTo(2f, 3f);
+        assertFalse(hash.update(entity));
+
+        entity.moveTo(9f, -1f);
+        assertTrue(hash.update(entity));
+        assertEquals(0, hash.getCellPopulation(0, 0));
+        assertEquals(1, hash.getCellPopulation(2, -1));
+        assertEquals(1, hash.getEntityCount());
+    }
+
+    @Test
+    void swapRemoveKeepsTheRestOfTheCellRemovable() {
+        TestEntity a = new TestEntity(1f, 1f);
+        TestEntity b = new TestEntity(2f, 1f);
+        TestEntity c = new TestEntity(3f, 1f);
+        hash.insert(a);
+        hash.insert(b);
+        hash.insert(c);
+
+        hash.remove(a); // c is swapped into a's slot
+        hash.remove(c);
+        assertEquals(1, hash.getCellPopulation(0, 0));
+
+        EntityQueryBuffer out = new EntityQueryBuffer(4);
+        hash.queryCell(0, 0, out);
+        assertSame(b, out.get(0));
+    }
+
+    @Test
+    void queryRangeUsesTrueDistance() {
+        TestEntity near = new TestEntity(1f, 0f);
+        TestEntity corner = new TestEntity(3f, 3f); // Inside the query square, outside the circle
+        hash.insert(near);
+        hash.insert(corner);
+
+        EntityQueryBuffer out = new EntityQueryBuffer(4);
+        assertEquals(1, hash.queryRange(0f, 0f, 0f, 3f, null, out));
+        assertSame(near, out.get(0));
+    }
+
+    @Test
+    void queryRangeHandlesUnboundedRanges() {
+        TestEntity near = new TestEntity(1f, 1f);
+        TestEntity far = new TestEntity(3e9f, -3e9f); // Beyond int cell coordinates
+        hash.insert(near);
+        hash.insert(far);
+
+        EntityQueryBuffer out = new EntityQueryBuffer(4);
+        assertEquals(1, hash.queryRange(0f, 0f, 0f, 50f, null, out));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            out.clear();
+            assertEquals(2, hash.queryRange(0f, 0f, 0f, Float.POSITIVE_INFINITY, null, out));
+            out.clear();
+            assertEquals(2, hash.queryRange(0f, 0f, 0f, Float.MAX_VALUE, null, out));
+            out.clear();
+            assertEquals(1, hash.queryRange(3e9f, 0f, -3e9f, 1f, null, out));
+            assertSame(far, out.get(0));
+            out.clear();
+            assertEquals(0, hash.queryRange(0f, 0f, 0f, Float.NaN, null, out));
+        });
+    }
+
+    @Test
+    void findNearestPrefersTheCloserEntityInAnOuterRing() {
+        // Same cell but far corner vs. adjacent cell just over the edge
+        TestEntity sameCell = new TestEntity(3.9f, 3.9f);
+        TestEntity nextCell = new TestEntity(-0.2f, 0.5f);
+        hash.insert(sameCell);
+        hash.insert(nextCell);
+
+        assertSame(nextCell, hash.findNearest(0.5f, 0f, 0.5f, 100f, null, null));
+    }
+
+    @Test
+    void findKNearestReturnsClosestFirst() {
+        for (int i = 5; i >= 1; i--) {
+            hash.insert(new TestEntity(i * 3f, 0f));
+        }
+
+        EntityQueryBuffer out = new EntityQueryBuffer(4);
+        assertEquals(3, hash.findKNearest(0f, 0f, 0f, 3, 100f, null, null, out));
+        assertEquals(3f, out.get(0).position.x, 0f);
+        assertEquals(6f, out.get(1).position.x, 0f);
+        assertEquals(9f, out.get(2).position.x, 0f);
+    }
+
+    @Test
+    void ringSearchTerminatesWhenNothingMatches() {
+        // Every entity is seen but none passes the type filter - must stop, not ring forever
+        hash.insert(new TestEntity(Entity.EntityType.PICKUP, 1f, 0f, 1f));
+        hash.insert(new TestEntity(Entity.EntityType.PICKUP, 5000f, 0f, -5000f));
+
+        Entity found = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> hash.findNearest(0f, 0f, 0f, Float.MAX_VALUE, Entity.EntityType.ENEMY, null));
+        assertNull(found);
+    }
+
+    @Test
+    void ringSearchReachesASingleFarEntity() {
+        TestEntity far = new TestEntity(4000f, -4000f);
+        hash.insert(far);
+
+        Entity found = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> hash.findNearest(0f, 0f, 0f, Float.MAX_VALUE, null, null));
+        assertSame(far, found);
+    }
+
+    @Test
+    void ringSearchStopsAtMaxRange() {
+        hash.insert(new TestEntity(20f, 0f));
+        assertNull(hash.findNearest(0f, 0f, 0f, 10f, null, null));
+    }
+
+    @Test
+    void findNearestSkipsExcludedAndDestroyed() {
+        TestEntity self = new TestEntity(0.5f, 0.5f);
+        TestEntity dead = new TestEntity(1f, 0.5f);
+        TestEntity other = new TestEntity(2f, 0.5f);
+        hash.insert(self);
+        hash.insert(dead);
+        hash.insert(other);
+        dead.destroy();
+
+        assertSame(other, hash.findNearest(0.5f, 0f, 0.5f, 100f, null, self));
+    }
+
+    @Test
+    void querySegmentReturnsFirstHitAlongTheSegment() {
+        TestEntity far = new TestEntity(20f, 0f);
+        TestEntity near = new TestEntity(10f, 0f);
+        TestEntity offPath = new TestEntity(5f, 3f);
+        hash.insert(far);
+        hash.insert(near);
+        hash.insert(offPath);
+
+        assertSame(near, hash.querySegment(0f, 0f, 0f, 30f, 0f, 0f, 0f, null, null, null));
+        assertEquals(10f - near.getBoundingRadius(), hash.getSegmentHitDistance(), 1e-3f);
+
+        assertNull(hash.querySegment(0f, 0f, 0f, 8f, 0f, 0f, 0f, null, null, null));
+    }
+
+    @Test
+    void tableGrowsAndKeepsEveryEntity() {
+        for (int i = 0; i < 500; i++) {
+            hash.insert(new TestEntity(i * 4f, (i % 7) * 4f));
+        }
+        assertEquals(500, hash.getEntityCount());
+        assertEquals(500, hash.getOccupiedCellCount());
+
+        EntityQueryBuffer out = new EntityQueryBuffer(4);
+        assertEquals(500, hash.queryRange(1000f, 0f, 12f, 5000f, null, out));
+    }
+}
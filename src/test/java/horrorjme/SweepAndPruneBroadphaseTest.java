@@ -0,0 +1,151 @@
+package horrorjme;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class SweepAndPruneBroadphaseTest {
+
+    private final SweepAndPruneBroadphase broadphase = new SweepAndPruneBroadphase();
+
+    private static String pairKey(Entity a, Entity b) {
+        int first = System.identityHashCode(a);
+        int second = System.identityHashCode(b);
+        return Math.min(first, second) + ":" + Math.max(first, second);
+    }
+
+    private Set<String> collect() {
+        Set<String> pairs = new HashSet<>();
+        broadphase.collectPairs((a, b) -> assertTrue(pairs.add(pairKey(a, b)), "pair reported twice"));
+        return pairs;
+    }
+
+    /**
+     * Pairs whose bounding circles' horizontal extents overlap on both axes
+     */
+    private static Set<String> bruteForce(TestEntity[] entities) {
+        Set<String> pairs = new HashSet<>();
+        for (int i = 0; i < entities.length; i++) {
+            for (int j = i + 1; j < entities.length; j++) {
+                TestEntity a = entities[i];
+                TestEntity b = entities[j];
+                if (a.isDestroyed() || b.isDestroyed()) continue;
+                float reach = a.getBoundingRadius() + b.getBoundingRadius();
+                if (Math.abs(a.position.x - b.position.x) <= reach
+                        && Math.abs(a.position.z - b.position.z) < reach) {
+                    pairs.add(pairKey(a, b));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private void assertSortedByMin(TestEntity[] entities) {
+        float previous = Float.NEGATIVE_INFINITY;
+        for (int slot = 0; slot < entities.length; slot++) {
+            TestEntity atSlot = null;
+            for (TestEntity entity : entities) {
+                if (entity.broadphaseIndex == slot) atSlot = entity;
+            }
+            if (atSlot == null) continue;
+            float key = (broadphase.isSweepAlongX() ? atSlot.position.x : atSlot.position.z) - atSlot.getBoundingRadius();
+            assertTrue(key >= previous, "slot " + slot + " out of order");
+            previous = key;
+        }
+    }
+
+    @Test
+    void insertionInReverseOrderEndsUpSorted() {
+        TestEntity[] entities = new TestEntity[6];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = new TestEntity((entities.length - i) * 0.8f, 0f);
+            broadphase.add(entities[i]);
+        }
+        // Added last-to-first along X, so the first pass has to sort everything
+        assertEquals(0, entities[0].broadphaseIndex);
+
+        assertEquals(bruteForce(entities), collect());
+        assertTrue(broadphase.getLastSortSwaps() > 0);
+        assertEquals(entities.length - 1, entities[0].broadphaseIndex);
+        assertEquals(0, entities[entities.length - 1].broadphaseIndex);
+        assertSortedByMin(entities);
+
+        // Nothing moved - the next pass is already sorted
+        collect();
+        assertEquals(0, broadphase.getLastSortSwaps());
+    }
+
+    @Test
+    void entityOvertakingItsNeighboursIsResorted() {
+        TestEntity a = new TestEntity(0f, 0f);
+        TestEntity b = new TestEntity(2f, 0f);
+        TestEntity c = new TestEntity(4f, 0f);
+        broadphase.add(a);
+        broadphase.add(b);
+        broadphase.add(c);
+        assertTrue(collect().isEmpty());
+
+        a.moveTo(4.5f, 0f);
+        Set<String> pairs = collect();
+        assertEquals(Set.of(pairKey(a, c)), pairs);
+        assertEquals(2, a.broadphaseIndex);
+        assertSortedByMin(new TestEntity[] {a, b, c});
+    }
+
+    @Test
+    void removedEntitiesAreCompactedAway() {
+        TestEntity a = new TestEntity(0f, 0f);
+        TestEntity b = new TestEntity(0.5f, 0f);
+        TestEntity c = new TestEntity(1f, 0f);
+        broadphase.add(a);
+        broadphase.add(b);
+        broadphase.add(c);
+
+        broadphase.remove(b);
+        assertEquals(-1, b.broadphaseIndex);
+        assertEquals(2, broadphase.getSize());
+
+        assertEquals(Set.of(pairKey(a, c)), collect());
+        assertEquals(0, a.broadphaseIndex);
+        assertEquals(1, c.broadphaseIndex);
+
+        // Re-adding after removal works
+        broadphase.add(b);
+        assertEquals(3, collect().size());
+    }
+
+    @Test
+    void sweepAxisFollowsTheLargerSpread() {
+        TestEntity[] corridor = new TestEntity[8];
+        for (int i = 0; i < corridor.length; i++) {
+            corridor[i] = new TestEntity(0.1f * i, i * 0.7f); // Runs along Z
+            broadphase.add(corridor[i]);
+        }
+
+        assertEquals(bruteForce(corridor), collect());
+        assertFalse(broadphase.isSweepAlongX());
+        assertSortedByMin(corridor);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomCrowds() {
+        Random random = new Random(1234);
+        TestEntity[] crowd = new TestEntity[200];
+        for (int i = 0; i < crowd.length; i++) {
+            crowd[i] = new TestEntity(random.nextFloat() * 30f, random.nextFloat() * 10f);
+            crowd[i].setBoundingRadius(0.3f + random.nextFloat() * 0.7f);
+            broadphase.add(crowd[i]);
+        }
+
+        for (int frame = 0; frame < 5; frame++) {
+            assertEquals(bruteForce(crowd), collect(), "frame " + frame);
+            for (TestEntity entity : crowd) {
+                entity.moveTo(entity.position.x + random.nextFloat() - 0.5f,
+                        entity.position.z + random.nextFloat() - 0.5f);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package horrorjme;
+
+import com.jme3.math.Vector3f;
+
+/**
+ * Minimal concrete entity for tests - no model, no scene
+ */
+class TestEntity extends Entity {
+
+    TestEntity(float x, float z) {
+        this(EntityType.ENEMY, x, 0f, z);
+    }
+
+    TestEntity(EntityType type, float x, float y, float z) {
+        super(type, new Vector3f(x, y, z));
+    }
+
+    void moveTo(float x, float z) {
+        position.set(x, position.y, z);
+    }
+
+    @Override
+    public void update(float tpf) {
+    }
+
+    @Override
+    public void onCollision(Entity other) {
+    }
+
+    @Override
+    public void onDestroy() {
+    }
+
+    @Override
+    public void initializeModel() {
+    }
+}
@@ -0,0 +1,112 @@
+package horrorjme;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.jme3.scene.Geometry;
+import com.jme3.scene.shape.Box;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ZombieSimulationTest {
+
+    private static final int ZOMBIES = 600;
+    private static final float TPF = 1f / 60f;
+
+    private final NavPathService navigation = new NavPathService();
+    private final ZombieSimulation serial = new ZombieSimulation();
+    private final ZombieSimulation parallel = new ZombieSimulation();
+
+    @AfterEach
+    void tearDown() {
+        serial.shutdown();
+        parallel.shutdown();
+        navigation.shutdown();
+    }
+
+    /**
+     * Same seed, same horde: a mix of states and ranges, each walker with a short
+     * ready path whose first waypoint is already reached, so steering advances cursors
+     */
+    private void populate(ZombieSimulation simulation) {
+        Random random = new Random(42);
+        ZombieEnemy.ZombieState[] states = ZombieEnemy.ZombieState.values();
+
+        for (int i = 0; i < ZOMBIES; i++) {
+            int slot = simulation.allocateSlot(null);
+            float x = random.nextFloat() * 80f - 40f;
+            float z = random.nextFloat() * 80f - 40f;
+            simulation.setPosition(slot, x, 0f, z);
+            simulation.setAttackRange(slot, 1.5f + random.nextFloat() * 10f);
+            simulation.setAttackCooldown(slot, 0.05f + random.nextFloat() * 0.2f);
+            simulation.setAttackTimer(slot, random.nextFloat());
+            simulation.setState(slot, states[random.nextInt(states.length)]);
+
+            NavPath path = simulation.getPath(slot);
+            path.status = NavPath.Status.READY;
+            path.count = 3;
+            path.next = 0;
+            setWaypoint(path, 0, x + 0.1f, z);
+            setWaypoint(path, 1, x * 0.5f + random.nextFloat(), z * 0.5f);
+            setWaypoint(path, 2, 0f, 0f);
+            path.goalX = 0f;
+            path.goalZ = 0f;
+            path.requestTime = 0f; // Fresh - no re-plan during the test
+        }
+
+        simulation.setNavigation(navigation);
+        simulation.setPlayerPosition(0f, 0f, 0f);
+    }
+
+    private static void setWaypoint(NavPath path, int index, float x, float z) {
+        path.points[index * 3] = x;
+        path.points[index * 3 + 1] = 0.1f;
+        path.points[index * 3 + 2] = z;
+    }
+
+    @Test
+    void parallelThinkMatchesSerialThink() {
+        navigation.setNavMesh(NavMesh.build(new Geometry("Floor", new Box(60f, 0.1f, 60f))));
+        populate(serial);
+        populate(parallel);
+
+        serial.setParallelThink(false);
+        parallel.setParallelThink(true);
+        parallel.setParallelThreshold(1);
+        parallel.setSplitSize(16);
+
+        int cursorsAdvanced = 0;
+        int attacks = 0;
+        for (int frame = 0; frame < 30; frame++) {
+            serial.think(TPF);
+            parallel.think(TPF);
+            assertFalse(serial.wasLastThinkParallel());
+            assertTrue(parallel.wasLastThinkParallel());
+
+            for (int slot = 0; slot < ZOMBIES; slot++) {
+                String where = "frame " + frame + ", slot " + slot;
+                assertEquals(serial.getState(slot), parallel.getState(slot), where);
+                assertEquals(serial.getDirectionX(slot), parallel.getDirectionX(slot), 0f, where);
+                assertEquals(serial.getDirectionZ(slot), parallel.getDirectionZ(slot), 0f, where);
+                assertEquals(serial.getAttackTimer(slot), parallel.getAttackTimer(slot), 0f, where);
+                assertEquals(serial.getDeathTimer(slot), parallel.getDeathTimer(slot), 0f, where);
+
+                boolean attacked = serial.consumeAttackIntent(slot);
+                assertEquals(attacked, parallel.consumeAttackIntent(slot), where);
+                if (attacked) attacks++;
+
+                NavPath serialPath = serial.getPath(slot);
+                NavPath parallelPath = parallel.getPath(slot);
+                assertEquals(serialPath.getStatus(), parallelPath.getStatus(), where);
+                assertEquals(serialPath.getNextWaypoint(), parallelPath.getNextWaypoint(), where);
+                assertEquals(serialPath.getSteerX(), parallelPath.getSteerX(), 0f, where);
+                assertEquals(serialPath.getSteerZ(), parallelPath.getSteerZ(), 0f, where);
+                if (frame == 0 && serialPath.getNextWaypoint() > 0) cursorsAdvanced++;
+            }
+        }
+
+        // The fixture has to exercise the paths that can diverge
+        assertTrue(cursorsAdvanced > 0, "no path cursor advanced");
+        assertTrue(attacks > 0, "no attack decided");
+    }
+}